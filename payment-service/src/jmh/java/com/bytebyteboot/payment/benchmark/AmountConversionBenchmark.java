@@ -0,0 +1,60 @@
+package com.bytebyteboot.payment.benchmark;
+
+import com.bytebyteboot.payment.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rupee-to-paise conversion as done when building the Razorpay order request, against exact
+ * alternatives that avoid the intermediate multiply. {@link #moneyOf()} is what createOrder uses now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AmountConversionBenchmark {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Param({"499.00", "12345.67", "0.5"})
+    private String amountText;
+
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal(amountText);
+    }
+
+    // What createOrder did before Money; truncates and overflows int above about 2.1 crore
+    @Benchmark
+    public int multiplyIntValue() {
+        return amount.multiply(BigDecimal.valueOf(100)).intValue();
+    }
+
+    @Benchmark
+    public long movePointRightExact() {
+        return amount.movePointRight(2).setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+    }
+
+    @Benchmark
+    public long unscaledAtScaleTwo() {
+        BigDecimal scaled = amount.scale() == 2 ? amount : amount.setScale(2, RoundingMode.UNNECESSARY);
+        return scaled.unscaledValue().longValueExact();
+    }
+
+    @Benchmark
+    public long cachedHundred() {
+        return amount.multiply(HUNDRED).longValue();
+    }
+
+    @Benchmark
+    public long moneyOf() {
+        return Money.toMinorUnits(amount, "INR");
+    }
+}
@@ -0,0 +1,77 @@
+package com.bytebyteboot.payment.benchmark;
+
+import com.bytebyteboot.payment.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totalling a batch of order amounts the way the rollups and the backfill do, with amounts held as
+ * BigDecimal against long minor units. Run with the GC profiler (the jmh profile's default) and
+ * compare gc.alloc.rate.norm: the BigDecimal paths allocate per amount, {@link #sumMinorUnits()}
+ * nothing, and {@link #sumMoney()} nothing once escape analysis removes the intermediate records.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyAggregationBenchmark {
+
+    @Param({"1000"})
+    private int orderCount;
+
+    private BigDecimal[] decimalAmounts;
+    private long[] minorAmounts;
+
+    @Setup
+    public void setUp() {
+        decimalAmounts = new BigDecimal[orderCount];
+        minorAmounts = new long[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            long paise = 10_000 + ThreadLocalRandom.current().nextLong(5_000_000);
+            decimalAmounts[i] = BigDecimal.valueOf(paise, 2);
+            minorAmounts[i] = paise;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimalAmounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    // The pre-Money rollup path: each amount converted to paise as it is added
+    @Benchmark
+    public long sumBigDecimalToPaise() {
+        long total = 0;
+        for (BigDecimal amount : decimalAmounts) {
+            total += amount.movePointRight(2).longValue();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumMinorUnits() {
+        long total = 0;
+        for (long amount : minorAmounts) {
+            total = Money.add(total, amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        Money total = Money.ofMinor(0, "INR");
+        for (long amount : minorAmounts) {
+            total = total.plus(Money.ofMinor(amount, "INR"));
+        }
+        return total;
+    }
+}
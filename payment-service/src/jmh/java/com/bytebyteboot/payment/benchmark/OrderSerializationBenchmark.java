@@ -0,0 +1,71 @@
+package com.bytebyteboot.payment.benchmark;
+
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and Jackson serialization of order lists, as returned by GET /orders and
+ * the paged listing. The mapper mirrors Spring Boot's defaults (JSR-310 module, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int orderCount;
+
+    private List<PaymentOrder> orders;
+    private List<PaymentOrderResponse> responses;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        orders = new ArrayList<>(orderCount);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < orderCount; i++) {
+            PaymentOrder order = new PaymentOrder("order_bench" + i, new BigDecimal("499.00"), "INR", "rcpt_bench_" + i);
+            order.setId((long) i);
+            order.setStatus(i % 2 == 0 ? PaymentOrder.PaymentStatus.PAID : PaymentOrder.PaymentStatus.CREATED);
+            order.setRazorpayPaymentId(i % 2 == 0 ? "pay_bench" + i : null);
+            order.setCustomerEmail("customer" + i + "@example.com");
+            order.setCustomerPhone("9876543210");
+            order.setCreatedAt(createdAt.plusSeconds(i));
+            order.setNotes("Order notes for benchmark row " + i);
+            orders.add(order);
+        }
+        responses = map();
+    }
+
+    @Benchmark
+    public List<PaymentOrderResponse> map() {
+        return orders.stream().map(PaymentOrderResponse::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(map());
+    }
+}
@@ -0,0 +1,181 @@
+package com.bytebyteboot.payment.benchmark;
+
+import com.bytebyteboot.payment.PaymentServiceApplication;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderSummary;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity hydration vs. projection for the list finders. By default runs against embedded H2 seeded
+ * with {@value #EMBEDDED_ROWS} rows in the same shape as src/jmh/resources/seed-payment-orders.sql;
+ * {@code -p database=mysql} targets the database named by MYSQL_URL, which must be seeded with that
+ * script (10M rows). The entity baselines mirror the finders that existed before the projections
+ * were introduced, bounded to the same page size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentOrderFinderBenchmark {
+
+    private static final int CUSTOMERS = 100_000;
+    private static final int EMBEDDED_ROWS = 200_000;
+    private static final int SEED_BATCH = 5_000;
+    private static final LocalDateTime SEED_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"h2"})
+    private String database;
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private PaymentOrderRepository repository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Pageable page;
+    private long maxSeq;
+
+    @Setup
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PaymentServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.com.bytebyteboot=WARN",
+                        "payment.webhook.async-enabled=false");
+        if ("h2".equals(database)) {
+            builder.profiles("h2");
+        }
+        context = builder.run();
+        repository = context.getBean(PaymentOrderRepository.class);
+        if ("h2".equals(database)) {
+            seedEmbedded(context.getBean(JdbcTemplate.class));
+        }
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        page = PageRequest.of(0, pageSize);
+        maxSeq = Math.max(1, repository.count());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PaymentOrder> statusEntity() {
+        return readOnly.execute(tx -> entityManager.createQuery(
+                        "SELECT p FROM PaymentOrder p WHERE p.status = :status ORDER BY p.createdAt DESC", PaymentOrder.class)
+                .setParameter("status", PaymentOrder.PaymentStatus.CREATED)
+                .setMaxResults(pageSize)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<PaymentOrderSummary> statusProjection() {
+        return readOnly.execute(tx -> repository
+                .findByStatusOrderByCreatedAtDesc(PaymentOrder.PaymentStatus.CREATED, page).getContent());
+    }
+
+    @Benchmark
+    public List<PaymentOrder> customerEntity() {
+        return readOnly.execute(tx -> entityManager.createQuery(
+                        "SELECT p FROM PaymentOrder p WHERE p.customerEmail = :email ORDER BY p.createdAt DESC", PaymentOrder.class)
+                .setParameter("email", randomEmail())
+                .setMaxResults(pageSize)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<PaymentOrderSummary> customerProjection() {
+        return readOnly.execute(tx -> repository.findByCustomerEmailOrderByCreatedAtDesc(randomEmail(), page).getContent());
+    }
+
+    @Benchmark
+    public Object paymentIdEntity() {
+        return readOnly.execute(tx -> repository.findByRazorpayPaymentId(randomPaymentId()).orElse(null));
+    }
+
+    @Benchmark
+    public Object paymentIdProjection() {
+        return readOnly.execute(tx -> repository.findSummaryByRazorpayPaymentId(randomPaymentId()).orElse(null));
+    }
+
+    @Benchmark
+    public List<PaymentOrder> createdBetweenEntity() {
+        LocalDateTime from = randomInstant();
+        return readOnly.execute(tx -> entityManager.createQuery(
+                        "SELECT p FROM PaymentOrder p WHERE p.createdAt BETWEEN :from AND :to", PaymentOrder.class)
+                .setParameter("from", from)
+                .setParameter("to", from.plusHours(1))
+                .setMaxResults(pageSize)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<PaymentOrderSummary> createdBetweenProjection() {
+        LocalDateTime from = randomInstant();
+        return readOnly.execute(tx -> repository
+                .findByCreatedAtBetweenOrderByCreatedAtAscIdAsc(from, from.plusHours(1), page).getContent());
+    }
+
+    private static void seedEmbedded(JdbcTemplate jdbcTemplate) {
+        String[] statuses = {"FAILED", "CANCELLED", "CREATED", "ATTEMPTED", "PAID"};
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (long seq = 1; seq <= EMBEDDED_ROWS; seq++) {
+            int bucket = (int) (seq % 10);
+            LocalDateTime createdAt = SEED_START.plusSeconds(seq * 3);
+            batch.add(new Object[]{seq, "order_seed" + seq, bucket < 6 ? "pay_seed" + seq : null,
+                    new BigDecimal("100.00").add(BigDecimal.valueOf(seq % 50_000, 2)), 10_000 + seq % 50_000,
+                    "INR", "rcpt_seed_" + seq,
+                    statuses[Math.min(bucket, 4)], "customer" + (seq % CUSTOMERS) + "@example.com", "9876543210",
+                    Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt.plusMinutes(1)),
+                    "seed order notes ".repeat(32)});
+            if (batch.size() == SEED_BATCH) {
+                insertSeedBatch(jdbcTemplate, batch);
+            }
+        }
+        insertSeedBatch(jdbcTemplate, batch);
+    }
+
+    private static void insertSeedBatch(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO payment_orders (id, razorpay_order_id, razorpay_payment_id, amount, " +
+                "amount_minor, currency, receipt, status, customer_email, customer_phone, created_at, updated_at, notes, " +
+                "version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", batch);
+        batch.clear();
+    }
+
+    private String randomEmail() {
+        return "customer" + ThreadLocalRandom.current().nextInt(CUSTOMERS) + "@example.com";
+    }
+
+    private String randomPaymentId() {
+        // The seed assigns payment ids to rows whose sequence ends in 0..5
+        long seq = ThreadLocalRandom.current().nextLong(maxSeq / 10) * 10 + 5;
+        return "pay_seed" + seq;
+    }
+
+    private LocalDateTime randomInstant() {
+        return SEED_START.plusSeconds(ThreadLocalRandom.current().nextLong(maxSeq) * 3);
+    }
+}
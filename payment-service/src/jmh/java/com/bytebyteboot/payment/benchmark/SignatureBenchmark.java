@@ -0,0 +1,107 @@
+package com.bytebyteboot.payment.benchmark;
+
+import com.bytebyteboot.payment.security.RazorpaySignatureVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link RazorpaySignatureVerifier} with the original per-call Mac/hex-String implementation.
+ * Run with -prof gc to see the allocation difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignatureBenchmark {
+
+    private static final String KEY_SECRET = "4Jquq3l97Vg0lDlLekqTE7n2";
+    private static final String WEBHOOK_SECRET = "myWebhookSecret123";
+
+    @Param({"200", "1024", "8192", "65536"})
+    private int payloadSize;
+
+    private RazorpaySignatureVerifier verifier;
+    private String payload;
+    private byte[] payloadBytes;
+    private String webhookSignature;
+
+    private final String orderId = "order_RDuQ9xnvNbxDuh";
+    private final String paymentId = "pay_RDuR1aXk2mBnQz";
+    private String paymentSignature;
+
+    @Setup
+    public void setUp() throws Exception {
+        verifier = new RazorpaySignatureVerifier(KEY_SECRET, WEBHOOK_SECRET);
+        payload = randomJsonLikePayload(payloadSize);
+        payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        webhookSignature = legacyHmac(payload, WEBHOOK_SECRET);
+        paymentSignature = legacyHmac(orderId + "|" + paymentId, KEY_SECRET);
+    }
+
+    @Benchmark
+    public boolean legacyWebhook() throws Exception {
+        return webhookSignature.equals(legacyHmac(payload, WEBHOOK_SECRET));
+    }
+
+    @Benchmark
+    public boolean verifierWebhookString() {
+        return verifier.verifyWebhookSignature(payload, webhookSignature);
+    }
+
+    @Benchmark
+    public boolean verifierWebhookBytes() {
+        return verifier.verifyWebhookSignature(payloadBytes, webhookSignature);
+    }
+
+    @Benchmark
+    public boolean verifierWebhookStream() throws IOException {
+        return verifier.verifyWebhookSignature(new ByteArrayInputStream(payloadBytes), webhookSignature);
+    }
+
+    @Benchmark
+    public boolean legacyPayment() throws Exception {
+        return paymentSignature.equals(legacyHmac(orderId + "|" + paymentId, KEY_SECRET));
+    }
+
+    @Benchmark
+    public boolean verifierPayment() {
+        return verifier.verifyPaymentSignature(orderId, paymentId, paymentSignature);
+    }
+
+    // Verbatim copy of the implementation that used to live in PaymentOrderService
+    static String legacyHmac(String data, String key) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        mac.init(secretKeySpec);
+        byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    static String randomJsonLikePayload(int size) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyz0123456789{}\":,_ ";
+        StringBuilder sb = new StringBuilder(size);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
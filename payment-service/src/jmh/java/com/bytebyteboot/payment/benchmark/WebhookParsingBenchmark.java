@@ -0,0 +1,69 @@
+package com.bytebyteboot.payment.benchmark;
+
+import com.bytebyteboot.payment.dto.RazorpayWebhookEvent;
+import com.bytebyteboot.payment.service.WebhookEventParser;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook payload parsing: the original org.json DOM walk (decode the body, read the event name and
+ * the payment entity's id and order_id) against the streaming {@link WebhookEventParser}.
+ * Run with -prof gc to compare allocation per payload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WebhookParsingBenchmark {
+
+    @Param({"0", "20", "200"})
+    private int noteCount;
+
+    private byte[] payload;
+    private final WebhookEventParser parser = new WebhookEventParser();
+
+    @Setup
+    public void setUp() {
+        payload = capturedPayload(noteCount).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String[] orgJsonDom() {
+        JSONObject webhookData = new JSONObject(new String(payload, StandardCharsets.UTF_8));
+        String event = webhookData.getString("event");
+        JSONObject paymentEntity = webhookData.getJSONObject("payload")
+                .getJSONObject("payment")
+                .getJSONObject("entity");
+        return new String[]{event, paymentEntity.getString("order_id"), paymentEntity.getString("id")};
+    }
+
+    @Benchmark
+    public RazorpayWebhookEvent streaming() {
+        return parser.parse(payload);
+    }
+
+    // Shape of a Razorpay payment.captured delivery
+    static String capturedPayload(int noteCount) {
+        StringBuilder notes = new StringBuilder();
+        for (int i = 0; i < noteCount; i++) {
+            notes.append(i == 0 ? "" : ",").append("\"note_").append(i).append("\":\"value for note ").append(i).append('"');
+        }
+        return "{\"entity\":\"event\",\"account_id\":\"acc_BFQ7uQEaa7j2z7\",\"event\":\"payment.captured\","
+                + "\"contains\":[\"payment\"],\"payload\":{\"payment\":{\"entity\":{"
+                + "\"id\":\"pay_DESlfW9H8K9uqM\",\"entity\":\"payment\",\"amount\":100,\"currency\":\"INR\","
+                + "\"base_amount\":100,\"status\":\"captured\",\"order_id\":\"order_DESlLckIVRkHWj\","
+                + "\"invoice_id\":null,\"international\":false,\"method\":\"netbanking\",\"amount_refunded\":0,"
+                + "\"amount_transferred\":0,\"refund_status\":null,\"captured\":true,\"description\":null,"
+                + "\"card_id\":null,\"bank\":\"HDFC\",\"wallet\":null,\"vpa\":null,"
+                + "\"email\":\"gaurav.kumar@example.com\",\"contact\":\"+919876543210\","
+                + "\"notes\":{" + notes + "},\"fee\":2,\"tax\":0,\"error_code\":null,"
+                + "\"error_description\":null,\"error_source\":null,\"error_step\":null,\"error_reason\":null,"
+                + "\"acquirer_data\":{\"bank_transaction_id\":\"0125836177\"},\"created_at\":1567674599}}},"
+                + "\"created_at\":1567674606}";
+    }
+}
@@ -0,0 +1,54 @@
+-- Seeds payment_orders with 10M rows for PaymentOrderFinderBenchmark.
+-- mysql -uroot -p payment_service < src/jmh/resources/seed-payment-orders.sql
+-- Emails cycle over 100k customers (~100 orders each); statuses follow a rough production mix.
+
+DROP TABLE IF EXISTS seed_digits;
+CREATE TABLE seed_digits (d INT PRIMARY KEY);
+INSERT INTO seed_digits VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+DROP TABLE IF EXISTS seed_numbers;
+CREATE TABLE seed_numbers (n INT PRIMARY KEY);
+INSERT INTO seed_numbers
+SELECT a.d + b.d * 10 + c.d * 100 + e.d * 1000
+FROM seed_digits a, seed_digits b, seed_digits c, seed_digits e;
+
+DROP PROCEDURE IF EXISTS seed_payment_orders;
+DELIMITER //
+CREATE PROCEDURE seed_payment_orders(IN total INT)
+BEGIN
+    DECLARE base BIGINT DEFAULT (SELECT COALESCE(MAX(id), 0) FROM payment_orders);
+    DECLARE chunk INT DEFAULT 0;
+    WHILE chunk * 10000 < total DO
+        INSERT INTO payment_orders (id, razorpay_order_id, razorpay_payment_id, amount, amount_minor, currency,
+                                    receipt, status, customer_email, customer_phone, created_at, updated_at, notes)
+        SELECT base + seq,
+               CONCAT('order_seed', seq),
+               IF(seq % 10 < 6, CONCAT('pay_seed', seq), NULL),
+               100 + (seq % 50000) / 100,
+               10000 + seq % 50000,
+               'INR',
+               CONCAT('rcpt_seed_', seq),
+               CASE seq % 10 WHEN 0 THEN 'FAILED' WHEN 1 THEN 'CANCELLED' WHEN 2 THEN 'CREATED'
+                             WHEN 3 THEN 'ATTEMPTED' ELSE 'PAID' END,
+               CONCAT('customer', seq % 100000, '@example.com'),
+               CONCAT('9', LPAD(seq % 1000000000, 9, '0')),
+               TIMESTAMP('2024-01-01') + INTERVAL (seq * 3) SECOND,
+               TIMESTAMP('2024-01-01') + INTERVAL (seq * 3 + 60) SECOND,
+               REPEAT('seed order notes ', 32)
+        FROM (SELECT chunk * 10000 + n + 1 AS seq FROM seed_numbers) s
+        WHERE seq <= total;
+        COMMIT;
+        SET chunk = chunk + 1;
+    END WHILE;
+    UPDATE payment_orders_seq SET next_val = (SELECT MAX(id) + 51 FROM payment_orders);
+END //
+DELIMITER ;
+
+SET autocommit = 0;
+CALL seed_payment_orders(10000000);
+SET autocommit = 1;
+ANALYZE TABLE payment_orders;
+
+DROP PROCEDURE seed_payment_orders;
+DROP TABLE seed_numbers;
+DROP TABLE seed_digits;
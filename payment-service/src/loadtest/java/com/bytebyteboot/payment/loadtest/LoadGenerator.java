@@ -0,0 +1,257 @@
+package com.bytebyteboot.payment.loadtest;
+
+import com.bytebyteboot.payment.PaymentServiceApplication;
+import com.bytebyteboot.payment.fake.FakeRazorpayServer;
+import com.bytebyteboot.payment.fake.FakeRazorpayServer.SimulatedPayment;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.json.JSONObject;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline end-to-end load test: starts {@link FakeRazorpayServer} and the service on a random port,
+ * then has closed-loop virtual users drive a weighted mix of order creation, checkout verification,
+ * status polls and captured-payment webhooks over HTTP. Latency per operation goes into HdrHistograms
+ * and is reported as p50/p99/p99.9 with throughput once the warm-up is over.
+ * <p>
+ * Runs against the in-memory database by default; {@code -Dloadtest.database=mysql} uses the
+ * datasource from application.yml instead. See the {@code loadtest} Maven profile for the knobs.
+ */
+public final class LoadGenerator {
+
+    private static final String KEY_ID = "rzp_test_load";
+    private static final String KEY_SECRET = "load_key_secret";
+    private static final String WEBHOOK_SECRET = "load_webhook_secret";
+    private static final int MAX_TRACKED_ORDERS = 10_000;
+
+    enum Operation { CREATE, VERIFY, POLL, WEBHOOK }
+
+    private final Map<Operation, Integer> weights;
+    private final HttpClient httpClient;
+    private final String serviceUrl;
+    private final FakeRazorpayServer razorpay;
+    private final ConcurrentLinkedQueue<String> unpaidOrders = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> knownOrders = new ConcurrentLinkedQueue<>();
+    private final AtomicLong trackedOrders = new AtomicLong();
+    private final AtomicLong receipts = new AtomicLong();
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+
+    private LoadGenerator(Map<Operation, Integer> weights, HttpClient httpClient, String serviceUrl,
+                          FakeRazorpayServer razorpay) {
+        this.weights = weights;
+        this.httpClient = httpClient;
+        this.serviceUrl = serviceUrl;
+        this.razorpay = razorpay;
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 64);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        String database = System.getProperty("loadtest.database", "h2");
+        Map<Operation, Integer> weights = parseMix(System.getProperty("loadtest.mix", "create=30,verify=20,poll=35,webhook=15"));
+        FakeRazorpayServer.Profile profile = FakeRazorpayServer.Profile.of(
+                Duration.ofMillis(Long.getLong("loadtest.razorpay.min-latency-ms", 20)),
+                Duration.ofMillis(Long.getLong("loadtest.razorpay.max-latency-ms", 120)),
+                Double.parseDouble(System.getProperty("loadtest.razorpay.error-rate", "0.0")));
+
+        try (FakeRazorpayServer razorpay = new FakeRazorpayServer(KEY_ID, KEY_SECRET, WEBHOOK_SECRET).start()) {
+            razorpay.setProfile(profile);
+            SpringApplicationBuilder application = new SpringApplicationBuilder(PaymentServiceApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "razorpay.base-url=" + razorpay.baseUrl(),
+                            "razorpay.key-id=" + KEY_ID,
+                            "razorpay.key-secret=" + KEY_SECRET,
+                            "razorpay.webhook-secret=" + WEBHOOK_SECRET,
+                            // Every simulated user comes from localhost
+                            "payment.rate-limit.enabled=false",
+                            "logging.level.com.bytebyteboot=WARN");
+            if (database.equals("h2")) {
+                application.profiles("h2");
+            }
+
+            try (ConfigurableApplicationContext context = application.run(args);
+                 ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                String serviceUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                razorpay.setWebhookUrl(serviceUrl + "/api/webhooks/razorpay");
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .executor(executor)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                LoadGenerator generator = new LoadGenerator(weights, httpClient, serviceUrl, razorpay);
+
+                System.out.printf(Locale.ROOT, "Load test: %d users, %s warm-up, %s measured, database=%s, mix=%s, razorpay=%s%n",
+                        users, warmup, duration, database, weights, profile);
+                long deadline = System.nanoTime() + warmup.plus(duration).toNanos();
+                for (int i = 0; i < users; i++) {
+                    executor.submit(() -> generator.runUser(deadline));
+                }
+                Thread.sleep(warmup);
+                generator.recording = true;
+                long measuredFrom = System.nanoTime();
+                Thread.sleep(duration);
+                generator.recording = false;
+                generator.report(System.nanoTime() - measuredFrom);
+            }
+        }
+    }
+
+    private void runUser(long deadline) {
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(ThreadLocalRandom.current().nextInt(totalWeight));
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = switch (operation) {
+                    case CREATE -> create();
+                    case VERIFY -> verify();
+                    case POLL -> poll();
+                    case WEBHOOK -> webhook();
+                };
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (recording) {
+                histograms.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                if (!ok) {
+                    errors.get(operation).increment();
+                }
+            }
+        }
+    }
+
+    private boolean create() throws Exception {
+        JSONObject body = new JSONObject()
+                .put("amount", 100 + ThreadLocalRandom.current().nextInt(50_000))
+                .put("currency", "INR")
+                .put("receipt", "rcpt_load_" + receipts.incrementAndGet())
+                .put("customerEmail", "user" + ThreadLocalRandom.current().nextInt(10_000) + "@example.com");
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(serviceUrl + "/api/payments/create-order"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        String orderId = new JSONObject(response.body()).getString("razorpayOrderId");
+        unpaidOrders.add(orderId);
+        knownOrders.add(orderId);
+        if (trackedOrders.incrementAndGet() > MAX_TRACKED_ORDERS && knownOrders.poll() != null) {
+            trackedOrders.decrementAndGet();
+        }
+        return true;
+    }
+
+    private boolean verify() throws Exception {
+        String orderId = unpaidOrders.poll();
+        if (orderId == null) {
+            return create();
+        }
+        SimulatedPayment payment = razorpay.pay(orderId);
+        JSONObject body = new JSONObject()
+                .put("razorpayOrderId", payment.razorpayOrderId())
+                .put("razorpayPaymentId", payment.razorpayPaymentId())
+                .put("razorpaySignature", payment.signature());
+        return send(HttpRequest.newBuilder(URI.create(serviceUrl + "/api/payments/verify"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))).statusCode() == 200;
+    }
+
+    private boolean poll() throws Exception {
+        String orderId = knownOrders.peek();
+        if (orderId == null) {
+            return create();
+        }
+        return send(HttpRequest.newBuilder(URI.create(serviceUrl + "/api/payments/order/" + orderId)).GET())
+                .statusCode() == 200;
+    }
+
+    private boolean webhook() throws Exception {
+        String orderId = unpaidOrders.poll();
+        if (orderId == null) {
+            return create();
+        }
+        return razorpay.sendWebhook("payment.captured", razorpay.pay(orderId)) == 200;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Operation pick(int ticket) {
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.POLL;
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "%n%-8s %10s %8s %10s %10s %10s %10s %10s%n",
+                "op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        List<Histogram> all = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            total += histogram.getTotalCount();
+            all.add(histogram);
+            print(operation.name().toLowerCase(Locale.ROOT), histogram, errors.get(operation).sum(), seconds);
+        }
+        Histogram combined = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+        all.forEach(combined::add);
+        long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        print("all", combined, totalErrors, seconds);
+        System.out.printf(Locale.ROOT, "%n%d requests in %.1f s, %d orders at the fake Razorpay%n",
+                total, seconds, razorpay.orderCount());
+    }
+
+    private static void print(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf(Locale.ROOT, "%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
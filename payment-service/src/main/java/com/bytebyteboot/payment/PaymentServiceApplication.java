@@ -1,12 +1,42 @@
 package com.bytebyteboot.payment;
 
+import com.bytebyteboot.payment.config.ArchiveProperties;
+import com.bytebyteboot.payment.config.BulkOrderProperties;
+import com.bytebyteboot.payment.config.ExpiryProperties;
+import com.bytebyteboot.payment.config.IdempotencyProperties;
+import com.bytebyteboot.payment.config.JournalProperties;
+import com.bytebyteboot.payment.config.OrderCacheProperties;
+import com.bytebyteboot.payment.config.OrderLockProperties;
+import com.bytebyteboot.payment.config.OutboxProperties;
+import com.bytebyteboot.payment.config.RateLimitProperties;
 import com.bytebyteboot.payment.config.RazorpayProperties;
+import com.bytebyteboot.payment.config.ReconciliationProperties;
+import com.bytebyteboot.payment.config.ReplicaRoutingProperties;
+import com.bytebyteboot.payment.config.RollupProperties;
+import com.bytebyteboot.payment.config.WebhookProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(RazorpayProperties.class)
+@EnableConfigurationProperties({
+		RazorpayProperties.class,
+		WebhookProperties.class,
+		BulkOrderProperties.class,
+		OrderCacheProperties.class,
+		IdempotencyProperties.class,
+		ReconciliationProperties.class,
+		ReplicaRoutingProperties.class,
+		ArchiveProperties.class,
+		RollupProperties.class,
+		OrderLockProperties.class,
+		JournalProperties.class,
+		OutboxProperties.class,
+		RateLimitProperties.class,
+		ExpiryProperties.class
+})
+@EnableScheduling
 public class PaymentServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,59 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofHours(1);
+
+    // Terminal orders created longer ago than this move to payment_orders_archive
+    private Duration minAge = Duration.ofDays(90);
+
+    @Min(1)
+    private int batchSize = 500;
+
+    // Upper bound on rows moved per second, so the copy never saturates the primary or its replicas
+    @Min(1)
+    private int maxRowsPerSecond = 2000;
+
+    @Min(1)
+    private int maxBatchesPerRun = 1000;
+
+    private Duration lease = Duration.ofMinutes(30);
+
+    // Split monthly partitions off p_future before moving rows (MySQL only)
+    private boolean managePartitions = true;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getInterval() { return interval; }
+    public void setInterval(Duration interval) { this.interval = interval; }
+
+    public Duration getMinAge() { return minAge; }
+    public void setMinAge(Duration minAge) { this.minAge = minAge; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getMaxRowsPerSecond() { return maxRowsPerSecond; }
+    public void setMaxRowsPerSecond(int maxRowsPerSecond) { this.maxRowsPerSecond = maxRowsPerSecond; }
+
+    public int getMaxBatchesPerRun() { return maxBatchesPerRun; }
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) { this.maxBatchesPerRun = maxBatchesPerRun; }
+
+    public Duration getLease() { return lease; }
+    public void setLease(Duration lease) { this.lease = lease; }
+
+    public boolean isManagePartitions() { return managePartitions; }
+    public void setManagePartitions(boolean managePartitions) { this.managePartitions = managePartitions; }
+}
@@ -0,0 +1,30 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.bulk")
+public class BulkOrderProperties {
+
+    @Min(1)
+    private int maxOrders = 5000;
+
+    // Upper bound on concurrent Razorpay calls for a single bulk request
+    @Min(1)
+    private int maxConcurrency = 32;
+
+    @Min(1)
+    private int batchSize = 100;
+
+    // Getters and Setters
+    public int getMaxOrders() { return maxOrders; }
+    public void setMaxOrders(int maxOrders) { this.maxOrders = maxOrders; }
+
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+}
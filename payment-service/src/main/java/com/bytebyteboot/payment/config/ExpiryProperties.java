@@ -0,0 +1,63 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.expiry")
+public class ExpiryProperties {
+
+    private boolean enabled = true;
+
+    // CREATED orders that see no payment for this long move to EXPIRED
+    private Duration ttl = Duration.ofMinutes(30);
+
+    // Resolution of the timing wheel; orders expire up to one tick late
+    private Duration tick = Duration.ofSeconds(1);
+
+    // Slots per wheel level, a power of two; four levels of 64 one-second slots cover 194 days
+    @Min(2)
+    @Max(4096)
+    private int wheelSize = 64;
+
+    @Min(1)
+    private int batchSize = 500;
+
+    @Min(1)
+    private int seedFetchSize = 1000;
+
+    // Overdue orders that no replica has scheduled, e.g. after a crash, are picked up this often
+    private Duration sweepInterval = Duration.ofHours(1);
+
+    // A batch that fails is retried after this long
+    private Duration retryDelay = Duration.ofMinutes(1);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+    public Duration getTick() { return tick; }
+    public void setTick(Duration tick) { this.tick = tick; }
+
+    public int getWheelSize() { return wheelSize; }
+    public void setWheelSize(int wheelSize) { this.wheelSize = wheelSize; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getSeedFetchSize() { return seedFetchSize; }
+    public void setSeedFetchSize(int seedFetchSize) { this.seedFetchSize = seedFetchSize; }
+
+    public Duration getSweepInterval() { return sweepInterval; }
+    public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+
+    public Duration getRetryDelay() { return retryDelay; }
+    public void setRetryDelay(Duration retryDelay) { this.retryDelay = retryDelay; }
+}
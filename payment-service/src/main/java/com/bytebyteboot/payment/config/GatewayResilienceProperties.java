@@ -0,0 +1,98 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Limits applied around outbound Razorpay calls. The call timeout itself is {@code razorpay.timeout}.
+ * Interactive calls use {@code razorpay.resilience}; bulk creation and reconciliation draw on a
+ * separate budget under {@code razorpay.batch-resilience}, so they cannot starve checkout.
+ */
+@Validated
+public class GatewayResilienceProperties {
+
+    // Bulkhead: hard cap on in-flight calls and how long a caller may wait for a slot
+    @Min(1)
+    private int maxConcurrentCalls = 100;
+
+    private Duration maxWait = Duration.ofMillis(100);
+
+    // AIMD limit, moving between min and max below the bulkhead cap
+    @Min(1)
+    private int initialLimit = 20;
+
+    @Min(1)
+    private int minLimit = 4;
+
+    @Min(1)
+    private int maxLimit = 100;
+
+    // How long a caller may wait for the limit to admit it; zero fails fast
+    private Duration limitWait = Duration.ZERO;
+
+    @DecimalMin("0.1")
+    @DecimalMax("0.99")
+    private double backoffRatio = 0.8;
+
+    // Calls slower than this count as failures for the breaker and shrink the limit
+    private Duration slowCallThreshold = Duration.ofSeconds(5);
+
+    // Circuit breaker over the last window-size calls
+    @Min(1)
+    private int windowSize = 50;
+
+    @Min(1)
+    private int minimumCalls = 20;
+
+    @Min(1)
+    private int failureRateThreshold = 50;
+
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    @Min(1)
+    private int halfOpenCalls = 5;
+
+    // Getters and Setters
+    public int getMaxConcurrentCalls() { return maxConcurrentCalls; }
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+
+    public Duration getMaxWait() { return maxWait; }
+    public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+    public int getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+    public Duration getLimitWait() { return limitWait; }
+    public void setLimitWait(Duration limitWait) { this.limitWait = limitWait; }
+
+    public double getBackoffRatio() { return backoffRatio; }
+    public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+
+    public Duration getSlowCallThreshold() { return slowCallThreshold; }
+    public void setSlowCallThreshold(Duration slowCallThreshold) { this.slowCallThreshold = slowCallThreshold; }
+
+    public int getWindowSize() { return windowSize; }
+    public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+
+    public int getMinimumCalls() { return minimumCalls; }
+    public void setMinimumCalls(int minimumCalls) { this.minimumCalls = minimumCalls; }
+
+    public int getFailureRateThreshold() { return failureRateThreshold; }
+    public void setFailureRateThreshold(int failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+
+    public Duration getOpenDuration() { return openDuration; }
+    public void setOpenDuration(Duration openDuration) { this.openDuration = openDuration; }
+
+    public int getHalfOpenCalls() { return halfOpenCalls; }
+    public void setHalfOpenCalls(int halfOpenCalls) { this.halfOpenCalls = halfOpenCalls; }
+}
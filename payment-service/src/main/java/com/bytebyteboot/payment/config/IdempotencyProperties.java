@@ -0,0 +1,47 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.idempotency")
+public class IdempotencyProperties {
+
+    // How long a stored response is replayed for
+    @NotNull
+    private Duration ttl = Duration.ofHours(24);
+
+    // How long a duplicate waits for the in-flight original before giving up with 409
+    @NotNull
+    private Duration inFlightWait = Duration.ofSeconds(30);
+
+    // An IN_PROGRESS claim older than this is treated as abandoned (e.g. the node crashed)
+    @NotNull
+    private Duration claimTimeout = Duration.ofMinutes(2);
+
+    @NotNull
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    @Min(1)
+    private long memoryMaximumSize = 100_000;
+
+    // Getters and Setters
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+    public Duration getInFlightWait() { return inFlightWait; }
+    public void setInFlightWait(Duration inFlightWait) { this.inFlightWait = inFlightWait; }
+
+    public Duration getClaimTimeout() { return claimTimeout; }
+    public void setClaimTimeout(Duration claimTimeout) { this.claimTimeout = claimTimeout; }
+
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+
+    public long getMemoryMaximumSize() { return memoryMaximumSize; }
+    public void setMemoryMaximumSize(long memoryMaximumSize) { this.memoryMaximumSize = memoryMaximumSize; }
+}
@@ -0,0 +1,43 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.journal")
+public class JournalProperties {
+
+    private boolean enabled = true;
+
+    @NotNull
+    private String directory = "data/journal";
+
+    // Size of each memory-mapped segment file; at most 1GB
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // Group commit: appends are forced to disk together at this interval, never on the request thread
+    private Duration fsyncInterval = Duration.ofMillis(10);
+
+    // Fault in every page of a new segment before it takes appends
+    private boolean preTouch = true;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+
+    public DataSize getSegmentSize() { return segmentSize; }
+    public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+
+    public Duration getFsyncInterval() { return fsyncInterval; }
+    public void setFsyncInterval(Duration fsyncInterval) { this.fsyncInterval = fsyncInterval; }
+
+    public boolean isPreTouch() { return preTouch; }
+    public void setPreTouch(boolean preTouch) { this.preTouch = preTouch; }
+}
@@ -0,0 +1,32 @@
+package com.bytebyteboot.payment.config;
+
+import com.bytebyteboot.payment.service.OrderCacheInvalidationBroadcaster;
+import com.bytebyteboot.payment.service.PeerOrderCacheInvalidationBroadcaster;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class OrderCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OrderCacheInvalidationBroadcaster orderCacheInvalidationBroadcaster(
+            OrderCacheProperties orderCacheProperties,
+            RestClient.Builder restClientBuilder,
+            @Qualifier("razorpayExecutor") ExecutorService executor) {
+        if (orderCacheProperties.getPeers().isEmpty()) {
+            return razorpayOrderId -> { };
+        }
+        if (!StringUtils.hasText(orderCacheProperties.getPeerSecret())) {
+            throw new IllegalStateException("payment.cache.order.peer-secret is required when peers are configured");
+        }
+        return new PeerOrderCacheInvalidationBroadcaster(orderCacheProperties.getPeers(),
+                orderCacheProperties.getPeerSecret(), restClientBuilder.build(), executor);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.cache.order")
+public class OrderCacheProperties {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private long maximumSize = 100_000;
+
+    // Upper bound on staleness if an invalidation is ever missed
+    @NotNull
+    private Duration timeToLive = Duration.ofSeconds(60);
+
+    // Base URLs of other replicas to notify when an order changes, e.g. http://payment-2:8080
+    private List<String> peers = new ArrayList<>();
+
+    // Shared by all replicas; sent with every invalidation and required to accept one
+    private String peerSecret;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getMaximumSize() { return maximumSize; }
+    public void setMaximumSize(long maximumSize) { this.maximumSize = maximumSize; }
+
+    public Duration getTimeToLive() { return timeToLive; }
+    public void setTimeToLive(Duration timeToLive) { this.timeToLive = timeToLive; }
+
+    public List<String> getPeers() { return peers; }
+    public void setPeers(List<String> peers) { this.peers = peers; }
+
+    public String getPeerSecret() { return peerSecret; }
+    public void setPeerSecret(String peerSecret) { this.peerSecret = peerSecret; }
+}
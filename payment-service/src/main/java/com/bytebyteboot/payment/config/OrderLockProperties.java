@@ -0,0 +1,45 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.order-locks")
+public class OrderLockProperties {
+
+    private boolean enabled = true;
+
+    // Rounded up to a power of two; each stripe is one lock shared by the orders that hash to it
+    @Min(1)
+    @Max(4096)
+    private int stripes = 64;
+
+    // After this the mutation fails and is retried by its caller rather than going ahead unserialized
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    // Orders whose last committed status is remembered for coalescing duplicate transitions
+    @Min(0)
+    private long recentStatusSize = 100_000;
+
+    private Duration recentStatusTtl = Duration.ofMinutes(10);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getStripes() { return stripes; }
+    public void setStripes(int stripes) { this.stripes = stripes; }
+
+    public Duration getMaxWait() { return maxWait; }
+    public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+    public long getRecentStatusSize() { return recentStatusSize; }
+    public void setRecentStatusSize(long recentStatusSize) { this.recentStatusSize = recentStatusSize; }
+
+    public Duration getRecentStatusTtl() { return recentStatusTtl; }
+    public void setRecentStatusTtl(Duration recentStatusTtl) { this.recentStatusTtl = recentStatusTtl; }
+}
@@ -0,0 +1,28 @@
+package com.bytebyteboot.payment.config;
+
+import com.bytebyteboot.payment.dto.PaymentStatusEvent;
+import com.bytebyteboot.payment.service.FileOutboxSink;
+import com.bytebyteboot.payment.service.InMemoryOutboxSink;
+import com.bytebyteboot.payment.service.LoggingOutboxSink;
+import com.bytebyteboot.payment.service.OutboxSink;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxSink outboxSink(OutboxProperties outboxProperties, ObjectMapper objectMapper) {
+        return switch (outboxProperties.getSink()) {
+            case "log" -> new LoggingOutboxSink();
+            case "memory" -> new InMemoryOutboxSink();
+            case "file" -> new FileOutboxSink(Paths.get(outboxProperties.getFile()),
+                    objectMapper.writerFor(PaymentStatusEvent.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+            default -> throw new IllegalStateException("Unknown payment.outbox.sink: " + outboxProperties.getSink());
+        };
+    }
+}
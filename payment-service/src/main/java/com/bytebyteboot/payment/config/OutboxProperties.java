@@ -0,0 +1,92 @@
+package com.bytebyteboot.payment.config;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.outbox")
+public class OutboxProperties {
+
+    // Writes events; the relay additionally needs relay-enabled
+    private boolean enabled = true;
+
+    private boolean relayEnabled = true;
+
+    // Transitions into these statuses produce an event
+    @NotNull
+    private Set<PaymentOrder.PaymentStatus> statuses = EnumSet.of(PaymentOrder.PaymentStatus.PAID,
+            PaymentOrder.PaymentStatus.FAILED, PaymentOrder.PaymentStatus.CANCELLED, PaymentOrder.PaymentStatus.REFUNDED,
+            PaymentOrder.PaymentStatus.EXPIRED);
+
+    // Each partition is relayed by one replica at a time; changing the count can reorder events in flight
+    @Min(1)
+    @Max(256)
+    private int partitions = 8;
+
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    @Min(1)
+    private int batchSize = 200;
+
+    @Min(1)
+    private int maxBatchesPerPass = 50;
+
+    // Must comfortably exceed the time to publish max-batches-per-pass batches
+    private Duration lease = Duration.ofSeconds(30);
+
+    // log, file or memory
+    @NotNull
+    private String sink = "log";
+
+    // NDJSON file appended to by the file sink
+    private String file = "data/outbox/payment-status-events.ndjson";
+
+    private Duration retention = Duration.ofDays(7);
+
+    private Duration cleanupInterval = Duration.ofHours(1);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public boolean isRelayEnabled() { return relayEnabled; }
+    public void setRelayEnabled(boolean relayEnabled) { this.relayEnabled = relayEnabled; }
+
+    public Set<PaymentOrder.PaymentStatus> getStatuses() { return statuses; }
+    public void setStatuses(Set<PaymentOrder.PaymentStatus> statuses) { this.statuses = statuses; }
+
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getMaxBatchesPerPass() { return maxBatchesPerPass; }
+    public void setMaxBatchesPerPass(int maxBatchesPerPass) { this.maxBatchesPerPass = maxBatchesPerPass; }
+
+    public Duration getLease() { return lease; }
+    public void setLease(Duration lease) { this.lease = lease; }
+
+    public String getSink() { return sink; }
+    public void setSink(String sink) { this.sink = sink; }
+
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+
+    public Duration getRetention() { return retention; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+
+    public Duration getCleanupInterval() { return cleanupInterval; }
+    public void setCleanupInterval(Duration cleanupInterval) { this.cleanupInterval = cleanupInterval; }
+}
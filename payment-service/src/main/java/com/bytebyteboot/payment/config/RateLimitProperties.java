@@ -0,0 +1,86 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Limits by endpoint name (create-order, bulk-create-orders); endpoints not listed are not limited
+    @Valid
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    // Buckets tracked at once across all endpoints and keys; the least recently used are evicted first
+    @Min(1)
+    private long maxKeys = 100_000;
+
+    // A bucket idle this long is full again anyway, so it is dropped
+    @NotNull
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    // Take the client IP from the first X-Forwarded-For entry; only behind a proxy that sets it
+    private boolean trustForwardedFor = false;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Map<String, Endpoint> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Endpoint> endpoints) { this.endpoints = endpoints; }
+
+    public long getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(long maxKeys) { this.maxKeys = maxKeys; }
+
+    public Duration getIdleExpiry() { return idleExpiry; }
+    public void setIdleExpiry(Duration idleExpiry) { this.idleExpiry = idleExpiry; }
+
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+    public void setTrustForwardedFor(boolean trustForwardedFor) { this.trustForwardedFor = trustForwardedFor; }
+
+    public static class Endpoint {
+
+        // Per client IP; null for no limit
+        @Valid
+        private Limit ip;
+
+        // Per customer email and, separately, per customer phone; null for no limit
+        @Valid
+        private Limit customer;
+
+        // Getters and Setters
+        public Limit getIp() { return ip; }
+        public void setIp(Limit ip) { this.ip = ip; }
+
+        public Limit getCustomer() { return customer; }
+        public void setCustomer(Limit customer) { this.customer = customer; }
+    }
+
+    public static class Limit {
+
+        // Sustained rate; fractions allow limits such as one per minute (0.0167)
+        @DecimalMin(value = "0.0", inclusive = false)
+        private double permitsPerSecond = 1;
+
+        // Requests allowed back to back after an idle period
+        @Min(1)
+        private int burst = 1;
+
+        // Getters and Setters
+        public double getPermitsPerSecond() { return permitsPerSecond; }
+        public void setPermitsPerSecond(double permitsPerSecond) { this.permitsPerSecond = permitsPerSecond; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+}
@@ -1,9 +1,22 @@
 package com.bytebyteboot.payment.config;
 
+import com.bytebyteboot.payment.service.RazorpayApi;
+import com.bytebyteboot.payment.service.RazorpayGateway;
+import com.bytebyteboot.payment.service.RazorpayHttpApi;
+import com.bytebyteboot.payment.service.RazorpaySdkApi;
+import com.bytebyteboot.payment.service.ResilientCallExecutor;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class RazorpayConfig {
@@ -21,4 +34,59 @@ public class RazorpayConfig {
                 razorpayProperties.getKeySecret()
         );
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RazorpayApi razorpayApi() throws RazorpayException {
+        if (StringUtils.hasText(razorpayProperties.getBaseUrl())) {
+            return new RazorpayHttpApi(razorpayProperties.getBaseUrl(), razorpayProperties.getKeyId(),
+                    razorpayProperties.getKeySecret(), Duration.ofMillis(razorpayProperties.getTimeout()));
+        }
+        return new RazorpaySdkApi(razorpayClient());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService razorpayExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("razorpay-", 0).factory());
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "razorpay.resilience")
+    public GatewayResilienceProperties resilienceProperties() {
+        return new GatewayResilienceProperties();
+    }
+
+    /**
+     * Budget for bulk creation and reconciliation: its own bulkhead, limit and breaker, and callers
+     * queue for a slot instead of being shed, since nobody is waiting on the other end.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "razorpay.batch-resilience")
+    public GatewayResilienceProperties batchResilienceProperties() {
+        GatewayResilienceProperties properties = new GatewayResilienceProperties();
+        properties.setMaxConcurrentCalls(256);
+        properties.setMaxWait(Duration.ofSeconds(30));
+        properties.setInitialLimit(32);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(256);
+        properties.setLimitWait(Duration.ofSeconds(30));
+        return properties;
+    }
+
+    @Bean
+    public ResilientCallExecutor razorpayCallExecutor(@Qualifier("razorpayExecutor") ExecutorService razorpayExecutor,
+                                                      @Qualifier("resilienceProperties") GatewayResilienceProperties resilienceProperties,
+                                                      MeterRegistry meterRegistry) {
+        return new ResilientCallExecutor("razorpay", razorpayExecutor,
+                Duration.ofMillis(razorpayProperties.getTimeout()), resilienceProperties,
+                RazorpayGateway::isGatewayFailure, meterRegistry);
+    }
+
+    @Bean
+    public ResilientCallExecutor razorpayBatchCallExecutor(@Qualifier("razorpayExecutor") ExecutorService razorpayExecutor,
+                                                           @Qualifier("batchResilienceProperties") GatewayResilienceProperties batchResilienceProperties,
+                                                           MeterRegistry meterRegistry) {
+        return new ResilientCallExecutor("razorpay-batch", razorpayExecutor,
+                Duration.ofMillis(razorpayProperties.getTimeout()), batchResilienceProperties,
+                RazorpayGateway::isGatewayFailure, meterRegistry);
+    }
+}
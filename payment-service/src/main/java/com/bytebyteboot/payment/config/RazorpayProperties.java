@@ -20,6 +20,9 @@ public class RazorpayProperties {
     private String currency = "INR";
     private int timeout = 30000;
 
+    // Talk plain HTTP to this host instead of api.razorpay.com, e.g. a local stand-in
+    private String baseUrl;
+
     // Getters and Setters
     public String getKeyId() { return keyId; }
     public void setKeyId(String keyId) { this.keyId = keyId; }
@@ -35,4 +38,7 @@ public class RazorpayProperties {
 
     public int getTimeout() { return timeout; }
     public void setTimeout(int timeout) { this.timeout = timeout; }
-}
\ No newline at end of file
+
+    public String getBaseUrl() { return baseUrl; }
+    public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+}
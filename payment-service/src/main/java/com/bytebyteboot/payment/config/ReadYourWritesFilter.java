@@ -0,0 +1,56 @@
+package com.bytebyteboot.payment.config;
+
+import com.bytebyteboot.payment.service.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Session half of read-your-writes: a client that sends the session header has all of its reads
+ * served by the primary for the window after any successful write it made.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+    private final ReplicaRoutingProperties replicaRoutingProperties;
+
+    @Autowired
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites, ReplicaRoutingProperties replicaRoutingProperties) {
+        this.readYourWrites = readYourWrites;
+        this.replicaRoutingProperties = replicaRoutingProperties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !replicaRoutingProperties.isEnabled()
+                || request.getHeader(replicaRoutingProperties.getSessionHeader()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String sessionId = request.getHeader(replicaRoutingProperties.getSessionHeader());
+        if (request.getMethod().equals("GET")) {
+            if (readYourWrites.isSessionPinned(sessionId)) {
+                try (ReadYourWrites.Pin pin = readYourWrites.pinToPrimary()) {
+                    chain.doFilter(request, response);
+                }
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        chain.doFilter(request, response);
+        if (response.getStatus() < 400) {
+            readYourWrites.recordSessionWrite(sessionId);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.reconciliation")
+public class ReconciliationProperties {
+
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofMinutes(5);
+
+    // Orders younger than this may still receive their webhook and are left alone
+    private Duration minAge = Duration.ofMinutes(15);
+
+    // Orders older than this are no longer reconciled
+    private Duration maxAge = Duration.ofDays(7);
+
+    @Min(1)
+    private int chunkSize = 500;
+
+    // Fetches in flight; at least permits-per-second times the Razorpay latency to reach that rate
+    @Min(1)
+    private int maxConcurrency = 200;
+
+    // Share of the Razorpay API quota the job may use; at 1000/s a million orders take about 17 minutes
+    @Min(1)
+    private int permitsPerSecond = 1000;
+
+    @Min(1)
+    private int burst = 100;
+
+    // Held by the running instance so only one replica scans a status at a time
+    private Duration lease = Duration.ofMinutes(10);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getInterval() { return interval; }
+    public void setInterval(Duration interval) { this.interval = interval; }
+
+    public Duration getMinAge() { return minAge; }
+    public void setMinAge(Duration minAge) { this.minAge = minAge; }
+
+    public Duration getMaxAge() { return maxAge; }
+    public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+    public int getPermitsPerSecond() { return permitsPerSecond; }
+    public void setPermitsPerSecond(int permitsPerSecond) { this.permitsPerSecond = permitsPerSecond; }
+
+    public int getBurst() { return burst; }
+    public void setBurst(int burst) { this.burst = burst; }
+
+    public Duration getLease() { return lease; }
+    public void setLease(Duration lease) { this.lease = lease; }
+}
@@ -0,0 +1,118 @@
+package com.bytebyteboot.payment.config;
+
+import com.bytebyteboot.payment.service.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions round-robin to the healthy replicas and everything else to the
+ * primary. Reads pinned by {@link ReadYourWrites}, and reads issued while no replica is healthy, also
+ * go to the primary. A replica that refuses a connection is taken out of rotation until the next
+ * successful health check.
+ * <p>
+ * The read-only flag is only known once the transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<HikariDataSource> inRotation;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthy = new boolean[replicas.size()];
+        Arrays.fill(healthy, true);
+        this.inRotation = this.replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        HikariDataSource replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private HikariDataSource selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPrimaryRequired()) {
+            return null;
+        }
+        List<HikariDataSource> candidates = inRotation;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    public void checkHealth(Duration timeout) {
+        int seconds = (int) Math.max(1, timeout.toSeconds());
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get(i);
+            boolean up;
+            try (Connection connection = replica.getConnection()) {
+                up = connection.isValid(seconds);
+            } catch (SQLException e) {
+                up = false;
+            }
+            setHealthy(i, up);
+        }
+    }
+
+    public int getHealthyReplicas() {
+        return inRotation.size();
+    }
+
+    private void markDown(HikariDataSource replica, SQLException cause) {
+        logger.warn("Replica {} refused a connection, routing reads elsewhere: {}", replica.getPoolName(), cause.getMessage());
+        setHealthy(replicas.indexOf(replica), false);
+    }
+
+    private synchronized void setHealthy(int index, boolean up) {
+        if (healthy[index] == up) {
+            return;
+        }
+        healthy[index] = up;
+        logger.info("Replica {} is {}", replicas.get(index).getPoolName(), up ? "back in rotation" : "out of rotation");
+        List<HikariDataSource> rotation = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            if (healthy[i]) {
+                rotation.add(replicas.get(i));
+            }
+        }
+        inRotation = List.copyOf(rotation);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
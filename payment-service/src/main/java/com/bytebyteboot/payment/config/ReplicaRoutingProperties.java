@@ -0,0 +1,86 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    // Route read-only transactions to the replicas below; spring.datasource stays the primary
+    private boolean enabled = false;
+
+    @Valid
+    private List<Replica> replicas = new ArrayList<>();
+
+    @NotNull
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    // Reads of an order (or session) written within this window go to the primary; keep it above replica lag
+    @NotNull
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Min(1)
+    private long maxPinnedKeys = 100_000;
+
+    // Opt-in header clients send to have all their reads pinned after any write of theirs
+    private String sessionHeader = "X-Session-Id";
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+
+    public Duration getHealthCheckInterval() { return healthCheckInterval; }
+    public void setHealthCheckInterval(Duration healthCheckInterval) { this.healthCheckInterval = healthCheckInterval; }
+
+    public Duration getHealthCheckTimeout() { return healthCheckTimeout; }
+    public void setHealthCheckTimeout(Duration healthCheckTimeout) { this.healthCheckTimeout = healthCheckTimeout; }
+
+    public Duration getReadYourWritesWindow() { return readYourWritesWindow; }
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) { this.readYourWritesWindow = readYourWritesWindow; }
+
+    public long getMaxPinnedKeys() { return maxPinnedKeys; }
+    public void setMaxPinnedKeys(long maxPinnedKeys) { this.maxPinnedKeys = maxPinnedKeys; }
+
+    public String getSessionHeader() { return sessionHeader; }
+    public void setSessionHeader(String sessionHeader) { this.sessionHeader = sessionHeader; }
+
+    public static class Replica {
+
+        @NotBlank
+        private String url;
+
+        private String username;
+        private String password;
+
+        @Min(1)
+        private int maximumPoolSize = 10;
+
+        // Getters and Setters
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+}
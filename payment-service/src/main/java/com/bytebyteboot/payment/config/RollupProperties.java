@@ -0,0 +1,37 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.rollups")
+public class RollupProperties {
+
+    private boolean enabled = true;
+
+    // Rollup rows lag live transitions by at most this much
+    private Duration flushInterval = Duration.ofSeconds(10);
+
+    @Min(1)
+    private int backfillFetchSize = 1000;
+
+    // Orders looked up per query when flushing transitions recorded without their amount
+    @Min(1)
+    private int resolveBatchSize = 500;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+
+    public int getBackfillFetchSize() { return backfillFetchSize; }
+    public void setBackfillFetchSize(int backfillFetchSize) { this.backfillFetchSize = backfillFetchSize; }
+
+    public int getResolveBatchSize() { return resolveBatchSize; }
+    public void setResolveBatchSize(int resolveBatchSize) { this.resolveBatchSize = resolveBatchSize; }
+}
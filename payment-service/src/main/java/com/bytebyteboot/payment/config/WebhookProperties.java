@@ -0,0 +1,122 @@
+package com.bytebyteboot.payment.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "payment.webhook")
+public class WebhookProperties {
+
+    // When enabled the controller only verifies and enqueues; workers apply the events in batches
+    private boolean asyncEnabled = false;
+
+    @Min(1)
+    private int queueCapacity = 10000;
+
+    @Min(1)
+    private int batchSize = 100;
+
+    @Min(1)
+    private int workers = 2;
+
+    @Min(1)
+    private long pollTimeoutMs = 500;
+
+    @Min(0)
+    private long shutdownTimeoutMs = 10000;
+
+    // How long a queued delivery stays with this instance; a failed batch is retried once it lapses
+    @NotNull
+    private Duration claimLease = Duration.ofMinutes(5);
+
+    // Claims PENDING deliveries whose lease lapsed, page by page while the queue has room
+    @NotNull
+    private Duration rescanInterval = Duration.ofSeconds(30);
+
+    @Valid
+    private Dedup dedup = new Dedup();
+
+    // Getters and Setters
+    public boolean isAsyncEnabled() { return asyncEnabled; }
+    public void setAsyncEnabled(boolean asyncEnabled) { this.asyncEnabled = asyncEnabled; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    public long getPollTimeoutMs() { return pollTimeoutMs; }
+    public void setPollTimeoutMs(long pollTimeoutMs) { this.pollTimeoutMs = pollTimeoutMs; }
+
+    public long getShutdownTimeoutMs() { return shutdownTimeoutMs; }
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) { this.shutdownTimeoutMs = shutdownTimeoutMs; }
+
+    public Duration getClaimLease() { return claimLease; }
+    public void setClaimLease(Duration claimLease) { this.claimLease = claimLease; }
+
+    public Duration getRescanInterval() { return rescanInterval; }
+    public void setRescanInterval(Duration rescanInterval) { this.rescanInterval = rescanInterval; }
+
+    public Dedup getDedup() { return dedup; }
+    public void setDedup(Dedup dedup) { this.dedup = dedup; }
+
+    public static class Dedup {
+
+        private boolean enabled = true;
+
+        // Events one Bloom filter generation is sized for; a new generation starts every half retention
+        @Min(1)
+        private int expectedEvents = 1_000_000;
+
+        @DecimalMin("0.0001")
+        @DecimalMax("0.5")
+        private double falsePositiveRate = 0.01;
+
+        // Recently seen event keys answered without a database read
+        @Min(1)
+        private long cacheSize = 100_000;
+
+        // Razorpay retries a failed delivery for up to 24 hours
+        @NotNull
+        private Duration retention = Duration.ofHours(48);
+
+        @Min(1)
+        private int seedFetchSize = 1000;
+
+        @NotNull
+        private Duration cleanupInterval = Duration.ofHours(1);
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getExpectedEvents() { return expectedEvents; }
+        public void setExpectedEvents(int expectedEvents) { this.expectedEvents = expectedEvents; }
+
+        public double getFalsePositiveRate() { return falsePositiveRate; }
+        public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+
+        public long getCacheSize() { return cacheSize; }
+        public void setCacheSize(long cacheSize) { this.cacheSize = cacheSize; }
+
+        public Duration getRetention() { return retention; }
+        public void setRetention(Duration retention) { this.retention = retention; }
+
+        public int getSeedFetchSize() { return seedFetchSize; }
+        public void setSeedFetchSize(int seedFetchSize) { this.seedFetchSize = seedFetchSize; }
+
+        public Duration getCleanupInterval() { return cleanupInterval; }
+        public void setCleanupInterval(Duration cleanupInterval) { this.cleanupInterval = cleanupInterval; }
+    }
+}
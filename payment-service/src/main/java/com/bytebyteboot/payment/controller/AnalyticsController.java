@@ -0,0 +1,60 @@
+package com.bytebyteboot.payment.controller;
+
+import com.bytebyteboot.payment.dto.PaymentRollupRow;
+import com.bytebyteboot.payment.exception.PaymentException;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.service.PaymentRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private static final Duration MAX_RANGE = Duration.ofDays(366);
+
+    private final PaymentRollups paymentRollups;
+
+    @Autowired
+    public AnalyticsController(PaymentRollups paymentRollups) {
+        this.paymentRollups = paymentRollups;
+    }
+
+    /**
+     * Orders that entered each status in {@code [from, to)}, per hour or per day and currency.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<PaymentRollupRow>> getRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) PaymentOrder.PaymentStatus status,
+            @RequestParam(required = false) String currency) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new PaymentException("from must be before to, at most " + MAX_RANGE.toDays() + " days apart");
+        }
+        boolean daily = switch (granularity) {
+            case "hour" -> false;
+            case "day" -> true;
+            default -> throw new PaymentException("granularity must be hour or day");
+        };
+        return ResponseEntity.ok(paymentRollups.find(from, to, daily, status, currency));
+    }
+
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<PaymentRollups.BackfillResult> backfill() {
+        logger.info("Received request to rebuild payment rollups");
+        return ResponseEntity.ok(paymentRollups.backfill());
+    }
+}
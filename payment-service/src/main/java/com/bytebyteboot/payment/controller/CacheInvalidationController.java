@@ -0,0 +1,57 @@
+package com.bytebyteboot.payment.controller;
+
+import com.bytebyteboot.payment.config.OrderCacheProperties;
+import com.bytebyteboot.payment.service.OrderCache;
+import com.bytebyteboot.payment.service.PeerOrderCacheInvalidationBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Receives invalidations from {@link PeerOrderCacheInvalidationBroadcaster} on other replicas.
+ * Only requests carrying the shared peer secret are accepted; without a configured secret every
+ * request is refused.
+ */
+@RestController
+@RequestMapping("/api/internal/cache")
+public class CacheInvalidationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationController.class);
+
+    private final OrderCache orderCache;
+    private final byte[] peerSecret;
+
+    @Autowired
+    public CacheInvalidationController(OrderCache orderCache, OrderCacheProperties orderCacheProperties) {
+        this.orderCache = orderCache;
+        this.peerSecret = StringUtils.hasText(orderCacheProperties.getPeerSecret())
+                ? orderCacheProperties.getPeerSecret().getBytes(StandardCharsets.UTF_8)
+                : null;
+    }
+
+    @PostMapping("/orders/{orderId}/invalidate")
+    public ResponseEntity<Void> invalidateOrder(
+            @PathVariable String orderId,
+            @RequestHeader(value = PeerOrderCacheInvalidationBroadcaster.SECRET_HEADER, required = false) String secret) {
+        if (!isPeer(secret)) {
+            logger.warn("Rejected cache invalidation for order {} without a valid peer secret", orderId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        logger.debug("Received cache invalidation for order: {}", orderId);
+        orderCache.onRemoteInvalidation(orderId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isPeer(String secret) {
+        // Constant time, so the secret cannot be guessed byte by byte from response times
+        return peerSecret != null && secret != null
+                && MessageDigest.isEqual(peerSecret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
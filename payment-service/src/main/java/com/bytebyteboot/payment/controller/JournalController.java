@@ -0,0 +1,46 @@
+package com.bytebyteboot.payment.controller;
+
+import com.bytebyteboot.payment.config.JournalProperties;
+import com.bytebyteboot.payment.dto.JournalEventPage;
+import com.bytebyteboot.payment.exception.PaymentException;
+import com.bytebyteboot.payment.journal.PaymentJournal;
+import com.bytebyteboot.payment.journal.PaymentJournalReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/journal")
+@CrossOrigin(origins = "*")
+public class JournalController {
+
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private final PaymentJournal paymentJournal;
+    private final JournalProperties journalProperties;
+
+    @Autowired
+    public JournalController(PaymentJournal paymentJournal, JournalProperties journalProperties) {
+        this.paymentJournal = paymentJournal;
+        this.journalProperties = journalProperties;
+    }
+
+    /**
+     * Events from {@code from} on, for audit exports and tailing.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<JournalEventPage> getEvents(@RequestParam(defaultValue = "0") long from,
+                                                      @RequestParam(defaultValue = "500") int limit) {
+        if (!journalProperties.isEnabled()) {
+            throw new PaymentException("Payment journal is disabled");
+        }
+        List<JournalEventPage.Entry> events = new ArrayList<>();
+        long next = new PaymentJournalReader(paymentJournal.getDirectory()).read(from,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)),
+                (position, event) -> events.add(new JournalEventPage.Entry(position, event)));
+        return ResponseEntity.ok(new JournalEventPage(events, next));
+    }
+}
@@ -1,17 +1,39 @@
 package com.bytebyteboot.payment.controller;
 
+import com.bytebyteboot.payment.dto.BulkOrderRequest;
+import com.bytebyteboot.payment.dto.BulkOrderResponse;
+import com.bytebyteboot.payment.dto.PaymentOrderFilter;
+import com.bytebyteboot.payment.dto.PaymentOrderPage;
 import com.bytebyteboot.payment.dto.PaymentOrderRequest;
 import com.bytebyteboot.payment.dto.PaymentOrderResponse;
 import com.bytebyteboot.payment.dto.PaymentVerificationRequest;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.service.BulkOrderService;
+import com.bytebyteboot.payment.service.IdempotencyService;
 import com.bytebyteboot.payment.service.PaymentOrderService;
+import com.bytebyteboot.payment.service.RequestRateLimiter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,25 +43,63 @@ public class PaymentOrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentOrderController.class);
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final PaymentOrderService paymentOrderService;
+    private final BulkOrderService bulkOrderService;
+    private final IdempotencyService idempotencyService;
+    private final RequestRateLimiter rateLimiter;
+    private final ObjectWriter ndjsonWriter;
 
     @Autowired
-    public PaymentOrderController(PaymentOrderService paymentOrderService) {
+    public PaymentOrderController(PaymentOrderService paymentOrderService,
+                                  BulkOrderService bulkOrderService,
+                                  IdempotencyService idempotencyService,
+                                  RequestRateLimiter rateLimiter,
+                                  ObjectMapper objectMapper) {
         this.paymentOrderService = paymentOrderService;
+        this.bulkOrderService = bulkOrderService;
+        this.idempotencyService = idempotencyService;
+        this.rateLimiter = rateLimiter;
+        this.ndjsonWriter = objectMapper.writerFor(PaymentOrderResponse.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @PostMapping("/create-order")
-    public ResponseEntity<PaymentOrderResponse> createOrder(@Valid @RequestBody PaymentOrderRequest request) {
+    public ResponseEntity<PaymentOrderResponse> createOrder(
+            @Valid @RequestBody PaymentOrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        rateLimiter.check(RequestRateLimiter.CREATE_ORDER, rateLimiter.clientIp(httpRequest),
+                request.customerEmail(), request.customerPhone());
         logger.info("Received request to create payment order for amount: {}", request.amount());
-        PaymentOrderResponse response = paymentOrderService.createOrder(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return idempotencyService.execute("create-order", idempotencyKey, request, PaymentOrderResponse.class, () -> {
+            PaymentOrderResponse response = paymentOrderService.createOrder(request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
+    }
+
+    @PostMapping("/bulk/create-orders")
+    public ResponseEntity<BulkOrderResponse> createOrders(@Valid @RequestBody BulkOrderRequest request,
+                                                          HttpServletRequest httpRequest) {
+        rateLimiter.check(RequestRateLimiter.BULK_CREATE_ORDERS, rateLimiter.clientIp(httpRequest), null, null);
+        logger.info("Received request to create {} payment orders in bulk", request.orders().size());
+        BulkOrderResponse response = bulkOrderService.createOrders(request.orders());
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/verify")
-    public ResponseEntity<PaymentOrderResponse> verifyPayment(@Valid @RequestBody PaymentVerificationRequest request) {
+    public ResponseEntity<PaymentOrderResponse> verifyPayment(
+            @Valid @RequestBody PaymentVerificationRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("Received request to verify payment for order: {}", request.razorpayOrderId());
-        PaymentOrderResponse response = paymentOrderService.verifyPayment(request);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute("verify", idempotencyKey, request, PaymentOrderResponse.class, () -> {
+            PaymentOrderResponse response = paymentOrderService.verifyPayment(request);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/order/{orderId}")
@@ -49,11 +109,64 @@ public class PaymentOrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * The first page of orders as a plain list, kept for existing clients.
+     *
+     * @deprecated use {@code /orders/page} to page through orders or {@code /orders/export} for all of them
+     */
+    @Deprecated
     @GetMapping("/orders")
     public ResponseEntity<List<PaymentOrderResponse>> getAllOrders() {
         logger.info("Received request to get all orders");
         List<PaymentOrderResponse> response = paymentOrderService.getAllOrders();
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/payments/orders/page>; rel=\"successor-version\"")
+                .body(response);
+    }
+
+    @GetMapping("/orders/page")
+    public ResponseEntity<PaymentOrderPage> getOrdersPage(
+            @RequestParam(required = false) PaymentOrder.PaymentStatus status,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        logger.info("Received request to get orders page after cursor: {}", cursor);
+        PaymentOrderFilter filter = new PaymentOrderFilter(status, email, from, to);
+        return ResponseEntity.ok(paymentOrderService.getOrdersPage(filter, cursor, size));
+    }
+
+    @GetMapping(value = "/orders/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) PaymentOrder.PaymentStatus status,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("Received request to export orders");
+        PaymentOrderFilter filter = new PaymentOrderFilter(status, email, from, to);
+
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(outputStream, 64 * 1024);
+            boolean[] written = new boolean[1];
+            try (SequenceWriter writer = ndjsonWriter.writeValues(buffered)) {
+                paymentOrderService.exportOrders(filter, order -> {
+                    try {
+                        writer.write(order);
+                        written[0] = true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            // The separator only goes between rows, so the last one needs its newline; no rows, no body
+            if (written[0]) {
+                buffered.write('\n');
+            }
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     @PostMapping("/cancel/{orderId}")
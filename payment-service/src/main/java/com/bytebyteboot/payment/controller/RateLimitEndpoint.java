@@ -0,0 +1,32 @@
+package com.bytebyteboot.payment.controller;
+
+import com.bytebyteboot.payment.service.RequestRateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator view of the most rejected rate limit keys: GET /actuator/ratelimits?limit=20
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final RequestRateLimiter rateLimiter;
+
+    @Autowired
+    public RateLimitEndpoint(RequestRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @ReadOperation
+    public List<RequestRateLimiter.Offender> topOffenders(@Nullable Integer limit) {
+        return rateLimiter.topOffenders(limit == null ? DEFAULT_LIMIT : Math.max(1, limit));
+    }
+}
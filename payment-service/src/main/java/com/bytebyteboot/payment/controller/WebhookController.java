@@ -1,12 +1,20 @@
 package com.bytebyteboot.payment.controller;
 
+import com.bytebyteboot.payment.config.WebhookProperties;
+import com.bytebyteboot.payment.security.RazorpaySignatureVerifier;
+import com.bytebyteboot.payment.service.PaymentMetrics;
 import com.bytebyteboot.payment.service.PaymentOrderService;
+import com.bytebyteboot.payment.service.WebhookDeduplicator;
+import com.bytebyteboot.payment.service.WebhookIngestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+
 @RestController
 @RequestMapping("/api/webhooks")
 public class WebhookController {
@@ -14,25 +22,71 @@ public class WebhookController {
     private static final Logger logger = LoggerFactory.getLogger(WebhookController.class);
 
     private final PaymentOrderService paymentOrderService;
+    private final WebhookIngestionService webhookIngestionService;
+    private final WebhookProperties webhookProperties;
+    private final RazorpaySignatureVerifier signatureVerifier;
+    private final PaymentMetrics paymentMetrics;
+    private final WebhookDeduplicator webhookDeduplicator;
 
     @Autowired
-    public WebhookController(PaymentOrderService paymentOrderService) {
+    public WebhookController(PaymentOrderService paymentOrderService,
+                             WebhookIngestionService webhookIngestionService,
+                             WebhookProperties webhookProperties,
+                             RazorpaySignatureVerifier signatureVerifier,
+                             PaymentMetrics paymentMetrics,
+                             WebhookDeduplicator webhookDeduplicator) {
         this.paymentOrderService = paymentOrderService;
+        this.webhookIngestionService = webhookIngestionService;
+        this.webhookProperties = webhookProperties;
+        this.signatureVerifier = signatureVerifier;
+        this.paymentMetrics = paymentMetrics;
+        this.webhookDeduplicator = webhookDeduplicator;
     }
 
     @PostMapping("/razorpay")
     public ResponseEntity<String> handleRazorpayWebhook(
-            @RequestBody String payload,
-            @RequestHeader("X-Razorpay-Signature") String signature) {
+            @RequestBody byte[] payload,
+            @RequestHeader("X-Razorpay-Signature") String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
 
         logger.info("Received Razorpay webhook");
 
+        if (webhookProperties.isAsyncEnabled()) {
+            return enqueueWebhook(payload, signature, eventId);
+        }
+
         try {
-            paymentOrderService.handleWebhook(payload, signature);
+            paymentOrderService.handleWebhook(payload, signature, eventId);
             return ResponseEntity.ok("Webhook processed successfully");
         } catch (Exception e) {
             logger.error("Error processing webhook: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Webhook processing failed");
         }
     }
+
+    private ResponseEntity<String> enqueueWebhook(byte[] payload, String signature, String eventId) {
+        long start = System.nanoTime();
+        boolean valid = signatureVerifier.verifyWebhookSignature(payload, signature);
+        paymentMetrics.recordWebhookSignature(valid, start);
+        if (!valid) {
+            logger.warn("Rejected webhook with invalid signature");
+            return ResponseEntity.badRequest().body("Invalid webhook signature");
+        }
+
+        // The key is recorded by the worker once the event is applied; this only spares a queue slot
+        if (webhookDeduplicator.isDuplicate(webhookDeduplicator.keyOf(eventId, payload))) {
+            return ResponseEntity.ok("Duplicate webhook ignored");
+        }
+
+        try {
+            if (!webhookIngestionService.enqueue(new String(payload, StandardCharsets.UTF_8), eventId)) {
+                logger.warn("Webhook queue full, asking Razorpay to retry");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Webhook queue is full");
+            }
+            return ResponseEntity.ok("Webhook accepted");
+        } catch (Exception e) {
+            logger.error("Error queueing webhook: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Webhook could not be queued");
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package com.bytebyteboot.payment.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BulkOrderRequest(
+        @NotEmpty(message = "At least one order is required")
+        List<PaymentOrderRequest> orders
+) {}
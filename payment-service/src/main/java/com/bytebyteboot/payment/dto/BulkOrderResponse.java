@@ -0,0 +1,25 @@
+package com.bytebyteboot.payment.dto;
+
+import java.util.List;
+
+public record BulkOrderResponse(
+        int requested,
+        int succeeded,
+        int failed,
+        List<ItemResult> results
+) {
+    public record ItemResult(
+            int index,
+            String receipt,
+            PaymentOrderResponse order,
+            String error
+    ) {
+        public static ItemResult success(int index, PaymentOrderResponse order) {
+            return new ItemResult(index, order.receipt(), order, null);
+        }
+
+        public static ItemResult failure(int index, String receipt, String error) {
+            return new ItemResult(index, receipt, null, error);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bytebyteboot.payment.dto;
+
+import com.bytebyteboot.payment.journal.JournalEvent;
+
+import java.util.List;
+
+/**
+ * A run of journal events; pass {@code nextPosition} as {@code from} to continue, or to tail once
+ * more events have been appended.
+ */
+public record JournalEventPage(List<Entry> events, long nextPosition) {
+
+    public record Entry(long position, JournalEvent event) {}
+}
@@ -0,0 +1,12 @@
+package com.bytebyteboot.payment.dto;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+
+import java.time.LocalDateTime;
+
+public record PaymentOrderFilter(
+        PaymentOrder.PaymentStatus status,
+        String customerEmail,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo
+) {}
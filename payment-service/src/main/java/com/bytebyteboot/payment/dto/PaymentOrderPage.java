@@ -0,0 +1,8 @@
+package com.bytebyteboot.payment.dto;
+
+import java.util.List;
+
+public record PaymentOrderPage(
+        List<PaymentOrderResponse> items,
+        String nextCursor
+) {}
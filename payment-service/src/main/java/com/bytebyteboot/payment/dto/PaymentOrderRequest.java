@@ -1,5 +1,7 @@
 package com.bytebyteboot.payment.dto;
 
+import com.bytebyteboot.payment.model.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 
@@ -21,4 +23,29 @@ public record  PaymentOrderRequest(
         String customerPhone,
 
         String notes
-) {}
\ No newline at end of file
+) {
+    /**
+     * The amount in the currency's minor units. Only valid once the request has passed validation.
+     */
+    public Money money() {
+        return Money.of(amount, currency);
+    }
+
+    // Rejects amounts that would otherwise be rounded, e.g. 10.005 INR or 100.5 JPY
+    @JsonIgnore
+    @AssertTrue(message = "Amount must be a whole number of the currency's minor units and currency a supported ISO 4217 code")
+    public boolean isAmountExact() {
+        if (amount == null || currency == null || currency.isBlank()) {
+            return true;
+        }
+        if (!Money.isSupported(currency)) {
+            return false;
+        }
+        try {
+            Money.toMinorUnits(amount, currency);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+}
@@ -1,4 +1,5 @@
 package com.bytebyteboot.payment.dto;
+import com.bytebyteboot.payment.model.ArchivedPaymentOrder;
 import com.bytebyteboot.payment.model.PaymentOrder;
 
 import java.math.BigDecimal;
@@ -32,4 +33,25 @@ public record PaymentOrderResponse(
                 paymentOrder.getNotes()
         );
     }
+
+    public static PaymentOrderResponse from(ArchivedPaymentOrder archivedOrder) {
+        return new PaymentOrderResponse(
+                archivedOrder.getId(),
+                archivedOrder.getRazorpayOrderId(),
+                archivedOrder.getRazorpayPaymentId(),
+                archivedOrder.getAmount(),
+                archivedOrder.getCurrency(),
+                archivedOrder.getReceipt(),
+                archivedOrder.getStatus(),
+                archivedOrder.getCustomerEmail(),
+                archivedOrder.getCustomerPhone(),
+                archivedOrder.getCreatedAt(),
+                archivedOrder.getNotes()
+        );
+    }
+
+    public PaymentOrderResponse withStatus(PaymentOrder.PaymentStatus status, String razorpayPaymentId) {
+        return new PaymentOrderResponse(id, razorpayOrderId, razorpayPaymentId, amount, currency, receipt,
+                status, customerEmail, customerPhone, createdAt, notes);
+    }
 }
\ No newline at end of file
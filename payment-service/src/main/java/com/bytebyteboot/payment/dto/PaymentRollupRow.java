@@ -0,0 +1,17 @@
+package com.bytebyteboot.payment.dto;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Orders that entered {@code status} in the bucket starting at {@code bucketStart}, and their total amount.
+ */
+public record PaymentRollupRow(
+        LocalDateTime bucketStart,
+        PaymentOrder.PaymentStatus status,
+        String currency,
+        long count,
+        BigDecimal amount
+) {}
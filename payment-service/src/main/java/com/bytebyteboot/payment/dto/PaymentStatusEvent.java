@@ -0,0 +1,20 @@
+package com.bytebyteboot.payment.dto;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published when an order reaches one of the outbox statuses. {@code id} increases with every
+ * event and is unique, so consumers can use it to drop redeliveries.
+ */
+public record PaymentStatusEvent(
+        long id,
+        String razorpayOrderId,
+        PaymentOrder.PaymentStatus status,
+        String razorpayPaymentId,
+        BigDecimal amount,
+        String currency,
+        LocalDateTime occurredAt
+) {}
@@ -0,0 +1,16 @@
+package com.bytebyteboot.payment.dto;
+
+/**
+ * The fields of a Razorpay webhook the service acts on. {@code orderId} comes from the order entity
+ * for {@code order.*} events and from the payment entity otherwise; fields absent from the payload
+ * are null, and {@code createdAt} (epoch seconds) is 0.
+ */
+public record RazorpayWebhookEvent(
+        String event,
+        String orderId,
+        String paymentId,
+        String refundId,
+        String refundStatus,
+        long createdAt
+) {
+}
@@ -0,0 +1,16 @@
+package com.bytebyteboot.payment.exception;
+
+/**
+ * Thrown without calling Razorpay when the outbound call is shed by the circuit breaker, bulkhead
+ * or concurrency limit, or when it exceeded its timeout. Clients should retry later.
+ */
+public class GatewayUnavailableException extends RuntimeException {
+
+    public GatewayUnavailableException(String message) {
+        super(message);
+    }
+
+    public GatewayUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,21 @@
+package com.bytebyteboot.payment.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown before any service work when a client IP or customer has used up its request budget.
+ * Rejections can come in floods, so no stack trace is captured.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
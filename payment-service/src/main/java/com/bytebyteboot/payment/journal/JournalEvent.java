@@ -0,0 +1,137 @@
+package com.bytebyteboot.payment.journal;
+
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One entry of the payment journal. Fields that do not apply to a type are null.
+ * <p>
+ * Binary layout (little-endian): type byte, timestamp in epoch microseconds, then the order ID,
+ * status, payment ID, amount, currency and detail. Strings are a short length (-1 for null)
+ * followed by UTF-8 bytes. The status is its ordinal, -1 for null. The amount is a scale byte and
+ * an unscaled long, scale -1 for null.
+ */
+public record JournalEvent(
+        Type type,
+        Instant timestamp,
+        String razorpayOrderId,
+        PaymentStatus status,
+        String razorpayPaymentId,
+        BigDecimal amount,
+        String currency,
+        String detail
+) {
+
+    public enum Type {
+        ORDER_CREATED, VERIFY_REQUESTED, WEBHOOK_RECEIVED, STATUS_CHANGED, CANCEL_REQUESTED
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    public static JournalEvent orderCreated(String razorpayOrderId, BigDecimal amount, String currency) {
+        return new JournalEvent(Type.ORDER_CREATED, now(), razorpayOrderId, PaymentStatus.CREATED, null,
+                amount, currency, null);
+    }
+
+    public static JournalEvent verifyRequested(String razorpayOrderId, String razorpayPaymentId) {
+        return new JournalEvent(Type.VERIFY_REQUESTED, now(), razorpayOrderId, null, razorpayPaymentId,
+                null, null, null);
+    }
+
+    public static JournalEvent webhookReceived(String razorpayOrderId, String razorpayPaymentId, String event) {
+        return new JournalEvent(Type.WEBHOOK_RECEIVED, now(), razorpayOrderId, null, razorpayPaymentId,
+                null, null, event);
+    }
+
+    public static JournalEvent statusChanged(String razorpayOrderId, PaymentStatus status, String razorpayPaymentId) {
+        return new JournalEvent(Type.STATUS_CHANGED, now(), razorpayOrderId, status, razorpayPaymentId,
+                null, null, null);
+    }
+
+    public static JournalEvent cancelRequested(String razorpayOrderId) {
+        return new JournalEvent(Type.CANCEL_REQUESTED, now(), razorpayOrderId, null, null, null, null, null);
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    byte[] encode() {
+        byte[] orderId = bytes(razorpayOrderId);
+        byte[] paymentId = bytes(razorpayPaymentId);
+        byte[] currencyBytes = bytes(currency);
+        byte[] detailBytes = bytes(detail);
+        int size = 1 + 8 + 1 + 1 + 8
+                + 2 + length(orderId) + 2 + length(paymentId) + 2 + length(currencyBytes) + 2 + length(detailBytes);
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, timestamp));
+        put(buffer, orderId);
+        buffer.put((byte) (status == null ? -1 : status.ordinal()));
+        put(buffer, paymentId);
+        if (amount == null) {
+            buffer.put((byte) -1);
+            buffer.putLong(0);
+        } else {
+            buffer.put((byte) amount.scale());
+            buffer.putLong(amount.unscaledValue().longValueExact());
+        }
+        put(buffer, currencyBytes);
+        put(buffer, detailBytes);
+        return buffer.array();
+    }
+
+    static JournalEvent decode(ByteBuffer buffer) {
+        Type type = TYPES[buffer.get()];
+        long micros = buffer.getLong();
+        Instant timestamp = Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+        String orderId = string(buffer);
+        byte status = buffer.get();
+        String paymentId = string(buffer);
+        byte scale = buffer.get();
+        long unscaled = buffer.getLong();
+        BigDecimal amount = scale < 0 ? null : new BigDecimal(BigInteger.valueOf(unscaled), scale);
+        String currency = string(buffer);
+        String detail = string(buffer);
+        return new JournalEvent(type, timestamp, orderId, status < 0 ? null : STATUSES[status], paymentId,
+                amount, currency, detail);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+        } else {
+            if (value.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Journal field of " + value.length + " bytes is too long");
+            }
+            buffer.putShort((short) value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
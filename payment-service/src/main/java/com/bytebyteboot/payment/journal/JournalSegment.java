@@ -0,0 +1,193 @@
+package com.bytebyteboot.payment.journal;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped journal file covering positions {@code [base, base + capacity)}.
+ * <p>
+ * A record is an 8-byte header (payload length, CRC32C of the payload) followed by the payload,
+ * padded to a multiple of 8 so headers stay aligned. Writers reserve space by advancing
+ * {@link #reserve(int) the tail} and write the payload and checksum before publishing the length
+ * with a release store; readers load the length with acquire semantics, so a non-zero length
+ * always means a complete record. A length of {@value #END_OF_SEGMENT} marks the end of the
+ * segment, as does less than a header of space left.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    static final int HEADER = 8;
+    static final int END_OF_SEGMENT = -1;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int PAGE = 4096;
+
+    final long base;
+    final int capacity;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong tail;
+    // Only touched by the flusher thread
+    private int forced;
+
+    private JournalSegment(Path path, long base, int capacity, FileChannel channel, MappedByteBuffer buffer, int tail) {
+        this.path = path;
+        this.base = base;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.tail = new AtomicLong(tail);
+        this.forced = tail;
+    }
+
+    static Path fileName(Path directory, long base) {
+        return directory.resolve(String.format("%020d.journal", base));
+    }
+
+    static JournalSegment create(Path directory, long base, int capacity, boolean preTouch) throws IOException {
+        Path path = fileName(directory, base);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (preTouch) {
+            // Fault every page in now so appends never wait on the kernel allocating one
+            for (int i = 0; i < capacity; i += PAGE) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return new JournalSegment(path, base, capacity, channel, buffer, 0);
+    }
+
+    /**
+     * Opens an existing segment for appending after its last intact record, zeroing anything past
+     * it (a torn write from a crash) so later records are not followed by stale bytes.
+     */
+    static JournalSegment recover(Path path, long base) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int capacity = (int) channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        int end = 0;
+        while (capacity - end >= HEADER) {
+            int length = (int) INT.get(buffer, end);
+            if (length == END_OF_SEGMENT) {
+                end = capacity;
+                break;
+            }
+            if (length <= 0 || end + stride(length) > capacity || !checksumMatches(buffer, end, length)) {
+                break;
+            }
+            end += stride(length);
+        }
+        if (end < capacity) {
+            for (int i = end; i < capacity; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        return new JournalSegment(path, base, capacity, channel, buffer, end);
+    }
+
+    static int stride(int payloadLength) {
+        return (HEADER + payloadLength + 7) & ~7;
+    }
+
+    /**
+     * Reserves {@code stride} bytes and returns their offset, which may lie past the capacity once
+     * the segment is full.
+     */
+    long reserve(int stride) {
+        return tail.getAndAdd(stride);
+    }
+
+    void write(int offset, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(offset + HEADER, payload);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        INT.setRelease(buffer, offset, payload.length);
+    }
+
+    /**
+     * Called by the one writer whose reservation starts at or crosses the capacity.
+     */
+    void markEnd(int offset) {
+        if (capacity - offset >= HEADER) {
+            INT.setRelease(buffer, offset, END_OF_SEGMENT);
+        }
+    }
+
+    /**
+     * Ends a recovered segment at its last record so readers move on to the next one.
+     */
+    void seal() {
+        int end = (int) tail();
+        if (end < capacity) {
+            markEnd(end);
+            tail.set(capacity);
+            buffer.force();
+        }
+    }
+
+    /**
+     * End of the contiguous run of published records starting at {@code from}; the capacity once
+     * the segment is complete.
+     */
+    int publishedEnd(int from) {
+        int offset = from;
+        while (capacity - offset >= HEADER) {
+            int length = (int) INT.getAcquire(buffer, offset);
+            if (length == 0) {
+                return offset;
+            }
+            if (length == END_OF_SEGMENT) {
+                return capacity;
+            }
+            offset += stride(length);
+        }
+        return capacity;
+    }
+
+    /**
+     * Forces everything published since the last call to disk and returns the new durable offset.
+     */
+    int force() {
+        int end = publishedEnd(forced);
+        if (end > forced) {
+            buffer.force(forced, end - forced);
+            forced = end;
+        }
+        return forced;
+    }
+
+    boolean isComplete() {
+        return forced == capacity;
+    }
+
+    long tail() {
+        return Math.min(tail.get(), capacity);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    static boolean checksumMatches(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + HEADER, length));
+        return (int) crc.getValue() == buffer.getInt(offset + 4);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,300 @@
+package com.bytebyteboot.payment.journal;
+
+import com.bytebyteboot.payment.config.JournalProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only binary journal of payment events in memory-mapped segment files.
+ * <p>
+ * {@link #append} is lock-free: it encodes the event, claims space with one atomic add on the
+ * current segment and copies the bytes into the mapping, so the calling thread never waits on disk.
+ * A single background thread forces published records to disk every {@code fsync-interval} (group
+ * commit), advances {@link #getDurablePosition()}, and maps the next segment ahead of time so a
+ * roll-over is a reference swap. Events appended within the last interval can be lost on a crash
+ * of the host, not of the process.
+ * <p>
+ * Append failures are counted and logged, never thrown: the database stays the source of truth
+ * and the journal must not fail a payment. {@link PaymentJournalReader} reads the files back.
+ */
+@Component
+public class PaymentJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJournal.class);
+
+    private static final int MAX_SPINS = 1_000;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long ROLL_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final JournalProperties journalProperties;
+    private final Path directory;
+    private final int segmentSize;
+    private final Object segmentLock = new Object();
+    private final ConcurrentLinkedQueue<JournalSegment> retired = new ConcurrentLinkedQueue<>();
+    private final Counter appendCounter;
+    private final Counter failureCounter;
+    private final Timer fsyncTimer;
+
+    private volatile JournalSegment current;
+    // Next segment, mapped ahead by the flusher; guarded by segmentLock
+    private JournalSegment prepared;
+    private volatile long durablePosition;
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public PaymentJournal(JournalProperties journalProperties, MeterRegistry meterRegistry) {
+        this.journalProperties = journalProperties;
+        this.directory = Paths.get(journalProperties.getDirectory());
+        this.segmentSize = (int) Math.min(journalProperties.getSegmentSize().toBytes(), 1L << 30);
+        this.appendCounter = Counter.builder("payment.journal.appends").register(meterRegistry);
+        this.failureCounter = Counter.builder("payment.journal.failures")
+                .description("Events that could not be appended to the journal")
+                .register(meterRegistry);
+        this.fsyncTimer = Timer.builder("payment.journal.fsync.duration").register(meterRegistry);
+        Gauge.builder("payment.journal.position", this, PaymentJournal::getPosition).register(meterRegistry);
+        Gauge.builder("payment.journal.durable.position", this, PaymentJournal::getDurablePosition)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!journalProperties.isEnabled()) {
+            logger.info("Payment journal disabled");
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = PaymentJournalReader.listSegments(directory);
+            if (segments.isEmpty()) {
+                current = JournalSegment.create(directory, 0, segmentSize, journalProperties.isPreTouch());
+            } else {
+                Path last = segments.get(segments.size() - 1);
+                current = JournalSegment.recover(last, PaymentJournalReader.baseOf(last));
+                if (current.tail() == 0 && segments.size() > 1) {
+                    // The last file was mapped ahead and never written; end its predecessor where it stopped
+                    Path previous = segments.get(segments.size() - 2);
+                    try (JournalSegment segment = JournalSegment.recover(previous, PaymentJournalReader.baseOf(previous))) {
+                        segment.seal();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open payment journal in " + directory, e);
+        }
+        durablePosition = current.base + current.tail();
+        long interval = journalProperties.getFsyncInterval().toNanos();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        logger.info("Payment journal open in {} at position {}", directory, durablePosition);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        closeQuietly(current);
+        synchronized (segmentLock) {
+            closeQuietly(prepared);
+            prepared = null;
+        }
+        retired.forEach(PaymentJournal::closeQuietly);
+        retired.clear();
+        current = null;
+    }
+
+    /**
+     * Appends the event and returns its position, or -1 if the journal is disabled or the append failed.
+     */
+    public long append(JournalEvent event) {
+        JournalSegment segment = current;
+        if (segment == null) {
+            return -1;
+        }
+        try {
+            byte[] payload = event.encode();
+            int stride = JournalSegment.stride(payload.length);
+            if (stride > segmentSize) {
+                throw new IllegalArgumentException("Event of " + payload.length + " bytes exceeds the segment size");
+            }
+            while (true) {
+                long offset = segment.reserve(stride);
+                if (offset + stride <= segment.capacity) {
+                    segment.write((int) offset, payload);
+                    appendCounter.increment();
+                    return segment.base + offset;
+                }
+                if (offset <= segment.capacity) {
+                    // Exactly one reservation starts at or straddles the end, including one at the
+                    // capacity after a record that filled the segment exactly
+                    segment.markEnd((int) offset);
+                    roll(segment);
+                } else {
+                    awaitRoll(segment);
+                }
+                segment = current;
+                if (segment == null) {
+                    return -1;
+                }
+            }
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            logger.warn("Could not journal {} for order {}: {}", event.type(), event.razorpayOrderId(), e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Appends once the surrounding transaction commits, or immediately outside one.
+     */
+    public void appendAfterCommit(JournalEvent event) {
+        if (current == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(event);
+            }
+        });
+    }
+
+    /**
+     * Waits for the writer that owns the end of {@code full} to swap in the next segment: spins
+     * briefly, then parks, and gives up after {@link #ROLL_TIMEOUT_NANOS}.
+     */
+    private void awaitRoll(JournalSegment full) {
+        long deadline = System.nanoTime() + ROLL_TIMEOUT_NANOS;
+        for (int spins = 0; current == full; spins++) {
+            if (spins < MAX_SPINS) {
+                Thread.onSpinWait();
+            } else if (System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(PARK_NANOS);
+            } else {
+                throw new IllegalStateException("Timed out waiting for journal segment " + full.path() + " to roll");
+            }
+        }
+    }
+
+    private void roll(JournalSegment full) {
+        synchronized (segmentLock) {
+            JournalSegment next = prepared;
+            prepared = null;
+            try {
+                if (next == null) {
+                    // The flusher had not mapped it yet; pay for the file creation on this thread once
+                    next = JournalSegment.create(directory, full.base + full.capacity, segmentSize, false);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Writers waiting on the full segment must not wait forever; stop journaling instead
+                logger.error("Cannot create journal segment, journaling stopped: {}", e.getMessage(), e);
+                current = null;
+                return;
+            }
+            retired.add(full);
+            current = next;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException | IOException e) {
+            logger.error("Journal flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void flush() throws IOException {
+        JournalSegment segment = current;
+        if (segment == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (JournalSegment old : retired) {
+            old.force();
+            if (old.isComplete()) {
+                retired.remove(old);
+                old.close();
+            }
+        }
+        int forced = segment.force();
+        if (retired.isEmpty()) {
+            durablePosition = segment.base + forced;
+        }
+        fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        synchronized (segmentLock) {
+            if (prepared == null && current == segment) {
+                prepared = JournalSegment.create(directory, segment.base + segment.capacity, segmentSize,
+                        journalProperties.isPreTouch());
+            }
+        }
+    }
+
+    /**
+     * Position the next append will get (approximately, under concurrency).
+     */
+    public long getPosition() {
+        JournalSegment segment = current;
+        return segment == null ? 0 : segment.base + segment.tail();
+    }
+
+    /**
+     * Every record before this position has been forced to disk.
+     */
+    public long getDurablePosition() {
+        return durablePosition;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static void closeQuietly(JournalSegment segment) {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("Could not close journal segment {}: {}", segment.path(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.bytebyteboot.payment.journal;
+
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Reads journal segments through read-only mappings, independently of the writer, so it works in
+ * the service itself or in an offline tool pointed at a copy of the directory.
+ * <p>
+ * {@link #read} stops at the first record that is not yet published and returns the position to
+ * continue from, which makes tailing a matter of calling it again later.
+ */
+public class PaymentJournalReader {
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    public PaymentJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    @FunctionalInterface
+    public interface EventHandler {
+        void accept(long position, JournalEvent event);
+    }
+
+    /**
+     * Hands up to {@code maxEvents} events at or after {@code from} to the handler and returns the
+     * position after the last one.
+     */
+    public synchronized long read(long from, int maxEvents, EventHandler handler) {
+        long position = from;
+        int count = 0;
+        while (count < maxEvents) {
+            Map.Entry<Long, MappedByteBuffer> segment = segmentFor(position);
+            if (segment == null) {
+                break;
+            }
+            long base = segment.getKey();
+            MappedByteBuffer buffer = segment.getValue();
+            if (position < base) {
+                position = base;
+            }
+            int offset = (int) (position - base);
+            int capacity = buffer.capacity();
+            if (capacity - offset < JournalSegment.HEADER) {
+                position = base + capacity;
+                continue;
+            }
+            int length = (int) INT.getAcquire(buffer, offset);
+            if (length == 0) {
+                break;
+            }
+            if (length == JournalSegment.END_OF_SEGMENT) {
+                position = base + capacity;
+                continue;
+            }
+            if (offset + JournalSegment.stride(length) > capacity || !JournalSegment.checksumMatches(buffer, offset, length)) {
+                throw new IllegalStateException("Corrupt journal record at position " + position);
+            }
+            handler.accept(position, JournalEvent.decode(
+                    buffer.slice(offset + JournalSegment.HEADER, length).order(ByteOrder.LITTLE_ENDIAN)));
+            count++;
+            position += JournalSegment.stride(length);
+        }
+        return position;
+    }
+
+    /**
+     * Reads everything published so far and returns the position to tail from.
+     */
+    public long replay(long from, EventHandler handler) {
+        return read(from, Integer.MAX_VALUE, handler);
+    }
+
+    /**
+     * Folds the journal into the last known state of every order it has seen created, for comparing
+     * with or restoring payment_orders.
+     */
+    public Map<String, OrderState> rebuildOrders() {
+        Map<String, OrderState> orders = new LinkedHashMap<>();
+        replay(0, (position, event) -> {
+            switch (event.type()) {
+                case ORDER_CREATED -> orders.put(event.razorpayOrderId(), new OrderState(event.razorpayOrderId(),
+                        PaymentStatus.CREATED, null, event.amount(), event.currency(),
+                        event.timestamp(), event.timestamp()));
+                case STATUS_CHANGED -> orders.computeIfPresent(event.razorpayOrderId(), (id, state) -> new OrderState(
+                        id, event.status(),
+                        event.razorpayPaymentId() != null ? event.razorpayPaymentId() : state.razorpayPaymentId(),
+                        state.amount(), state.currency(), state.createdAt(), event.timestamp()));
+                default -> { }
+            }
+        });
+        return orders;
+    }
+
+    // Newest segment starting at or before the position; re-lists the directory when the writer may have rolled
+    private Map.Entry<Long, MappedByteBuffer> segmentFor(long position) {
+        Map.Entry<Long, MappedByteBuffer> entry = segments.floorEntry(position);
+        if (entry != null && position < entry.getKey() + entry.getValue().capacity()) {
+            return entry;
+        }
+        for (Path path : listSegments(directory)) {
+            long base = baseOf(path);
+            if (!segments.containsKey(base)) {
+                MappedByteBuffer buffer = map(path);
+                // A file the writer has just created may not have been sized yet
+                if (buffer.capacity() > 0) {
+                    segments.put(base, buffer);
+                }
+            }
+        }
+        entry = segments.floorEntry(position);
+        if (entry == null) {
+            // Positions before the oldest segment start at it
+            return segments.ceilingEntry(position);
+        }
+        return position < entry.getKey() + entry.getValue().capacity() ? entry : null;
+    }
+
+    private static MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map journal segment " + path, e);
+        }
+    }
+
+    static List<Path> listSegments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list journal segments in " + directory, e);
+        }
+    }
+
+    static long baseOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    public record OrderState(
+            String razorpayOrderId,
+            PaymentStatus status,
+            String razorpayPaymentId,
+            BigDecimal amount,
+            String currency,
+            Instant createdAt,
+            Instant updatedAt
+    ) {}
+}
@@ -0,0 +1,90 @@
+package com.bytebyteboot.payment.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A terminal order moved out of {@code payment_orders} by the archiver. Rows are only ever written
+ * by the archiver's INSERT ... SELECT, so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "payment_orders_archive", indexes = {
+        @Index(name = "idx_payment_orders_archive_order_id", columnList = "razorpay_order_id"),
+        @Index(name = "idx_payment_orders_archive_email_created_at", columnList = "customer_email, created_at")
+})
+public class ArchivedPaymentOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "razorpay_order_id")
+    private String razorpayOrderId;
+
+    @Column(name = "razorpay_payment_id")
+    private String razorpayPaymentId;
+
+    @Column(name = "razorpay_signature")
+    private String razorpaySignature;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(name = "amount_minor", nullable = false)
+    private Long amountMinor;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(nullable = false)
+    private String receipt;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private PaymentOrder.PaymentStatus status;
+
+    @Column(name = "customer_email")
+    private String customerEmail;
+
+    @Column(name = "customer_phone")
+    private String customerPhone;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters
+    public Long getId() { return id; }
+    public String getRazorpayOrderId() { return razorpayOrderId; }
+    public String getRazorpayPaymentId() { return razorpayPaymentId; }
+    public String getRazorpaySignature() { return razorpaySignature; }
+    public BigDecimal getAmount() { return Money.toDecimal(amountMinor, currency); }
+    public long getAmountMinor() { return amountMinor; }
+    public String getCurrency() { return currency; }
+    public String getReceipt() { return receipt; }
+    public PaymentOrder.PaymentStatus getStatus() { return status; }
+    public String getCustomerEmail() { return customerEmail; }
+    public String getCustomerPhone() { return customerPhone; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public String getNotes() { return notes; }
+    public Long getVersion() { return version; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -0,0 +1,104 @@
+package com.bytebyteboot.payment.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An amount held as a count of the currency's minor units (paise for INR, yen for JPY, fils for KWD).
+ * <p>
+ * The exponent of each currency comes from ISO 4217, so amounts are never assumed to have two
+ * decimal places. Arithmetic is exact {@code long} arithmetic that throws on overflow; the static
+ * helpers work on bare {@code long}s for code that aggregates many amounts and should not allocate
+ * per value. {@link BigDecimal} appears only at the edges: {@link #of} converts an incoming decimal
+ * exactly, failing rather than rounding, and {@link #toDecimal()} gives it back at the currency's scale.
+ */
+public record Money(long minorUnits, String currency) {
+
+    private static final Map<String, Integer> EXPONENTS = new HashMap<>();
+
+    // What every amount was assumed to have before exponents were looked up per currency
+    private static final int DEFAULT_EXPONENT = 2;
+
+    static {
+        for (Currency iso : Currency.getAvailableCurrencies()) {
+            // Funds and precious metals report -1; they are not payable currencies
+            if (iso.getDefaultFractionDigits() >= 0) {
+                EXPONENTS.put(iso.getCurrencyCode(), iso.getDefaultFractionDigits());
+            }
+        }
+    }
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    /**
+     * Converts a decimal amount exactly. Throws {@link ArithmeticException} when the amount has more
+     * decimal places than the currency allows or does not fit in a {@code long} of minor units.
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinorUnits(amount, currency), currency);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Number of decimal places of the currency, e.g. 2 for INR, 0 for JPY, 3 for KWD. Codes that are
+     * not ISO 4217 currencies, which only orders created before requests were checked with
+     * {@link #isSupported} can carry, get two.
+     */
+    public static int exponentOf(String currency) {
+        return EXPONENTS.getOrDefault(currency, DEFAULT_EXPONENT);
+    }
+
+    public static boolean isSupported(String currency) {
+        return currency != null && EXPONENTS.containsKey(currency);
+    }
+
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+        // setScale returns the amount itself when it already has the currency's scale
+        return amount.setScale(exponentOf(currency), RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits, String currency) {
+        return BigDecimal.valueOf(minorUnits, exponentOf(currency));
+    }
+
+    public static long add(long minorUnits, long otherMinorUnits) {
+        return Math.addExact(minorUnits, otherMinorUnits);
+    }
+
+    public int exponent() {
+        return exponentOf(currency);
+    }
+
+    public BigDecimal toDecimal() {
+        return toDecimal(minorUnits, currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(add(minorUnits, other.minorUnits), currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return currency + " " + toDecimal().toPlainString();
+    }
+}
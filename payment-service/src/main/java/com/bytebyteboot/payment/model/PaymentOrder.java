@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,15 +15,22 @@ import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "payment_orders")
+@Table(name = "payment_orders", indexes = {
+        @Index(name = "idx_payment_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_payment_orders_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_payment_orders_email_created_at", columnList = "customer_email, created_at"),
+        @Index(name = "idx_payment_orders_payment_id", columnList = "razorpay_payment_id")
+})
 public class PaymentOrder {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_orders_seq")
+    @SequenceGenerator(name = "payment_orders_seq", sequenceName = "payment_orders_seq", allocationSize = 50)
     private Long id;
 
-    @NotBlank(message = "Razorpay order ID is required")
-    @Column(name = "razorpay_order_id", unique = true, nullable = false)
+    // Null while the order is PENDING, i.e. before Razorpay has assigned an ID
+    @Column(name = "razorpay_order_id", unique = true)
     private String razorpayOrderId;
 
     @Column(name = "razorpay_payment_id")
@@ -30,11 +39,16 @@ public class PaymentOrder {
     @Column(name = "razorpay_signature")
     private String razorpaySignature;
 
+    // Decimal copy of amountMinor at the currency's scale, kept for reporting queries
     @NotNull(message = "Amount is required")
     @Positive(message = "Amount must be positive")
-    @Column(nullable = false, precision = 19, scale = 2)
+    @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal amount;
 
+    // The amount in minor units of the currency (see Money); the authoritative value
+    @Column(name = "amount_minor", nullable = false)
+    private Long amountMinor;
+
     @NotBlank(message = "Currency is required")
     @Column(nullable = false)
     private String currency;
@@ -44,7 +58,8 @@ public class PaymentOrder {
     private String receipt;
 
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
     private PaymentStatus status = PaymentStatus.CREATED;
 
     @Column(name = "customer_email")
@@ -62,8 +77,13 @@ public class PaymentOrder {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Bumped by every status write, including the bulk CAS updates in PaymentOrderStateMachine
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public enum PaymentStatus {
-        CREATED, ATTEMPTED, PAID, FAILED, CANCELLED
+        PENDING, CREATED, ATTEMPTED, PAID, FAILED, CANCELLED, REFUNDED, EXPIRED
     }
 
     @PrePersist
@@ -79,17 +99,23 @@ public class PaymentOrder {
     // Constructors
     public PaymentOrder() {}
 
-    public PaymentOrder(String razorpayOrderId, BigDecimal amount, String currency, String receipt) {
+    public PaymentOrder(String razorpayOrderId, Money amount, String receipt) {
         this.razorpayOrderId = razorpayOrderId;
-        this.amount = amount;
-        this.currency = currency;
+        setMoney(amount);
         this.receipt = receipt;
     }
 
+    public PaymentOrder(String razorpayOrderId, BigDecimal amount, String currency, String receipt) {
+        this(razorpayOrderId, Money.of(amount, currency), receipt);
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getRazorpayOrderId() { return razorpayOrderId; }
     public void setRazorpayOrderId(String razorpayOrderId) { this.razorpayOrderId = razorpayOrderId; }
 
@@ -99,11 +125,16 @@ public class PaymentOrder {
     public String getRazorpaySignature() { return razorpaySignature; }
     public void setRazorpaySignature(String razorpaySignature) { this.razorpaySignature = razorpaySignature; }
 
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
-
+    public BigDecimal getAmount() { return Money.toDecimal(amountMinor, currency); }
+    public long getAmountMinor() { return amountMinor; }
     public String getCurrency() { return currency; }
-    public void setCurrency(String currency) { this.currency = currency; }
+
+    public Money getMoney() { return Money.ofMinor(amountMinor, currency); }
+    public void setMoney(Money money) {
+        this.amountMinor = money.minorUnits();
+        this.currency = money.currency();
+        this.amount = money.toDecimal();
+    }
 
     public String getReceipt() { return receipt; }
     public void setReceipt(String receipt) { this.receipt = receipt; }
@@ -0,0 +1,69 @@
+package com.bytebyteboot.payment.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A pending or published status-change event. Rows are written and read through
+ * {@link com.bytebyteboot.payment.repository.PaymentOutboxRepository}; the entity describes the table.
+ */
+@Entity
+@Table(name = "payment_outbox", indexes = {
+        @Index(name = "idx_payment_outbox_pending", columnList = "partition_key, published_at, id"),
+        @Index(name = "idx_payment_outbox_published_at", columnList = "published_at")
+})
+public class PaymentOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "partition_key", nullable = false)
+    private int partitionKey;
+
+    @Column(name = "razorpay_order_id", nullable = false)
+    private String razorpayOrderId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private PaymentOrder.PaymentStatus status;
+
+    @Column(name = "razorpay_payment_id")
+    private String razorpayPaymentId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    // Getters
+    public Long getId() { return id; }
+    public int getPartitionKey() { return partitionKey; }
+    public String getRazorpayOrderId() { return razorpayOrderId; }
+    public PaymentOrder.PaymentStatus getStatus() { return status; }
+    public String getRazorpayPaymentId() { return razorpayPaymentId; }
+    public BigDecimal getAmount() { return amount; }
+    public String getCurrency() { return currency; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public int getAttempts() { return attempts; }
+    public String getLastError() { return lastError; }
+}
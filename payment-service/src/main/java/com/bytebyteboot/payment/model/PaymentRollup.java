@@ -0,0 +1,70 @@
+package com.bytebyteboot.payment.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Number and total amount of orders that entered a status during one hour, per currency. Written
+ * only through {@link com.bytebyteboot.payment.repository.PaymentRollupRepository}'s additive upserts.
+ */
+@Entity
+@Table(name = "payment_rollups")
+@IdClass(PaymentRollup.Key.class)
+public class PaymentRollup {
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private PaymentOrder.PaymentStatus status;
+
+    @Id
+    @Column(nullable = false, length = 16)
+    private String currency;
+
+    @Column(name = "transition_count", nullable = false)
+    private long transitionCount;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Getters
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public PaymentOrder.PaymentStatus getStatus() { return status; }
+    public String getCurrency() { return currency; }
+    public long getTransitionCount() { return transitionCount; }
+    public long getAmountMinor() { return amountMinor; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public static class Key implements Serializable {
+
+        private LocalDateTime bucketStart;
+        private PaymentOrder.PaymentStatus status;
+        private String currency;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(bucketStart, key.bucketStart) && status == key.status
+                    && Objects.equals(currency, key.currency);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketStart, status, currency);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.bytebyteboot.payment.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resume position and lease of a reconciliation scan. The position is the (created_at, id) keyset
+ * of the last order handled; both are null when the next run should start a fresh pass.
+ */
+@Entity
+@Table(name = "reconciliation_checkpoints")
+public class ReconciliationCheckpoint implements Persistable<String> {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "last_created_at")
+    private LocalDateTime lastCreatedAt;
+
+    @Column(name = "last_id")
+    private Long lastId;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Transient
+    private boolean isNew = false;
+
+    // Constructors
+    public ReconciliationCheckpoint() {}
+
+    public ReconciliationCheckpoint(String name, LocalDateTime leaseUntil, LocalDateTime updatedAt) {
+        this.name = name;
+        this.leaseUntil = leaseUntil;
+        this.updatedAt = updatedAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public String getId() { return name; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public LocalDateTime getLastCreatedAt() { return lastCreatedAt; }
+    public void setLastCreatedAt(LocalDateTime lastCreatedAt) { this.lastCreatedAt = lastCreatedAt; }
+
+    public Long getLastId() { return lastId; }
+    public void setLastId(Long lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,111 @@
+package com.bytebyteboot.payment.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "webhook_deliveries", indexes = {
+        @Index(name = "idx_webhook_deliveries_status", columnList = "status, id")
+})
+public class WebhookDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload;
+
+    // x-razorpay-event-id, which the worker keys deduplication on
+    @Column(name = "event_id", length = 128)
+    private String eventId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private DeliveryStatus status = DeliveryStatus.PENDING;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "error", length = 512)
+    private String error;
+
+    // Instance whose queue holds the delivery; another instance may claim it once claimed_until passes
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    public enum DeliveryStatus {
+        PENDING, PROCESSED, FAILED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        receivedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public WebhookDelivery() {}
+
+    public WebhookDelivery(String payload) {
+        this.payload = payload;
+    }
+
+    public WebhookDelivery(String payload, String eventId) {
+        this.payload = payload;
+        this.eventId = eventId;
+    }
+
+    public void claim(String claimedBy, LocalDateTime claimedUntil) {
+        this.claimedBy = claimedBy;
+        this.claimedUntil = claimedUntil;
+    }
+
+    public void markProcessed() {
+        this.status = DeliveryStatus.PROCESSED;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    public void markFailed(String error) {
+        this.status = DeliveryStatus.FAILED;
+        this.processedAt = LocalDateTime.now();
+        this.error = error != null && error.length() > 512 ? error.substring(0, 512) : error;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    public DeliveryStatus getStatus() { return status; }
+    public void setStatus(DeliveryStatus status) { this.status = status; }
+
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+}
@@ -0,0 +1,54 @@
+package com.bytebyteboot.payment.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A webhook event that has been applied, keyed by a 128-bit fingerprint. Rows are written and read
+ * through {@link com.bytebyteboot.payment.repository.WebhookEventKeyRepository}; the entity
+ * describes the table.
+ */
+@Entity
+@Table(name = "webhook_event_keys", indexes = {
+        @Index(name = "idx_webhook_event_keys_received_at", columnList = "received_at")
+})
+@IdClass(WebhookEventKey.Key.class)
+public class WebhookEventKey {
+
+    @Id
+    @Column(name = "key_high", nullable = false)
+    private long keyHigh;
+
+    @Id
+    @Column(name = "key_low", nullable = false)
+    private long keyLow;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    // Getters
+    public long getKeyHigh() { return keyHigh; }
+    public long getKeyLow() { return keyLow; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+
+    public static class Key implements Serializable {
+
+        private long keyHigh;
+        private long keyLow;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return keyHigh == key.keyHigh && keyLow == key.keyLow;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(keyHigh, keyLow);
+        }
+    }
+}
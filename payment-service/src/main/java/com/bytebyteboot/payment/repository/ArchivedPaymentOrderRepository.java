@@ -0,0 +1,13 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.ArchivedPaymentOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ArchivedPaymentOrderRepository extends JpaRepository<ArchivedPaymentOrder, Long> {
+
+    Optional<ArchivedPaymentOrder> findFirstByRazorpayOrderId(String razorpayOrderId);
+}
@@ -0,0 +1,30 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.bytebyteboot.payment.model.IdempotencyRecord$RecordStatus.COMPLETED, " +
+            "r.responseStatus = ?2, r.responseBody = ?3, r.expiresAt = ?4 WHERE r.key = ?1")
+    int complete(String key, int responseStatus, String responseBody, LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = ?1 AND r.status = com.bytebyteboot.payment.model.IdempotencyRecord$RecordStatus.IN_PROGRESS")
+    int releaseInProgress(String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < ?1")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,99 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves terminal orders from {@code payment_orders} to the monthly-partitioned
+ * {@code payment_orders_archive}. Batches are addressed by primary key, so a move only locks the
+ * rows it moves.
+ */
+@Repository
+@Timed("payment.db.jdbc")
+public class PaymentOrderArchiveRepository {
+
+    private static final String COLUMNS = "id, razorpay_order_id, razorpay_payment_id, razorpay_signature, amount, " +
+            "amount_minor, currency, receipt, status, customer_email, customer_phone, created_at, updated_at, notes, version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PaymentOrderArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Oldest orders in the given status created before the cutoff, read from the
+     * (status, created_at) index without locking.
+     */
+    public List<Long> findArchivable(PaymentOrder.PaymentStatus status, LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM payment_orders WHERE status = ? AND created_at < ? " +
+                "ORDER BY created_at LIMIT ?", Long.class, status.name(), Timestamp.valueOf(createdBefore), limit);
+    }
+
+    public LocalDateTime oldestCreatedAt(PaymentOrder.PaymentStatus status, LocalDateTime createdBefore) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM payment_orders " +
+                "WHERE status = ? AND created_at < ?", Timestamp.class, status.name(), Timestamp.valueOf(createdBefore));
+        return oldest == null ? null : oldest.toLocalDateTime();
+    }
+
+    /**
+     * Locks the given rows that are still terminal and returns their IDs. Must run in the
+     * transaction that then copies and deletes them.
+     */
+    public List<Long> lockTerminal(List<Long> ids, Collection<PaymentOrder.PaymentStatus> terminal) {
+        List<Object> args = new ArrayList<>(ids);
+        terminal.forEach(status -> args.add(status.name()));
+        return jdbcTemplate.queryForList("SELECT id FROM payment_orders WHERE id IN (" + placeholders(ids.size()) +
+                ") AND status IN (" + placeholders(terminal.size()) + ") FOR UPDATE", Long.class, args.toArray());
+    }
+
+    public int copyToArchive(List<Long> ids, LocalDateTime archivedAt) {
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(archivedAt));
+        args.addAll(ids);
+        return jdbcTemplate.update("INSERT INTO payment_orders_archive (" + COLUMNS + ", archived_at) " +
+                "SELECT " + COLUMNS + ", ? FROM payment_orders WHERE id IN (" + placeholders(ids.size()) + ")",
+                args.toArray());
+    }
+
+    public int deleteFromHot(List<Long> ids) {
+        return jdbcTemplate.update("DELETE FROM payment_orders WHERE id IN (" + placeholders(ids.size()) + ")",
+                ids.toArray());
+    }
+
+    public List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT partition_name FROM information_schema.partitions " +
+                "WHERE table_schema = DATABASE() AND table_name = 'payment_orders_archive' " +
+                "AND partition_name IS NOT NULL", String.class);
+    }
+
+    /**
+     * Splits the month off the empty p_future tail partition; the new partition holds everything
+     * below the start of the following month that is not in an earlier partition.
+     */
+    public void addMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE payment_orders_archive REORGANIZE PARTITION p_future INTO (" +
+                "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), " +
+                "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
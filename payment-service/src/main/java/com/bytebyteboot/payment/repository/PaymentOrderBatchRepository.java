@@ -0,0 +1,73 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi-row status writes issued as JDBC batches.
+ */
+@Repository
+@Timed("payment.db.jdbc")
+public class PaymentOrderBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PaymentOrderBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int[] assignRazorpayOrderIds(List<Long> ids, List<String> razorpayOrderIds, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            args.add(new Object[]{razorpayOrderIds.get(i), timestamp, ids.get(i)});
+        }
+        return jdbcTemplate.batchUpdate("UPDATE payment_orders SET razorpay_order_id = ?, status = 'CREATED', " +
+                "updated_at = ?, version = version + 1 WHERE id = ? AND status = 'PENDING'", args);
+    }
+
+    public int[] markPendingFailed(List<Long> ids, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            args.add(new Object[]{timestamp, id});
+        }
+        return jdbcTemplate.batchUpdate("UPDATE payment_orders SET status = 'FAILED', updated_at = ?, " +
+                "version = version + 1 WHERE id = ? AND status = 'PENDING'", args);
+    }
+
+    /**
+     * Compare-and-set status corrections keyed by Razorpay order ID. A payment ID, when given,
+     * replaces the stored one; rows no longer in an expected status are left untouched.
+     */
+    public int[] applyTransitions(PaymentOrder.PaymentStatus status, Collection<PaymentOrder.PaymentStatus> expected,
+                                  List<String> razorpayOrderIds, List<String> razorpayPaymentIds,
+                                  LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        String placeholders = String.join(", ", Collections.nCopies(expected.size(), "?"));
+        List<Object[]> args = new ArrayList<>(razorpayOrderIds.size());
+        for (int i = 0; i < razorpayOrderIds.size(); i++) {
+            List<Object> row = new ArrayList<>(4 + expected.size());
+            row.add(status.name());
+            row.add(razorpayPaymentIds.get(i));
+            row.add(timestamp);
+            row.add(razorpayOrderIds.get(i));
+            expected.forEach(s -> row.add(s.name()));
+            args.add(row.toArray());
+        }
+        return jdbcTemplate.batchUpdate("UPDATE payment_orders SET status = ?, " +
+                "razorpay_payment_id = COALESCE(?, razorpay_payment_id), updated_at = ?, version = version + 1 " +
+                "WHERE razorpay_order_id = ? AND status IN (" + placeholders + ")", args);
+    }
+}
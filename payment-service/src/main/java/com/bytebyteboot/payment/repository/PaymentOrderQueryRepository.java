@@ -0,0 +1,183 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.dto.PaymentOrderCursor;
+import com.bytebyteboot.payment.dto.PaymentOrderFilter;
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.model.Money;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read paths over payment_orders that bypass the persistence context: rows are mapped straight
+ * to {@link PaymentOrderResponse}, so large reads neither hydrate nor dirty-check entities.
+ */
+@Repository
+@Timed("payment.db.jdbc")
+public class PaymentOrderQueryRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT id, razorpay_order_id, razorpay_payment_id, amount_minor, currency, " +
+            "receipt, status, customer_email, customer_phone, created_at, notes FROM payment_orders";
+
+    private static final RowMapper<PaymentOrderResponse> ROW_MAPPER = PaymentOrderQueryRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PaymentOrderQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Newest-first keyset page. Fetches one row past the limit so the caller can tell whether
+     * another page exists.
+     */
+    public List<PaymentOrderResponse> findPage(PaymentOrderFilter filter, PaymentOrderCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+        List<Object> args = new ArrayList<>();
+        appendFilter(sql, args, filter);
+
+        if (after != null) {
+            sql.append(args.isEmpty() ? " WHERE" : " AND")
+                    .append(" (created_at < ? OR (created_at = ? AND id < ?))");
+            args.add(after.createdAt());
+            args.add(after.createdAt());
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit + 1);
+
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Streams every matching row in id order through a forward-only, read-only cursor. Memory use
+     * is bounded by the fetch size, not by the number of rows.
+     */
+    public void stream(PaymentOrderFilter filter, int fetchSize, Consumer<PaymentOrderResponse> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+        List<Object> args = new ArrayList<>();
+        appendFilter(sql, args, filter);
+        sql.append(" ORDER BY id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs, 0)));
+    }
+
+    /**
+     * Oldest-first keyset chunk of orders in one status, created in {@code [from, to)}. Scanning a
+     * single status keeps the range on idx_payment_orders_status_created_at (InnoDB appends the id).
+     */
+    public List<OrderRef> findByStatusAfter(PaymentOrder.PaymentStatus status, LocalDateTime from, LocalDateTime to,
+                                            PaymentOrderCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, razorpay_order_id, created_at FROM payment_orders " +
+                "WHERE status = ? AND created_at >= ? AND created_at < ?");
+        List<Object> args = new ArrayList<>(List.of(status.name(), from, to));
+        if (after != null) {
+            sql.append(" AND (created_at > ? OR (created_at = ? AND id > ?))");
+            args.add(after.createdAt());
+            args.add(after.createdAt());
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY created_at, id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new OrderRef(
+                rs.getLong("id"),
+                rs.getString("razorpay_order_id"),
+                rs.getObject("created_at", LocalDateTime.class)), args.toArray());
+    }
+
+    /**
+     * Streams every order in one status created in {@code [createdFrom, createdBefore)}, either bound
+     * open when null, oldest first off idx_payment_orders_status_created_at through a forward-only cursor.
+     */
+    public void streamByStatus(PaymentOrder.PaymentStatus status, LocalDateTime createdFrom, LocalDateTime createdBefore,
+                               int fetchSize, Consumer<OrderRef> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT id, razorpay_order_id, created_at FROM payment_orders WHERE status = ?");
+        List<Object> args = new ArrayList<>(List.of(status.name()));
+        if (createdFrom != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(createdFrom);
+        }
+        if (createdBefore != null) {
+            sql.append(" AND created_at < ?");
+            args.add(createdBefore);
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new OrderRef(
+                rs.getLong("id"),
+                rs.getString("razorpay_order_id"),
+                rs.getObject("created_at", LocalDateTime.class))));
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> args, PaymentOrderFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.status() != null) {
+            conditions.add("status = ?");
+            args.add(filter.status().name());
+        }
+        if (filter.customerEmail() != null) {
+            conditions.add("customer_email = ?");
+            args.add(filter.customerEmail());
+        }
+        if (filter.createdFrom() != null) {
+            conditions.add("created_at >= ?");
+            args.add(filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            conditions.add("created_at < ?");
+            args.add(filter.createdTo());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static PaymentOrderResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new PaymentOrderResponse(
+                rs.getLong("id"),
+                rs.getString("razorpay_order_id"),
+                rs.getString("razorpay_payment_id"),
+                Money.toDecimal(rs.getLong("amount_minor"), rs.getString("currency")),
+                rs.getString("currency"),
+                rs.getString("receipt"),
+                PaymentOrder.PaymentStatus.valueOf(rs.getString("status")),
+                rs.getString("customer_email"),
+                rs.getString("customer_phone"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getString("notes")
+        );
+    }
+
+    public record OrderRef(Long id, String razorpayOrderId, LocalDateTime createdAt) {
+    }
+}
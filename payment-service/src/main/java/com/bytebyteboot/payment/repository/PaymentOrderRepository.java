@@ -1,9 +1,13 @@
 package com.bytebyteboot.payment.repository;
 
 import com.bytebyteboot.payment.model.PaymentOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import java.time.LocalDateTime;
@@ -13,14 +17,48 @@ public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, Long
 
     Optional<PaymentOrder> findByRazorpayOrderId(String razorpayOrderId);
 
+    List<PaymentOrder> findByRazorpayOrderIdIn(Collection<String> razorpayOrderIds);
+
     Optional<PaymentOrder> findByRazorpayPaymentId(String razorpayPaymentId);
 
-    List<PaymentOrder> findByStatus(PaymentOrder.PaymentStatus status);
+    // Read paths: projections ordered along idx_payment_orders_status_created_at / _email_created_at
+    Optional<PaymentOrderSummary> findSummaryByRazorpayPaymentId(String razorpayPaymentId);
+
+    Slice<PaymentOrderSummary> findByStatusOrderByCreatedAtDesc(PaymentOrder.PaymentStatus status, Pageable pageable);
 
-    List<PaymentOrder> findByCustomerEmail(String customerEmail);
+    Slice<PaymentOrderSummary> findByCustomerEmailOrderByCreatedAtDesc(String customerEmail, Pageable pageable);
 
-    @Query("SELECT p FROM PaymentOrder p WHERE p.createdAt BETWEEN ?1 AND ?2")
-    List<PaymentOrder> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    Slice<PaymentOrderSummary> findByCreatedAtBetweenOrderByCreatedAtAscIdAsc(LocalDateTime start, LocalDateTime end,
+                                                                             Pageable pageable);
 
     boolean existsByRazorpayOrderId(String razorpayOrderId);
-}
\ No newline at end of file
+
+    @Query("SELECT p.status FROM PaymentOrder p WHERE p.razorpayOrderId = ?1")
+    Optional<PaymentOrder.PaymentStatus> findStatusByRazorpayOrderId(String razorpayOrderId);
+
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.razorpayOrderId = ?2, p.status = ?3, p.updatedAt = ?4, " +
+            "p.version = p.version + 1 WHERE p.id = ?1 AND p.status = ?5")
+    int assignRazorpayOrderId(Long id, String razorpayOrderId, PaymentOrder.PaymentStatus status,
+                              LocalDateTime updatedAt, PaymentOrder.PaymentStatus expectedStatus);
+
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.status = ?2, p.updatedAt = ?3, p.version = p.version + 1 " +
+            "WHERE p.id = ?1 AND p.status = ?4")
+    int updateStatus(Long id, PaymentOrder.PaymentStatus status, LocalDateTime updatedAt,
+                     PaymentOrder.PaymentStatus expectedStatus);
+
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.status = ?2, p.updatedAt = ?3, p.version = p.version + 1 " +
+            "WHERE p.razorpayOrderId = ?1 AND p.status IN ?4")
+    int transitionStatus(String razorpayOrderId, PaymentOrder.PaymentStatus status, LocalDateTime updatedAt,
+                         Collection<PaymentOrder.PaymentStatus> expectedStatuses);
+
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.status = ?2, p.razorpayPaymentId = ?3, " +
+            "p.razorpaySignature = COALESCE(CAST(?4 AS String), p.razorpaySignature), p.updatedAt = ?5, p.version = p.version + 1 " +
+            "WHERE p.razorpayOrderId = ?1 AND p.status IN ?6")
+    int transitionWithPayment(String razorpayOrderId, PaymentOrder.PaymentStatus status, String razorpayPaymentId,
+                              String razorpaySignature, LocalDateTime updatedAt,
+                              Collection<PaymentOrder.PaymentStatus> expectedStatuses);
+}
@@ -0,0 +1,36 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.Money;
+import com.bytebyteboot.payment.model.PaymentOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Closed projection used by the list finders. Spring Data selects only these columns,
+ * so {@code notes} and the signature are never read and nothing enters the persistence context.
+ */
+public interface PaymentOrderSummary {
+
+    Long getId();
+
+    String getRazorpayOrderId();
+
+    String getRazorpayPaymentId();
+
+    Long getAmountMinor();
+
+    default BigDecimal getAmount() {
+        return Money.toDecimal(getAmountMinor(), getCurrency());
+    }
+
+    String getCurrency();
+
+    String getReceipt();
+
+    PaymentOrder.PaymentStatus getStatus();
+
+    String getCustomerEmail();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,99 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.dto.PaymentStatusEvent;
+import com.bytebyteboot.payment.model.Money;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+@Repository
+@Timed("payment.db.jdbc")
+public class PaymentOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PaymentOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes one event per order from the order rows as they stand, which the caller's status
+     * updates have locked. Returns the number of events written.
+     */
+    public int insertFromOrders(List<String> razorpayOrderIds, ToIntFunction<String> partitionOf,
+                                LocalDateTime occurredAt) {
+        Timestamp timestamp = Timestamp.valueOf(occurredAt);
+        List<Object[]> args = new ArrayList<>(razorpayOrderIds.size());
+        jdbcTemplate.query("SELECT razorpay_order_id, status, razorpay_payment_id, amount_minor, currency " +
+                        "FROM payment_orders WHERE razorpay_order_id IN (" + placeholders(razorpayOrderIds.size()) + ")",
+                (RowCallbackHandler) rs -> args.add(new Object[]{
+                        partitionOf.applyAsInt(rs.getString(1)), rs.getString(1), rs.getString(2), rs.getString(3),
+                        Money.toDecimal(rs.getLong(4), rs.getString(5)), rs.getString(5), timestamp}),
+                razorpayOrderIds.toArray());
+        if (args.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payment_outbox (partition_key, razorpay_order_id, status, " +
+                "razorpay_payment_id, amount, currency, occurred_at, attempts) VALUES (?, ?, ?, ?, ?, ?, ?, 0)", args);
+        return args.size();
+    }
+
+    /**
+     * Oldest unpublished events of one partition, in the order they were written.
+     */
+    public List<PaymentStatusEvent> findPending(int partitionKey, int limit) {
+        return jdbcTemplate.query("SELECT id, razorpay_order_id, status, razorpay_payment_id, amount, currency, " +
+                        "occurred_at FROM payment_outbox WHERE partition_key = ? AND published_at IS NULL " +
+                        "ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new PaymentStatusEvent(
+                        rs.getLong("id"),
+                        rs.getString("razorpay_order_id"),
+                        PaymentOrder.PaymentStatus.valueOf(rs.getString("status")),
+                        rs.getString("razorpay_payment_id"),
+                        rs.getBigDecimal("amount").setScale(Money.exponentOf(rs.getString("currency"))),
+                        rs.getString("currency"),
+                        rs.getTimestamp("occurred_at").toLocalDateTime()),
+                partitionKey, limit);
+    }
+
+    public int markPublished(List<Long> ids, LocalDateTime publishedAt) {
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(publishedAt));
+        args.addAll(ids);
+        return jdbcTemplate.update("UPDATE payment_outbox SET published_at = ? WHERE id IN (" + placeholders(ids.size()) +
+                ") AND published_at IS NULL", args.toArray());
+    }
+
+    public int recordFailure(long id, String error) {
+        return jdbcTemplate.update("UPDATE payment_outbox SET attempts = attempts + 1, last_error = ? WHERE id = ?",
+                error, id);
+    }
+
+    /**
+     * Deletes up to {@code limit} events published before the cutoff and returns how many went.
+     */
+    public int deletePublishedBefore(LocalDateTime cutoff, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM payment_outbox WHERE published_at < ? " +
+                "ORDER BY published_at LIMIT ?", Long.class, Timestamp.valueOf(cutoff), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM payment_outbox WHERE id IN (" + placeholders(ids.size()) + ")",
+                ids.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
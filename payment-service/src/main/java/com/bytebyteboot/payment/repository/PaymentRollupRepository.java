@@ -0,0 +1,119 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.dto.PaymentRollupRow;
+import com.bytebyteboot.payment.model.Money;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@Timed("payment.db.jdbc")
+public class PaymentRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PaymentRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the deltas to their buckets, creating buckets that do not exist yet.
+     */
+    public void addAll(List<Delta> deltas, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            args.add(new Object[]{Timestamp.valueOf(delta.bucketStart()), delta.status().name(), delta.currency(),
+                    delta.count(), delta.amountMinor(), timestamp});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payment_rollups " +
+                "(bucket_start, status, currency, transition_count, amount_minor, updated_at) VALUES (?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE transition_count = transition_count + VALUES(transition_count), " +
+                "amount_minor = amount_minor + VALUES(amount_minor), updated_at = VALUES(updated_at)", args);
+    }
+
+    public int deleteBefore(LocalDateTime bucketStart) {
+        return jdbcTemplate.update("DELETE FROM payment_rollups WHERE bucket_start < ?", Timestamp.valueOf(bucketStart));
+    }
+
+    /**
+     * Totals per bucket, status and currency in {@code [from, to)}; {@code daily} sums the hourly
+     * rows of each calendar day. Optional filters are skipped when null.
+     */
+    public List<PaymentRollupRow> find(LocalDateTime from, LocalDateTime to, boolean daily,
+                                       PaymentOrder.PaymentStatus status, String currency) {
+        String bucket = daily ? "CAST(CAST(bucket_start AS DATE) AS DATETIME)" : "bucket_start";
+        StringBuilder sql = new StringBuilder("SELECT " + bucket + " AS bucket, status, currency, " +
+                "SUM(transition_count) AS transition_count, SUM(amount_minor) AS amount_minor FROM payment_rollups " +
+                "WHERE bucket_start >= ? AND bucket_start < ?");
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        if (currency != null) {
+            sql.append(" AND currency = ?");
+            args.add(currency);
+        }
+        sql.append(" GROUP BY ").append(bucket).append(", status, currency ORDER BY bucket, status, currency");
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new PaymentRollupRow(
+                rs.getTimestamp("bucket").toLocalDateTime(),
+                PaymentOrder.PaymentStatus.valueOf(rs.getString("status")),
+                rs.getString("currency"),
+                rs.getLong("transition_count"),
+                Money.toDecimal(rs.getLong("amount_minor"), rs.getString("currency"))), args.toArray());
+    }
+
+    /**
+     * Currency and amount of each of the given orders, for transitions recorded without them.
+     */
+    public Map<String, OrderAmount> findAmounts(List<String> razorpayOrderIds) {
+        Map<String, OrderAmount> amounts = new HashMap<>();
+        if (razorpayOrderIds.isEmpty()) {
+            return amounts;
+        }
+        jdbcTemplate.query("SELECT razorpay_order_id, currency, amount_minor FROM payment_orders WHERE razorpay_order_id IN (" +
+                        String.join(", ", Collections.nCopies(razorpayOrderIds.size(), "?")) + ")",
+                (RowCallbackHandler) rs -> amounts.put(rs.getString(1),
+                        new OrderAmount(rs.getString(2), rs.getLong(3))),
+                razorpayOrderIds.toArray());
+        return amounts;
+    }
+
+    /**
+     * Streams every order (hot and archived) that has left PENDING: its Razorpay order ID, status,
+     * currency, amount_minor, created_at and updated_at, in no particular order.
+     */
+    public void streamHistory(int fetchSize, RowCallbackHandler handler) {
+        for (String table : List.of("payment_orders", "payment_orders_archive")) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT razorpay_order_id, status, " +
+                                "currency, amount_minor, created_at, updated_at FROM " + table + " WHERE status <> 'PENDING'",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, handler);
+        }
+    }
+
+    public record Delta(LocalDateTime bucketStart, PaymentOrder.PaymentStatus status, String currency,
+                        long count, long amountMinor) {
+    }
+
+    public record OrderAmount(String currency, long amountMinor) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.ReconciliationCheckpoint;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpoint, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReconciliationCheckpoint c SET c.leaseUntil = ?2, c.updatedAt = ?3 " +
+            "WHERE c.name = ?1 AND (c.leaseUntil IS NULL OR c.leaseUntil < ?3)")
+    int acquireLease(String name, LocalDateTime leaseUntil, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReconciliationCheckpoint c SET c.lastCreatedAt = ?2, c.lastId = ?3, c.leaseUntil = ?4, " +
+            "c.updatedAt = ?5 WHERE c.name = ?1")
+    int advance(String name, LocalDateTime lastCreatedAt, Long lastId, LocalDateTime leaseUntil, LocalDateTime now);
+
+    /**
+     * Takes the named lease if it is free or expired, creating the row on first use. Returns false
+     * when another instance holds it.
+     */
+    default boolean tryAcquireLease(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(lease);
+        if (acquireLease(name, leaseUntil, now) > 0) {
+            return true;
+        }
+        if (existsById(name)) {
+            return false;
+        }
+        try {
+            save(new ReconciliationCheckpoint(name, leaseUntil, now));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReconciliationCheckpoint c SET c.leaseUntil = NULL, c.updatedAt = ?2 WHERE c.name = ?1")
+    int releaseLease(String name, LocalDateTime now);
+}
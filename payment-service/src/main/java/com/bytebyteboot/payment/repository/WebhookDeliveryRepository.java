@@ -0,0 +1,37 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.WebhookDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    /**
+     * Oldest PENDING deliveries that no instance holds, locked for the caller's transaction. Rows
+     * another transaction is claiming right now are skipped rather than waited for.
+     */
+    @Query(value = "SELECT id FROM webhook_deliveries WHERE status = 'PENDING' " +
+            "AND (claimed_until IS NULL OR claimed_until < ?1) ORDER BY id LIMIT ?2 FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockClaimableIds(LocalDateTime now, int limit);
+
+    /**
+     * The PENDING deliveries among {@code ids} that {@code claimedBy} still holds a live lease on,
+     * locked for the caller's transaction so no other instance can claim them until it commits.
+     */
+    @Query(value = "SELECT id FROM webhook_deliveries WHERE id IN ?1 AND status = 'PENDING' " +
+            "AND claimed_by = ?2 AND claimed_until > ?3 ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockOwnedIds(Collection<Long> ids, String claimedBy, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.claimedBy = ?2, d.claimedUntil = ?3 WHERE d.id IN ?1")
+    int claim(Collection<Long> ids, String claimedBy, LocalDateTime claimedUntil);
+}
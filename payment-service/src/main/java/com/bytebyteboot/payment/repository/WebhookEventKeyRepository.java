@@ -0,0 +1,61 @@
+package com.bytebyteboot.payment.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Repository
+@Timed("payment.db.jdbc")
+public class WebhookEventKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public WebhookEventKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean exists(long keyHigh, long keyLow) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM webhook_event_keys WHERE key_high = ? AND key_low = ?",
+                Integer.class, keyHigh, keyLow).isEmpty();
+    }
+
+    /**
+     * Records the key; a key that is already present keeps its original time.
+     */
+    public void insert(long keyHigh, long keyLow, LocalDateTime receivedAt) {
+        jdbcTemplate.update("INSERT INTO webhook_event_keys (key_high, key_low, received_at) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE key_high = key_high", keyHigh, keyLow, Timestamp.valueOf(receivedAt));
+    }
+
+    /**
+     * Streams every key received at or after {@code since} through a forward-only cursor.
+     */
+    public void streamSince(LocalDateTime since, int fetchSize, KeyConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT key_high, key_low FROM webhook_event_keys WHERE received_at >= ?",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(since));
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong("key_high"), rs.getLong("key_low")));
+    }
+
+    public int deleteBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM webhook_event_keys WHERE received_at < ? LIMIT ?",
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    @FunctionalInterface
+    public interface KeyConsumer {
+        void accept(long keyHigh, long keyLow);
+    }
+}
@@ -0,0 +1,178 @@
+package com.bytebyteboot.payment.security;
+
+import com.bytebyteboot.payment.config.RazorpayProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * HMAC-SHA256 verification for Razorpay payment and webhook signatures.
+ * <p>
+ * Each thread keeps one initialized {@link Mac} per secret together with its scratch buffers,
+ * so a verification does not allocate on the common (ASCII) path. The expected hex signature
+ * is decoded on the fly and compared against the raw digest in constant time.
+ */
+@Component
+public class RazorpaySignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int DIGEST_LENGTH = 32;
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private final ThreadLocal<MacContext> paymentMac;
+    private final ThreadLocal<MacContext> webhookMac;
+
+    @Autowired
+    public RazorpaySignatureVerifier(RazorpayProperties razorpayProperties) {
+        this(razorpayProperties.getKeySecret(), razorpayProperties.getWebhookSecret());
+    }
+
+    public RazorpaySignatureVerifier(String keySecret, String webhookSecret) {
+        byte[] paymentKey = keySecret.getBytes(StandardCharsets.UTF_8);
+        byte[] webhookKey = webhookSecret.getBytes(StandardCharsets.UTF_8);
+        this.paymentMac = ThreadLocal.withInitial(() -> new MacContext(paymentKey));
+        this.webhookMac = ThreadLocal.withInitial(() -> new MacContext(webhookKey));
+    }
+
+    /**
+     * Verifies the checkout signature, i.e. HMAC(key_secret, order_id + "|" + payment_id).
+     */
+    public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
+        MacContext context = paymentMac.get();
+        try {
+            context.update(orderId);
+            context.mac.update((byte) '|');
+            context.update(paymentId);
+            return context.matches(signature);
+        } catch (RuntimeException e) {
+            context.mac.reset();
+            throw e;
+        }
+    }
+
+    public boolean verifyWebhookSignature(byte[] body, String signature) {
+        return verifyWebhookSignature(body, 0, body.length, signature);
+    }
+
+    public boolean verifyWebhookSignature(byte[] body, int offset, int length, String signature) {
+        MacContext context = webhookMac.get();
+        try {
+            context.mac.update(body, offset, length);
+            return context.matches(signature);
+        } catch (RuntimeException e) {
+            context.mac.reset();
+            throw e;
+        }
+    }
+
+    public boolean verifyWebhookSignature(String body, String signature) {
+        MacContext context = webhookMac.get();
+        try {
+            context.update(body);
+            return context.matches(signature);
+        } catch (RuntimeException e) {
+            context.mac.reset();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams the body through the MAC without buffering it, for large webhook payloads.
+     */
+    public boolean verifyWebhookSignature(InputStream body, String signature) throws IOException {
+        MacContext context = webhookMac.get();
+        try {
+            int read;
+            while ((read = body.read(context.buffer)) != -1) {
+                context.mac.update(context.buffer, 0, read);
+            }
+            return context.matches(signature);
+        } catch (IOException | RuntimeException e) {
+            context.mac.reset();
+            throw e;
+        }
+    }
+
+    private static final class MacContext {
+
+        private final Mac mac;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+
+        private MacContext(byte[] key) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(new SecretKeySpec(key, ALGORITHM));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        }
+
+        // Encodes ASCII directly into the scratch buffer; anything else falls back to String#getBytes
+        private void update(String value) {
+            int length = value.length();
+            int position = 0;
+            while (position < length) {
+                int chunk = Math.min(length - position, BUFFER_SIZE);
+                for (int i = 0; i < chunk; i++) {
+                    char c = value.charAt(position + i);
+                    if (c >= 0x80) {
+                        mac.update(buffer, 0, i);
+                        mac.update(value.substring(position + i).getBytes(StandardCharsets.UTF_8));
+                        return;
+                    }
+                    buffer[i] = (byte) c;
+                }
+                mac.update(buffer, 0, chunk);
+                position += chunk;
+            }
+        }
+
+        // Always finishes the MAC so the context is reset, then compares without early exit
+        private boolean matches(String signature) {
+            try {
+                mac.doFinal(digest, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+
+            if (signature == null || signature.length() != DIGEST_LENGTH * 2) {
+                return false;
+            }
+
+            int diff = 0;
+            int invalid = 0;
+            for (int i = 0; i < DIGEST_LENGTH; i++) {
+                int high = hexValue(signature.charAt(2 * i));
+                int low = hexValue(signature.charAt(2 * i + 1));
+                invalid |= high | low;
+                diff |= ((high << 4) | low) ^ (digest[i] & 0xff);
+            }
+            return diff == 0 && invalid >= 0;
+        }
+
+        private static int hexValue(char c) {
+            return c < 128 ? HEX_VALUES[c] : -1;
+        }
+    }
+}
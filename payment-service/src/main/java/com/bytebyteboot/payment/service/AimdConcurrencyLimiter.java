@@ -0,0 +1,96 @@
+package com.bytebyteboot.payment.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Additive-increase/multiplicative-decrease limit on concurrent calls. Each fast success while the
+ * limit is at least half used adds {@code 1 / limit} (roughly +1 per round trip of the whole window);
+ * a timeout, server error or slow call multiplies the limit by the backoff ratio.
+ * <p>
+ * Callers either fail fast with {@link #tryAcquire()} or wait for a slot with
+ * {@link #tryAcquire(long)}; every release wakes the waiters so they recheck the current limit.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(minLimit, initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Waits up to {@code timeoutNanos} for the number of calls in flight to drop below the limit.
+     */
+    public boolean tryAcquire(long timeoutNanos) throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        synchronized (this) {
+            while (!tryAcquire()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+
+    public void onSuccess() {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            notifyAll();
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Releases a slot without adjusting the limit, for calls that failed for reasons unrelated to load.
+     */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
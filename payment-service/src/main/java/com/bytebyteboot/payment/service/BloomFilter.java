@@ -0,0 +1,50 @@
+package com.bytebyteboot.payment.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over 128-bit keys that are already uniformly distributed, such as a prefix
+ * of a cryptographic hash. The two halves of the key drive double hashing directly, so a lookup
+ * is {@code k} word reads and nothing is hashed again.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter: insertions=" + expectedInsertions
+                    + ", false positive rate=" + falsePositiveRate);
+        }
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, ((long) Math.ceil(optimalBits) + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    void put(long high, long low) {
+        long hash = high;
+        for (int i = 0; i < hashCount; i++, hash += low) {
+            long bit = Math.floorMod(hash, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, m) -> current | m);
+            }
+        }
+    }
+
+    boolean mightContain(long high, long low) {
+        long hash = high;
+        for (int i = 0; i < hashCount; i++, hash += low) {
+            long bit = Math.floorMod(hash, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,204 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.BulkOrderProperties;
+import com.bytebyteboot.payment.dto.BulkOrderResponse;
+import com.bytebyteboot.payment.dto.PaymentOrderRequest;
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.exception.PaymentException;
+import com.bytebyteboot.payment.journal.JournalEvent;
+import com.bytebyteboot.payment.journal.PaymentJournal;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.repository.PaymentOrderBatchRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import com.razorpay.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many orders in one call. Follows the same three steps as
+ * {@link PaymentOrderService#createOrder}, but each step works on the whole batch: PENDING rows are
+ * inserted as JDBC batches, the Razorpay calls fan out on virtual threads under a concurrency limit,
+ * and the outcomes are written back with batched conditional updates. The calls go through the
+ * batch lane of {@link RazorpayGateway}, which queues them for its adaptive limit rather than shedding
+ * them, and leaves the interactive budget to single-order checkout.
+ */
+@Service
+public class BulkOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOrderService.class);
+
+    private final RazorpayGateway razorpayGateway;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentOrderBatchRepository paymentOrderBatchRepository;
+    private final BulkOrderProperties bulkOrderProperties;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final ReadYourWrites readYourWrites;
+    private final PaymentRollups paymentRollups;
+    private final PaymentJournal paymentJournal;
+    private final OrderExpiry orderExpiry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public BulkOrderService(RazorpayGateway razorpayGateway,
+                            PaymentOrderRepository paymentOrderRepository,
+                            PaymentOrderBatchRepository paymentOrderBatchRepository,
+                            BulkOrderProperties bulkOrderProperties,
+                            Validator validator,
+                            EntityManager entityManager,
+                            ReadYourWrites readYourWrites,
+                            PaymentRollups paymentRollups,
+                            PaymentJournal paymentJournal,
+                            OrderExpiry orderExpiry,
+                            PlatformTransactionManager transactionManager) {
+        this.razorpayGateway = razorpayGateway;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.paymentOrderBatchRepository = paymentOrderBatchRepository;
+        this.bulkOrderProperties = bulkOrderProperties;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.readYourWrites = readYourWrites;
+        this.paymentRollups = paymentRollups;
+        this.paymentJournal = paymentJournal;
+        this.orderExpiry = orderExpiry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkOrderResponse createOrders(List<PaymentOrderRequest> requests) {
+        if (requests.size() > bulkOrderProperties.getMaxOrders()) {
+            throw new PaymentException("A bulk request may contain at most " + bulkOrderProperties.getMaxOrders() + " orders");
+        }
+        logger.info("Creating {} orders in bulk", requests.size());
+
+        BulkOrderResponse.ItemResult[] results = new BulkOrderResponse.ItemResult[requests.size()];
+
+        // Invalid items are reported individually instead of rejecting the whole request
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i) == null) {
+                results[i] = BulkOrderResponse.ItemResult.failure(i, null, "Order is required");
+                continue;
+            }
+            Set<ConstraintViolation<PaymentOrderRequest>> violations = validator.validate(requests.get(i));
+            if (violations.isEmpty()) {
+                validIndexes.add(i);
+            } else {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .collect(Collectors.joining(", "));
+                results[i] = BulkOrderResponse.ItemResult.failure(i, requests.get(i).receipt(), message);
+            }
+        }
+
+        List<PaymentOrder> pendingOrders = insertPendingOrders(validIndexes.stream().map(requests::get).toList());
+
+        String[] razorpayOrderIds = new String[pendingOrders.size()];
+        String[] errors = new String[pendingOrders.size()];
+        createRazorpayOrders(validIndexes.stream().map(requests::get).toList(), razorpayOrderIds, errors);
+
+        List<Long> createdIds = new ArrayList<>();
+        List<String> createdRazorpayIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        List<PaymentOrder> createdOrders = new ArrayList<>();
+        List<PaymentOrder> failedOrders = new ArrayList<>();
+        LocalDateTime updatedAt = LocalDateTime.now();
+
+        for (int j = 0; j < pendingOrders.size(); j++) {
+            PaymentOrder paymentOrder = pendingOrders.get(j);
+            int index = validIndexes.get(j);
+            if (razorpayOrderIds[j] != null) {
+                createdIds.add(paymentOrder.getId());
+                createdRazorpayIds.add(razorpayOrderIds[j]);
+                paymentOrder.setRazorpayOrderId(razorpayOrderIds[j]);
+                paymentOrder.setStatus(PaymentOrder.PaymentStatus.CREATED);
+                paymentOrder.setUpdatedAt(updatedAt);
+                createdOrders.add(paymentOrder);
+                results[index] = BulkOrderResponse.ItemResult.success(index, PaymentOrderResponse.from(paymentOrder));
+            } else {
+                failedIds.add(paymentOrder.getId());
+                failedOrders.add(paymentOrder);
+                results[index] = BulkOrderResponse.ItemResult.failure(index, paymentOrder.getReceipt(), errors[j]);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!createdIds.isEmpty()) {
+                paymentOrderBatchRepository.assignRazorpayOrderIds(createdIds, createdRazorpayIds, updatedAt);
+                createdRazorpayIds.forEach(readYourWrites::recordOrderWrite);
+                for (PaymentOrder order : createdOrders) {
+                    paymentRollups.record(PaymentOrder.PaymentStatus.CREATED, order.getMoney());
+                    paymentJournal.appendAfterCommit(JournalEvent.orderCreated(
+                            order.getRazorpayOrderId(), order.getAmount(), order.getCurrency()));
+                    orderExpiry.schedule(order.getRazorpayOrderId(), order.getCreatedAt());
+                }
+            }
+            if (!failedIds.isEmpty()) {
+                paymentOrderBatchRepository.markPendingFailed(failedIds, updatedAt);
+                failedOrders.forEach(order -> paymentRollups.record(PaymentOrder.PaymentStatus.FAILED, order.getMoney()));
+            }
+        });
+
+        int failed = requests.size() - createdIds.size();
+        logger.info("Bulk order creation finished: {} created, {} failed", createdIds.size(), failed);
+        return new BulkOrderResponse(requests.size(), createdIds.size(), failed, Arrays.asList(results));
+    }
+
+    private List<PaymentOrder> insertPendingOrders(List<PaymentOrderRequest> requests) {
+        int batchSize = bulkOrderProperties.getBatchSize();
+        return transactionTemplate.execute(status -> {
+            List<PaymentOrder> saved = new ArrayList<>(requests.size());
+            for (int from = 0; from < requests.size(); from += batchSize) {
+                List<PaymentOrder> chunk = requests.subList(from, Math.min(from + batchSize, requests.size()))
+                        .stream()
+                        .map(PaymentOrderService::newPendingOrder)
+                        .toList();
+                saved.addAll(paymentOrderRepository.saveAll(chunk));
+                // Send the batch and keep the persistence context from growing with the request
+                entityManager.flush();
+                entityManager.clear();
+            }
+            return saved;
+        });
+    }
+
+    private void createRazorpayOrders(List<PaymentOrderRequest> requests, String[] razorpayOrderIds, String[] errors) {
+        Semaphore permits = new Semaphore(bulkOrderProperties.getMaxConcurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests.size(); i++) {
+                int index = i;
+                executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        Order order = razorpayGateway.createOrder(
+                                PaymentOrderService.buildRazorpayOrderRequest(requests.get(index)),
+                                RazorpayGateway.Lane.BATCH);
+                        razorpayOrderIds[index] = order.get("id");
+                    } catch (Exception e) {
+                        logger.warn("Razorpay order creation failed for receipt {}: {}",
+                                requests.get(index).receipt(), e.getMessage());
+                        errors[index] = "Failed to create payment order: " + e.getMessage();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.IdempotencyProperties;
+import com.bytebyteboot.payment.exception.IdempotencyException;
+import com.bytebyteboot.payment.model.IdempotencyRecord;
+import com.bytebyteboot.payment.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key and replays the stored response to retries.
+ * <p>
+ * Duplicates on the same node wait on the in-flight {@link CompletableFuture}. Completed responses
+ * are kept in a TTL-bounded memory tier and in the idempotency_records table; the table also acts
+ * as the cross-node claim, since only one node can insert the IN_PROGRESS row for a key.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              IdempotencyProperties idempotencyProperties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getMemoryMaximumSize())
+                .expireAfterWrite(idempotencyProperties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "payment.idempotency");
+    }
+
+    public <T> ResponseEntity<T> execute(String scope, String idempotencyKey, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = scope + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        StoredResponse stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return replay(awaitLocal(existing), requestHash, responseType);
+        }
+
+        try {
+            Optional<StoredResponse> previous = claimOrAwaitRemote(key, requestHash);
+            if (previous.isPresent()) {
+                completed.put(key, previous.get());
+                mine.complete(previous.get());
+                return replay(previous.get(), requestHash, responseType);
+            }
+
+            ResponseEntity<T> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                idempotencyRecordRepository.releaseInProgress(key);
+                throw e;
+            }
+
+            StoredResponse result = new StoredResponse(response.getStatusCode().value(), toJson(response.getBody()), requestHash);
+            idempotencyRecordRepository.complete(key, result.status(), result.body(),
+                    LocalDateTime.now().plus(idempotencyProperties.getTtl()));
+            completed.put(key, result);
+            mine.complete(result);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.idempotency.cleanup-interval:PT10M}")
+    public void deleteExpiredRecords() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired idempotency records", deleted);
+        }
+    }
+
+    /**
+     * Claims the key in the database, or returns the response another node stored for it. Waits
+     * while another node holds a live claim.
+     */
+    private Optional<StoredResponse> claimOrAwaitRemote(String key, String requestHash) {
+        long deadline = System.nanoTime() + idempotencyProperties.getInFlightWait().toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(key);
+
+            if (record.isEmpty()) {
+                try {
+                    idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(
+                            key, requestHash, now, now.plus(idempotencyProperties.getTtl())));
+                    return Optional.empty();
+                } catch (DataIntegrityViolationException e) {
+                    // Another node claimed the key first; fall through and wait for its result
+                    logger.debug("Idempotency key {} claimed concurrently", key);
+                }
+            } else if (record.get().getStatus() == IdempotencyRecord.RecordStatus.COMPLETED
+                    && record.get().getExpiresAt().isAfter(now)) {
+                IdempotencyRecord r = record.get();
+                return Optional.of(new StoredResponse(r.getResponseStatus(), r.getResponseBody(), r.getRequestHash()));
+            } else if (record.get().getExpiresAt().isBefore(now)
+                    || record.get().getCreatedAt().plus(idempotencyProperties.getClaimTimeout()).isBefore(now)) {
+                logger.warn("Discarding expired or abandoned idempotency record {}", key);
+                idempotencyRecordRepository.deleteById(key);
+                continue;
+            } else if (!record.get().getRequestHash().equals(requestHash)) {
+                throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request");
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+            }
+            sleep(idempotencyProperties.getPollInterval().toMillis());
+        }
+    }
+
+    private StoredResponse awaitLocal(CompletableFuture<StoredResponse> future) {
+        try {
+            return future.get(idempotencyProperties.getInFlightWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // The original attempt failed; surface the same error to the duplicate
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Interrupted while waiting for the original request");
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request");
+        }
+        try {
+            T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), responseType);
+            return ResponseEntity.status(stored.status())
+                    .header("Idempotent-Replayed", "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Interrupted while waiting for the original request");
+        }
+    }
+
+    private record StoredResponse(int status, String body, String requestHash) {}
+}
@@ -0,0 +1,27 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.PaymentStatusEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps published events in memory, for tests and local runs.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<PaymentStatusEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<PaymentStatusEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public synchronized List<PaymentStatusEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.PaymentStatusEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void publish(List<PaymentStatusEvent> batch) {
+        for (PaymentStatusEvent event : batch) {
+            logger.info("Payment status event {}: order {} is {}", event.id(), event.razorpayOrderId(), event.status());
+        }
+    }
+}
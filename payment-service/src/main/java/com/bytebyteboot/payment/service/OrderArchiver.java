@@ -0,0 +1,185 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.ArchiveProperties;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOrderArchiveRepository;
+import com.bytebyteboot.payment.repository.ReconciliationCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves terminal orders past {@code payment.archive.min-age} from {@code payment_orders} to the
+ * archive table, keeping the hot table (and its indexes) down to the orders still in play.
+ * <p>
+ * Candidates are read without locks from the (status, created_at) index. Each batch is then one
+ * short transaction that locks just those rows by primary key, re-checks that they are terminal,
+ * copies them and deletes them. Batches are paced to {@code max-rows-per-second}, and a lease keeps
+ * a single replica running the job.
+ */
+@Service
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private static final String LEASE_NAME = "archive";
+
+    // FAILED and EXPIRED can still turn PAID and PAID can still be refunded, so min-age should exceed those windows
+    static final Set<PaymentStatus> TERMINAL_STATUSES = EnumSet.of(PaymentStatus.PAID, PaymentStatus.FAILED,
+            PaymentStatus.CANCELLED, PaymentStatus.REFUNDED, PaymentStatus.EXPIRED);
+
+    // Upper bound of p_history in V5__payment_orders_archive.sql
+    private static final YearMonth FIRST_PARTITION_MONTH = YearMonth.of(2020, 1);
+
+    private final PaymentOrderArchiveRepository archiveRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final ArchiveProperties archiveProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final Timer batchTimer;
+    private YearMonth lastPartition;
+
+    @Autowired
+    public OrderArchiver(PaymentOrderArchiveRepository archiveRepository,
+                         ReconciliationCheckpointRepository checkpointRepository,
+                         ArchiveProperties archiveProperties,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.archiveProperties = archiveProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("payment.archive.orders")
+                .description("Orders moved to payment_orders_archive")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("payment.archive.batch.duration").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${payment.archive.interval:PT1H}",
+            fixedDelayString = "${payment.archive.interval:PT1H}")
+    public void scheduledArchive() {
+        if (archiveProperties.isEnabled()) {
+            archive();
+        }
+    }
+
+    /**
+     * Runs one pass and returns the number of orders moved.
+     */
+    public int archive() {
+        if (!checkpointRepository.tryAcquireLease(LEASE_NAME, archiveProperties.getLease())) {
+            logger.debug("Archiving is running elsewhere");
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveProperties.getMinAge());
+        int archived = 0;
+        try {
+            if (archiveProperties.isManagePartitions()) {
+                ensurePartitionsThrough(cutoff);
+            }
+            for (int batch = 0; batch < archiveProperties.getMaxBatchesPerRun(); batch++) {
+                List<Long> candidates = findCandidates(cutoff);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                long start = System.nanoTime();
+                archived += moveBatch(candidates);
+                long elapsed = System.nanoTime() - start;
+                batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                pace(candidates.size(), elapsed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Archiving interrupted after {} orders", archived);
+        } finally {
+            checkpointRepository.releaseLease(LEASE_NAME, LocalDateTime.now());
+        }
+        if (archived > 0) {
+            logger.info("Archived {} orders created before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private List<Long> findCandidates(LocalDateTime cutoff) {
+        int batchSize = archiveProperties.getBatchSize();
+        List<Long> candidates = new ArrayList<>(batchSize);
+        for (PaymentStatus status : TERMINAL_STATUSES) {
+            candidates.addAll(archiveRepository.findArchivable(status, cutoff, batchSize - candidates.size()));
+            if (candidates.size() >= batchSize) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private int moveBatch(List<Long> candidates) {
+        Integer moved = transactionTemplate.execute(tx -> {
+            List<Long> locked = archiveRepository.lockTerminal(candidates, TERMINAL_STATUSES);
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            int copied = archiveRepository.copyToArchive(locked, LocalDateTime.now());
+            int deleted = archiveRepository.deleteFromHot(locked);
+            if (copied != locked.size() || deleted != locked.size()) {
+                throw new IllegalStateException("Archive batch moved " + copied + " rows but deleted " + deleted
+                        + " of " + locked.size());
+            }
+            return deleted;
+        });
+        archivedCounter.increment(moved);
+        return moved;
+    }
+
+    private void pace(int rows, long elapsedNanos) throws InterruptedException {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(rows) / archiveProperties.getMaxRowsPerSecond();
+        long sleepNanos = budgetNanos - elapsedNanos;
+        if (sleepNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        }
+    }
+
+    private void ensurePartitionsThrough(LocalDateTime cutoff) {
+        YearMonth month = YearMonth.from(cutoff);
+        if (lastPartition == null) {
+            lastPartition = archiveRepository.partitionNames().stream()
+                    .filter(name -> name.matches("p\\d{6}"))
+                    .map(name -> YearMonth.of(Integer.parseInt(name.substring(1, 5)), Integer.parseInt(name.substring(5))))
+                    .max(YearMonth::compareTo)
+                    .orElse(null);
+        }
+        YearMonth next = lastPartition == null ? firstMonth(cutoff) : lastPartition.plusMonths(1);
+        for (; !next.isAfter(month); next = next.plusMonths(1)) {
+            archiveRepository.addMonthlyPartition(next);
+            lastPartition = next;
+            logger.info("Added archive partition {}", PaymentOrderArchiveRepository.partitionName(next));
+        }
+    }
+
+    // Month of the oldest order to archive; rows before FIRST_PARTITION_MONTH stay in p_history
+    private YearMonth firstMonth(LocalDateTime cutoff) {
+        LocalDateTime oldest = cutoff;
+        for (PaymentStatus status : TERMINAL_STATUSES) {
+            LocalDateTime candidate = archiveRepository.oldestCreatedAt(status, cutoff);
+            if (candidate != null && candidate.isBefore(oldest)) {
+                oldest = candidate;
+            }
+        }
+        YearMonth first = YearMonth.from(oldest);
+        return first.isBefore(FIRST_PARTITION_MONTH) ? FIRST_PARTITION_MONTH : first;
+    }
+}
@@ -0,0 +1,100 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.OrderCacheProperties;
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-evicting cache of order responses keyed by Razorpay order ID.
+ * <p>
+ * Misses are loaded through {@link Cache#get(Object, Function)}, which Caffeine runs atomically per
+ * key. A refresh or invalidation issued after a commit therefore waits for a concurrent load and
+ * then replaces its result, so a load that read the old row cannot overwrite the new status.
+ */
+@Component
+public class OrderCache {
+
+    private final Cache<String, PaymentOrderResponse> cache;
+    private final OrderCacheInvalidationBroadcaster broadcaster;
+    private final boolean enabled;
+
+    @Autowired
+    public OrderCache(OrderCacheProperties orderCacheProperties,
+                      OrderCacheInvalidationBroadcaster broadcaster,
+                      MeterRegistry meterRegistry) {
+        this.enabled = orderCacheProperties.isEnabled();
+        this.broadcaster = broadcaster;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(orderCacheProperties.getMaximumSize())
+                .expireAfterWrite(orderCacheProperties.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payment.orders");
+    }
+
+    /**
+     * Returns the cached response or loads it. Hits go through {@code getIfPresent} so they do not
+     * allocate a capturing lambda.
+     */
+    public PaymentOrderResponse get(String razorpayOrderId, Function<String, PaymentOrderResponse> loader) {
+        if (!enabled) {
+            return loader.apply(razorpayOrderId);
+        }
+        PaymentOrderResponse cached = cache.getIfPresent(razorpayOrderId);
+        return cached != null ? cached : cache.get(razorpayOrderId, loader);
+    }
+
+    public PaymentOrderResponse getIfPresent(String razorpayOrderId) {
+        return enabled ? cache.getIfPresent(razorpayOrderId) : null;
+    }
+
+    public void put(PaymentOrderResponse response) {
+        if (enabled && response.razorpayOrderId() != null) {
+            cache.put(response.razorpayOrderId(), response);
+        }
+    }
+
+    /**
+     * Replaces the local entry with the committed state and tells other replicas to drop theirs.
+     * Deferred until after commit when called inside a transaction.
+     */
+    public void refreshAfterCommit(PaymentOrderResponse response) {
+        afterCommit(() -> {
+            put(response);
+            broadcaster.broadcast(response.razorpayOrderId());
+        });
+    }
+
+    public void invalidateAfterCommit(String razorpayOrderId) {
+        afterCommit(() -> {
+            cache.invalidate(razorpayOrderId);
+            broadcaster.broadcast(razorpayOrderId);
+        });
+    }
+
+    public void onRemoteInvalidation(String razorpayOrderId) {
+        cache.invalidate(razorpayOrderId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
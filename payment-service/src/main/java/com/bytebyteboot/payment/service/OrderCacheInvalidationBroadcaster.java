@@ -0,0 +1,10 @@
+package com.bytebyteboot.payment.service;
+
+/**
+ * Hook for telling other replicas that an order changed. The receiving side calls
+ * {@link OrderCache#onRemoteInvalidation(String)}.
+ */
+public interface OrderCacheInvalidationBroadcaster {
+
+    void broadcast(String razorpayOrderId);
+}
@@ -0,0 +1,269 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.ExpiryProperties;
+import com.bytebyteboot.payment.journal.JournalEvent;
+import com.bytebyteboot.payment.journal.PaymentJournal;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOrderBatchRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderQueryRepository;
+import com.bytebyteboot.payment.repository.ReconciliationCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Moves CREATED orders that were never paid to EXPIRED once their TTL has passed.
+ * <p>
+ * Deadlines live in a {@link TimingWheel}, so scheduling an order is O(1) and each tick only looks
+ * at the orders due in it; nothing polls payment_orders. Callers hand new orders over through a
+ * lock-free queue that the tick drains into the wheel. Due orders are expired in batches of
+ * compare-and-set updates from CREATED, so an order that was attempted, paid or cancelled in the
+ * meantime is left alone.
+ * <p>
+ * The wheel is rebuilt on startup by streaming the open orders: those already past their TTL are
+ * expired straight away and the rest are scheduled. A periodic sweep under a lease catches overdue
+ * orders that no replica holds, e.g. ones created on an instance that stopped before they expired.
+ */
+@Service
+public class OrderExpiry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExpiry.class);
+
+    private static final String LEASE_NAME = "expiry-sweep";
+
+    private static final int WHEEL_LEVELS = 4;
+
+    private final PaymentOrderQueryRepository paymentOrderQueryRepository;
+    private final PaymentOrderBatchRepository paymentOrderBatchRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final OrderCache orderCache;
+    private final PaymentMetrics paymentMetrics;
+    private final ReadYourWrites readYourWrites;
+    private final PaymentRollups paymentRollups;
+    private final PaymentJournal paymentJournal;
+    private final PaymentOutbox paymentOutbox;
+    private final ExpiryProperties expiryProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ConcurrentLinkedQueue<Deadline> incoming = new ConcurrentLinkedQueue<>();
+    // Guarded by this
+    private final TimingWheel<String> wheel;
+    private volatile int scheduled;
+    private final Counter expiredCounter;
+    private final Counter skippedCounter;
+    private final Counter errorCounter;
+
+    @Autowired
+    public OrderExpiry(PaymentOrderQueryRepository paymentOrderQueryRepository,
+                       PaymentOrderBatchRepository paymentOrderBatchRepository,
+                       ReconciliationCheckpointRepository checkpointRepository,
+                       OrderCache orderCache,
+                       PaymentMetrics paymentMetrics,
+                       ReadYourWrites readYourWrites,
+                       PaymentRollups paymentRollups,
+                       PaymentJournal paymentJournal,
+                       PaymentOutbox paymentOutbox,
+                       ExpiryProperties expiryProperties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this(paymentOrderQueryRepository, paymentOrderBatchRepository, checkpointRepository, orderCache,
+                paymentMetrics, readYourWrites, paymentRollups, paymentJournal, paymentOutbox, expiryProperties,
+                transactionManager, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    OrderExpiry(PaymentOrderQueryRepository paymentOrderQueryRepository,
+                PaymentOrderBatchRepository paymentOrderBatchRepository,
+                ReconciliationCheckpointRepository checkpointRepository,
+                OrderCache orderCache,
+                PaymentMetrics paymentMetrics,
+                ReadYourWrites readYourWrites,
+                PaymentRollups paymentRollups,
+                PaymentJournal paymentJournal,
+                PaymentOutbox paymentOutbox,
+                ExpiryProperties expiryProperties,
+                PlatformTransactionManager transactionManager,
+                MeterRegistry meterRegistry,
+                Clock clock) {
+        this.paymentOrderQueryRepository = paymentOrderQueryRepository;
+        this.paymentOrderBatchRepository = paymentOrderBatchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.orderCache = orderCache;
+        this.paymentMetrics = paymentMetrics;
+        this.readYourWrites = readYourWrites;
+        this.paymentRollups = paymentRollups;
+        this.paymentJournal = paymentJournal;
+        this.paymentOutbox = paymentOutbox;
+        this.expiryProperties = expiryProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(expiryProperties.getTick().toMillis(), expiryProperties.getWheelSize(),
+                WHEEL_LEVELS, clock.millis());
+        Gauge.builder("payment.expiry.scheduled", this, expiry -> expiry.scheduled)
+                .description("Open orders waiting in the expiry timing wheel")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("payment.expiry.expired").register(meterRegistry);
+        this.skippedCounter = Counter.builder("payment.expiry.skipped")
+                .description("Due orders that had already left CREATED")
+                .register(meterRegistry);
+        this.errorCounter = Counter.builder("payment.expiry.errors").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void seed() {
+        if (!expiryProperties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(expiryProperties.getTtl());
+        int expired = sweepOverdue(cutoff);
+
+        int[] seeded = new int[1];
+        synchronized (this) {
+            paymentOrderQueryRepository.streamByStatus(PaymentStatus.CREATED, cutoff, null,
+                    expiryProperties.getSeedFetchSize(), ref -> {
+                        wheel.schedule(ref.razorpayOrderId(), deadlineOf(ref.createdAt()));
+                        seeded[0]++;
+                    });
+            scheduled = wheel.size();
+        }
+        logger.info("Expiry wheel seeded with {} open orders; expired {} overdue", seeded[0], expired);
+    }
+
+    /**
+     * Schedules a newly created order to expire one TTL after {@code createdAt}. Safe to call from
+     * any thread; the order joins the wheel on the next tick.
+     */
+    public void schedule(String razorpayOrderId, LocalDateTime createdAt) {
+        if (!expiryProperties.isEnabled()) {
+            return;
+        }
+        LocalDateTime from = createdAt != null ? createdAt : LocalDateTime.now(clock);
+        incoming.add(new Deadline(razorpayOrderId, deadlineOf(from)));
+    }
+
+    @Scheduled(fixedDelayString = "${payment.expiry.tick:PT1S}")
+    public void scheduledTick() {
+        if (expiryProperties.isEnabled()) {
+            expireDue();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${payment.expiry.sweep-interval:PT1H}",
+            fixedDelayString = "${payment.expiry.sweep-interval:PT1H}")
+    public void scheduledSweep() {
+        if (expiryProperties.isEnabled()) {
+            sweep();
+        }
+    }
+
+    public synchronized int expireDue() {
+        for (Deadline deadline; (deadline = incoming.poll()) != null; ) {
+            wheel.schedule(deadline.razorpayOrderId(), deadline.deadlineMillis());
+        }
+        List<String> due = wheel.advance(clock.millis());
+        scheduled = wheel.size();
+        int expired = 0;
+        int batchSize = expiryProperties.getBatchSize();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            expired += expire(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+        return expired;
+    }
+
+    /**
+     * Expires every order that is still CREATED a TTL after it was created, whether or not any
+     * replica has it scheduled. Reads only the overdue range of the (status, created_at) index.
+     */
+    public int sweep() {
+        if (!checkpointRepository.tryAcquireLease(LEASE_NAME, expiryProperties.getSweepInterval())) {
+            logger.debug("Expiry sweep is running elsewhere");
+            return 0;
+        }
+        try {
+            int expired = sweepOverdue(LocalDateTime.now(clock).minus(expiryProperties.getTtl()));
+            if (expired > 0) {
+                logger.info("Expiry sweep expired {} orders", expired);
+            }
+            return expired;
+        } finally {
+            checkpointRepository.releaseLease(LEASE_NAME, LocalDateTime.now(clock));
+        }
+    }
+
+    private int sweepOverdue(LocalDateTime cutoff) {
+        List<String> batch = new ArrayList<>(expiryProperties.getBatchSize());
+        int[] expired = new int[1];
+        paymentOrderQueryRepository.streamByStatus(PaymentStatus.CREATED, null, cutoff,
+                expiryProperties.getSeedFetchSize(), ref -> {
+                    batch.add(ref.razorpayOrderId());
+                    if (batch.size() == expiryProperties.getBatchSize()) {
+                        expired[0] += expire(batch);
+                        batch.clear();
+                    }
+                });
+        if (!batch.isEmpty()) {
+            expired[0] += expire(batch);
+        }
+        return expired[0];
+    }
+
+    private int expire(List<String> razorpayOrderIds) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            Integer result = transactionTemplate.execute(status -> applyExpiry(razorpayOrderIds, now));
+            int expired = result == null ? 0 : result;
+            expiredCounter.increment(expired);
+            skippedCounter.increment(razorpayOrderIds.size() - expired);
+            return expired;
+        } catch (RuntimeException e) {
+            errorCounter.increment();
+            logger.warn("Could not expire {} orders, retrying in {}: {}", razorpayOrderIds.size(),
+                    expiryProperties.getRetryDelay(), e.getMessage());
+            long retryAt = clock.millis() + expiryProperties.getRetryDelay().toMillis();
+            razorpayOrderIds.forEach(id -> incoming.add(new Deadline(id, retryAt)));
+            return 0;
+        }
+    }
+
+    private int applyExpiry(List<String> razorpayOrderIds, LocalDateTime now) {
+        int[] results = paymentOrderBatchRepository.applyTransitions(PaymentStatus.EXPIRED,
+                PaymentOrderStateMachine.predecessorsOf(PaymentStatus.EXPIRED), razorpayOrderIds,
+                Collections.nCopies(razorpayOrderIds.size(), null), now);
+        List<String> updatedIds = new ArrayList<>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO) {
+                String razorpayOrderId = razorpayOrderIds.get(i);
+                updatedIds.add(razorpayOrderId);
+                paymentMetrics.recordTransition(PaymentStatus.EXPIRED, true);
+                orderCache.invalidateAfterCommit(razorpayOrderId);
+                readYourWrites.recordOrderWrite(razorpayOrderId);
+                paymentRollups.record(razorpayOrderId, PaymentStatus.EXPIRED);
+                paymentJournal.appendAfterCommit(JournalEvent.statusChanged(razorpayOrderId, PaymentStatus.EXPIRED, null));
+            }
+        }
+        paymentOutbox.recordAll(PaymentStatus.EXPIRED, updatedIds);
+        return updatedIds.size();
+    }
+
+    private long deadlineOf(LocalDateTime createdAt) {
+        return createdAt.atZone(clock.getZone()).toInstant().plus(expiryProperties.getTtl()).toEpochMilli();
+    }
+
+    private record Deadline(String razorpayOrderId, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.OrderLockProperties;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-process locks that serialize status changes of one order (a verify, its webhook and a
+ * cancel racing each other) while orders on other stripes proceed in parallel.
+ * <p>
+ * A lock taken inside a transaction is held until that transaction completes, so the next writer
+ * on the same order starts after the previous one's commit and queues here instead of on the row
+ * lock. A transaction that changes several orders takes all their stripes up front with
+ * {@link #acquireAll}, in ascending stripe order, so two such batches cannot wait on each other.
+ * Waiting is bounded by {@code max-wait}; past it the mutation fails with
+ * {@link CannotAcquireLockException} and is retried by its caller.
+ * <p>
+ * The last committed status of recently changed orders is kept so that a transition to a status the
+ * order has already reached is answered without a statement. No order re-enters a status it has
+ * left, so such a transition could never apply.
+ */
+@Component
+public class OrderMutationLocks {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderMutationLocks.class);
+
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long maxWaitNanos;
+    private final Cache<String, PaymentStatus> recentStatuses;
+    private final Counter[] contended;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+    private final Counter coalesced;
+
+    @Autowired
+    public OrderMutationLocks(OrderLockProperties orderLockProperties, MeterRegistry meterRegistry) {
+        this.enabled = orderLockProperties.isEnabled();
+        int count = Integer.highestOneBit(Math.max(1, orderLockProperties.getStripes() * 2 - 1));
+        this.stripes = new ReentrantLock[count];
+        this.contended = new Counter[count];
+        this.mask = count - 1;
+        this.maxWaitNanos = orderLockProperties.getMaxWait().toNanos();
+        this.recentStatuses = Caffeine.newBuilder()
+                .maximumSize(orderLockProperties.getRecentStatusSize())
+                .expireAfterWrite(orderLockProperties.getRecentStatusTtl())
+                .build();
+
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+            String stripe = Integer.toString(i);
+            contended[i] = Counter.builder("payment.order.lock.contended")
+                    .description("Order mutations that had to wait for their stripe")
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+            Gauge.builder("payment.order.lock.waiting", stripes[i], ReentrantLock::getQueueLength)
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+        }
+        this.waitTimer = Timer.builder("payment.order.lock.wait").register(meterRegistry);
+        this.timeouts = Counter.builder("payment.order.lock.timeouts").register(meterRegistry);
+        this.coalesced = Counter.builder("payment.order.transitions.coalesced")
+                .description("Transitions to a status the order had already reached, answered without a statement")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Locks the order's stripe. Inside a transaction the lock is released when it completes and
+     * {@link Hold#close()} does nothing; otherwise closing the hold releases it.
+     *
+     * @throws CannotAcquireLockException if the stripe is not free within {@code max-wait}
+     */
+    public Hold acquire(String razorpayOrderId) {
+        if (!enabled) {
+            return Hold.NONE;
+        }
+        ReentrantLock lock = lock(stripeOf(razorpayOrderId), razorpayOrderId);
+        return hold(List.of(lock));
+    }
+
+    /**
+     * Locks the stripes of all the given orders, in ascending stripe order, with the same release
+     * rules as {@link #acquire}. If one of them times out, those already taken are released.
+     *
+     * @throws CannotAcquireLockException if a stripe is not free within {@code max-wait}
+     */
+    public Hold acquireAll(Collection<String> razorpayOrderIds) {
+        if (!enabled || razorpayOrderIds.isEmpty()) {
+            return Hold.NONE;
+        }
+        TreeMap<Integer, String> byStripe = new TreeMap<>();
+        for (String razorpayOrderId : razorpayOrderIds) {
+            byStripe.putIfAbsent(stripeOf(razorpayOrderId), razorpayOrderId);
+        }
+        List<ReentrantLock> locked = new ArrayList<>(byStripe.size());
+        try {
+            byStripe.forEach((index, razorpayOrderId) -> locked.add(lock(index, razorpayOrderId)));
+        } catch (RuntimeException e) {
+            unlockAll(locked);
+            throw e;
+        }
+        return hold(locked);
+    }
+
+    private ReentrantLock lock(int index, String razorpayOrderId) {
+        ReentrantLock lock = stripes[index];
+        if (lock.tryLock()) {
+            return lock;
+        }
+        contended[index].increment();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the lock of order " + razorpayOrderId, e);
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            timeouts.increment();
+            throw new CannotAcquireLockException("Order " + razorpayOrderId + " is busy; no lock after "
+                    + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+        }
+        return lock;
+    }
+
+    private static Hold hold(List<ReentrantLock> locks) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlockAll(locks);
+                }
+            });
+            return Hold.NONE;
+        }
+        return () -> unlockAll(locks);
+    }
+
+    private static void unlockAll(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    /**
+     * True when the order is known to have reached {@code target} already, making the transition a no-op.
+     */
+    public boolean isRedundant(String razorpayOrderId, PaymentStatus target) {
+        if (enabled && recentStatuses.getIfPresent(razorpayOrderId) == target) {
+            coalesced.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remembers the order's status once the surrounding transaction commits.
+     */
+    public void recordStatus(String razorpayOrderId, PaymentStatus status) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentStatuses.put(razorpayOrderId, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentStatuses.put(razorpayOrderId, status);
+            }
+        });
+    }
+
+    int stripeOf(String razorpayOrderId) {
+        int h = razorpayOrderId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @FunctionalInterface
+    public interface Hold extends AutoCloseable {
+
+        Hold NONE = () -> { };
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,149 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.OutboxProperties;
+import com.bytebyteboot.payment.dto.PaymentStatusEvent;
+import com.bytebyteboot.payment.repository.PaymentOutboxRepository;
+import com.bytebyteboot.payment.repository.ReconciliationCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Publishes payment_outbox events to the configured {@link OutboxSink}.
+ * <p>
+ * Events are split into partitions by order ID, and each partition is claimed through a lease, so
+ * replicas relay different partitions in parallel while one order's events are always published by
+ * a single relay, in the order they were written. A claimed partition is drained in batches: read
+ * the oldest unpublished events, hand them to the sink, mark them published. A failed batch stops
+ * the partition until the next poll rather than skipping ahead. Delivery is at-least-once only
+ * across a crash between publishing and marking; consumers can drop repeats by event ID.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String LEASE_PREFIX = "outbox:";
+    private static final int CLEANUP_BATCH_SIZE = 5000;
+
+    private final PaymentOutboxRepository outboxRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final OutboxSink outboxSink;
+    private final OutboxProperties outboxProperties;
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer lagTimer;
+
+    @Autowired
+    public OutboxRelay(PaymentOutboxRepository outboxRepository,
+                       ReconciliationCheckpointRepository checkpointRepository,
+                       OutboxSink outboxSink,
+                       OutboxProperties outboxProperties,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.outboxSink = outboxSink;
+        this.outboxProperties = outboxProperties;
+        this.publishedCounter = Counter.builder("payment.outbox.published").register(meterRegistry);
+        this.failureCounter = Counter.builder("payment.outbox.failures")
+                .description("Batches the sink rejected; they are retried on the next poll")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("payment.outbox.lag")
+                .description("Time from the status change to its event being published")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${payment.outbox.poll-interval:PT0.5S}",
+            fixedDelayString = "${payment.outbox.poll-interval:PT0.5S}")
+    public void scheduledRelay() {
+        if (outboxProperties.isEnabled() && outboxProperties.isRelayEnabled()) {
+            relay();
+        }
+    }
+
+    /**
+     * Runs one pass over every partition this instance can claim and returns the number of events published.
+     */
+    public int relay() {
+        int partitions = outboxProperties.getPartitions();
+        // Start at a random partition so replicas polling in step do not all contend for the same lease
+        int first = ThreadLocalRandom.current().nextInt(partitions);
+        int published = 0;
+        for (int i = 0; i < partitions; i++) {
+            int partition = (first + i) % partitions;
+            String lease = LEASE_PREFIX + partition;
+            if (!checkpointRepository.tryAcquireLease(lease, outboxProperties.getLease())) {
+                continue;
+            }
+            try {
+                published += drain(partition);
+            } finally {
+                checkpointRepository.releaseLease(lease, LocalDateTime.now());
+            }
+        }
+        return published;
+    }
+
+    private int drain(int partition) {
+        long deadline = System.nanoTime() + outboxProperties.getLease().toNanos() / 2;
+        int published = 0;
+        for (int batch = 0; batch < outboxProperties.getMaxBatchesPerPass() && System.nanoTime() < deadline; batch++) {
+            List<PaymentStatusEvent> events = outboxRepository.findPending(partition, outboxProperties.getBatchSize());
+            if (events.isEmpty()) {
+                break;
+            }
+            try {
+                outboxSink.publish(events);
+            } catch (Exception e) {
+                failureCounter.increment();
+                logger.warn("Outbox sink rejected {} events of partition {} starting at {}: {}",
+                        events.size(), partition, events.get(0).id(), e.getMessage());
+                outboxRepository.recordFailure(events.get(0).id(), truncate(String.valueOf(e.getMessage())));
+                break;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            outboxRepository.markPublished(events.stream().map(PaymentStatusEvent::id).toList(), now);
+            for (PaymentStatusEvent event : events) {
+                lagTimer.record(Duration.between(event.occurredAt(), now));
+            }
+            publishedCounter.increment(events.size());
+            published += events.size();
+            if (events.size() < outboxProperties.getBatchSize()) {
+                break;
+            }
+        }
+        return published;
+    }
+
+    @Scheduled(initialDelayString = "${payment.outbox.cleanup-interval:PT1H}",
+            fixedDelayString = "${payment.outbox.cleanup-interval:PT1H}")
+    public void cleanup() {
+        if (!outboxProperties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(outboxProperties.getRetention());
+        int deleted = 0;
+        int batch;
+        do {
+            batch = outboxRepository.deletePublishedBefore(cutoff, CLEANUP_BATCH_SIZE);
+            deleted += batch;
+        } while (batch == CLEANUP_BATCH_SIZE);
+        if (deleted > 0) {
+            logger.info("Deleted {} outbox events published before {}", deleted, cutoff);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 512 ? message : message.substring(0, 512);
+    }
+}
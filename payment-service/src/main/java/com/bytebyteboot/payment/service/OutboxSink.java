@@ -0,0 +1,15 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.PaymentStatusEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events. A batch holds events of one partition in the order they
+ * were written; the relay only marks it published after {@code publish} returns, so a sink sees a
+ * batch again if the relay fails in between.
+ */
+public interface OutboxSink {
+
+    void publish(List<PaymentStatusEvent> batch) throws Exception;
+}
@@ -0,0 +1,102 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the payment hot paths. Fixed-tag meters are registered up front so recording is a
+ * field read plus an atomic update; histogram buckets are configured under
+ * {@code management.metrics.distribution} rather than here.
+ */
+@Component
+public class PaymentMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer paymentSignatureValid;
+    private final Timer paymentSignatureInvalid;
+    private final Timer webhookSignatureValid;
+    private final Timer webhookSignatureInvalid;
+    private final Map<PaymentStatus, Counter> appliedTransitions = new EnumMap<>(PaymentStatus.class);
+    private final Map<PaymentStatus, Counter> rejectedTransitions = new EnumMap<>(PaymentStatus.class);
+    private final Map<String, Timer> razorpayTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> webhookLagTimers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.paymentSignatureValid = signatureTimer("payment", "valid");
+        this.paymentSignatureInvalid = signatureTimer("payment", "invalid");
+        this.webhookSignatureValid = signatureTimer("webhook", "valid");
+        this.webhookSignatureInvalid = signatureTimer("webhook", "invalid");
+        for (PaymentStatus status : PaymentStatus.values()) {
+            appliedTransitions.put(status, transitionCounter(status, "applied"));
+            rejectedTransitions.put(status, transitionCounter(status, "rejected"));
+        }
+    }
+
+    public void recordRazorpayCall(String operation, boolean success, long startNanos) {
+        String key = operation + (success ? "|success" : "|error");
+        razorpayTimers.computeIfAbsent(key, k -> Timer.builder("payment.razorpay.requests")
+                        .description("Latency of Razorpay API calls")
+                        .tag("operation", operation)
+                        .tag("outcome", success ? "success" : "error")
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPaymentSignature(boolean valid, long startNanos) {
+        (valid ? paymentSignatureValid : paymentSignatureInvalid)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWebhookSignature(boolean valid, long startNanos) {
+        (valid ? webhookSignatureValid : webhookSignatureInvalid)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time from the event's {@code created_at} (epoch seconds, as sent by Razorpay) until its status
+     * change was applied. Events without a timestamp are skipped.
+     */
+    public void recordWebhookLag(String event, long createdAtEpochSeconds) {
+        if (createdAtEpochSeconds <= 0) {
+            return;
+        }
+        long lagMillis = Math.max(0, System.currentTimeMillis() - createdAtEpochSeconds * 1000);
+        webhookLagTimers.computeIfAbsent(event, e -> Timer.builder("payment.webhook.lag")
+                        .description("Delay between a Razorpay event being created and its status being applied")
+                        .tag("event", e)
+                        .register(meterRegistry))
+                .record(Duration.ofMillis(lagMillis));
+    }
+
+    public void recordTransition(PaymentStatus target, boolean applied) {
+        (applied ? appliedTransitions : rejectedTransitions).get(target).increment();
+    }
+
+    private Timer signatureTimer(String type, String result) {
+        return Timer.builder("payment.signature.verify")
+                .description("HMAC signature verification time")
+                .tag("type", type)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter transitionCounter(PaymentStatus status, String outcome) {
+        return Counter.builder("payment.order.transitions")
+                .description("Order status transitions by target status")
+                .tag("status", status.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,89 +1,220 @@
 package com.bytebyteboot.payment.service;
 
 import com.bytebyteboot.payment.config.RazorpayProperties;
+import com.bytebyteboot.payment.dto.PaymentOrderCursor;
+import com.bytebyteboot.payment.dto.PaymentOrderFilter;
+import com.bytebyteboot.payment.dto.PaymentOrderPage;
 import com.bytebyteboot.payment.dto.PaymentOrderRequest;
 import com.bytebyteboot.payment.dto.PaymentVerificationRequest;
+import com.bytebyteboot.payment.dto.RazorpayWebhookEvent;
+import com.bytebyteboot.payment.exception.GatewayUnavailableException;
 import com.bytebyteboot.payment.exception.PaymentException;
+import com.bytebyteboot.payment.journal.JournalEvent;
+import com.bytebyteboot.payment.journal.PaymentJournal;
 import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.model.WebhookDelivery;
 import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.repository.ArchivedPaymentOrderRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderQueryRepository;
 import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import com.bytebyteboot.payment.repository.WebhookDeliveryRepository;
+import com.bytebyteboot.payment.security.RazorpaySignatureVerifier;
 import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
-@Transactional
 public class PaymentOrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentOrderService.class);
 
-    private final RazorpayClient razorpayClient;
+    private static final int MAX_PAGE_SIZE = 500;
+    // Cap on the deprecated unpaged order list
+    private static final int LEGACY_LIST_SIZE = 100;
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final RazorpayGateway razorpayGateway;
     private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentOrderQueryRepository paymentOrderQueryRepository;
+    private final ArchivedPaymentOrderRepository archivedPaymentOrderRepository;
     private final RazorpayProperties razorpayProperties;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final RazorpaySignatureVerifier signatureVerifier;
+    private final OrderCache orderCache;
+    private final PaymentOrderStateMachine stateMachine;
+    private final PaymentMetrics paymentMetrics;
+    private final WebhookEventParser webhookEventParser;
+    private final ReadYourWrites readYourWrites;
+    private final PaymentRollups paymentRollups;
+    private final PaymentJournal paymentJournal;
+    private final OrderExpiry orderExpiry;
+    private final WebhookDeduplicator webhookDeduplicator;
+    private final OrderMutationLocks orderLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Function<String, PaymentOrderResponse> orderLoader = this::loadOrder;
 
     @Autowired
-    public PaymentOrderService(RazorpayClient razorpayClient,
+    public PaymentOrderService(RazorpayGateway razorpayGateway,
                           PaymentOrderRepository paymentOrderRepository,
-                          RazorpayProperties razorpayProperties) {
-        this.razorpayClient = razorpayClient;
+                          PaymentOrderQueryRepository paymentOrderQueryRepository,
+                          ArchivedPaymentOrderRepository archivedPaymentOrderRepository,
+                          RazorpayProperties razorpayProperties,
+                          WebhookDeliveryRepository webhookDeliveryRepository,
+                          RazorpaySignatureVerifier signatureVerifier,
+                          OrderCache orderCache,
+                          PaymentOrderStateMachine stateMachine,
+                          PaymentMetrics paymentMetrics,
+                          WebhookEventParser webhookEventParser,
+                          ReadYourWrites readYourWrites,
+                          PaymentRollups paymentRollups,
+                          PaymentJournal paymentJournal,
+                          OrderExpiry orderExpiry,
+                          WebhookDeduplicator webhookDeduplicator,
+                          OrderMutationLocks orderLocks,
+                          PlatformTransactionManager transactionManager) {
+        this.razorpayGateway = razorpayGateway;
         this.paymentOrderRepository = paymentOrderRepository;
+        this.paymentOrderQueryRepository = paymentOrderQueryRepository;
+        this.archivedPaymentOrderRepository = archivedPaymentOrderRepository;
         this.razorpayProperties = razorpayProperties;
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.signatureVerifier = signatureVerifier;
+        this.orderCache = orderCache;
+        this.stateMachine = stateMachine;
+        this.paymentMetrics = paymentMetrics;
+        this.webhookEventParser = webhookEventParser;
+        this.readYourWrites = readYourWrites;
+        this.paymentRollups = paymentRollups;
+        this.paymentJournal = paymentJournal;
+        this.orderExpiry = orderExpiry;
+        this.webhookDeduplicator = webhookDeduplicator;
+        this.orderLocks = orderLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
+    /**
+     * Creates the order in three steps so no database connection is held while Razorpay is called:
+     * a short insert of a PENDING row, the remote call, and a second short transaction that records
+     * the Razorpay order ID.
+     */
     public PaymentOrderResponse createOrder(PaymentOrderRequest request) {
+        logger.info("Creating Razorpay order for amount: {}", request.amount());
+
+        PaymentOrder paymentOrder = transactionTemplate.execute(status -> paymentOrderRepository.save(newPendingOrder(request)));
+
+        String razorpayOrderId;
         try {
-            logger.info("Creating Razorpay order for amount: {}", request.amount());
+            Order razorpayOrder = razorpayGateway.createOrder(buildRazorpayOrderRequest(request));
+            razorpayOrderId = razorpayOrder.get("id");
+        } catch (GatewayUnavailableException e) {
+            logger.warn("Razorpay unavailable, failing order {}: {}", paymentOrder.getId(), e.getMessage());
+            markPendingOrderFailed(paymentOrder);
+            throw e;
+        } catch (RazorpayException | PaymentException e) {
+            logger.error("Error creating Razorpay order: {}", e.getMessage(), e);
+            markPendingOrderFailed(paymentOrder);
+            throw new PaymentException("Failed to create payment order", e);
+        } catch (RuntimeException e) {
+            // e.g. a JSONException from a malformed response; the row must not stay PENDING
+            logger.error("Unexpected error creating Razorpay order: {}", e.getMessage(), e);
+            markPendingOrderFailed(paymentOrder);
+            throw e;
+        }
 
-            int amountInPaise = request.amount().multiply(java.math.BigDecimal.valueOf(100)).intValue();
+        LocalDateTime updatedAt = LocalDateTime.now();
+        Integer assigned = transactionTemplate.execute(status -> paymentOrderRepository.assignRazorpayOrderId(
+                paymentOrder.getId(), razorpayOrderId, PaymentOrder.PaymentStatus.CREATED,
+                updatedAt, PaymentOrder.PaymentStatus.PENDING));
+        paymentMetrics.recordTransition(PaymentOrder.PaymentStatus.CREATED, assigned != null && assigned > 0);
+        readYourWrites.recordOrderWrite(razorpayOrderId);
+        if (assigned != null && assigned > 0) {
+            paymentRollups.record(PaymentOrder.PaymentStatus.CREATED, paymentOrder.getMoney());
+            paymentJournal.append(JournalEvent.orderCreated(
+                    razorpayOrderId, paymentOrder.getAmount(), paymentOrder.getCurrency()));
+            orderExpiry.schedule(razorpayOrderId, paymentOrder.getCreatedAt());
+        }
 
-            JSONObject orderRequest = new JSONObject();
-            orderRequest.put("amount", amountInPaise);
-            orderRequest.put("currency", request.currency());
-            orderRequest.put("receipt", request.receipt());
+        paymentOrder.setRazorpayOrderId(razorpayOrderId);
+        paymentOrder.setStatus(PaymentOrder.PaymentStatus.CREATED);
+        paymentOrder.setUpdatedAt(updatedAt);
 
-            if (request.notes() != null) {
-                JSONObject notes = new JSONObject();
-                notes.put("notes", request.notes());
-                orderRequest.put("notes", notes);
-            }
+        // Warm the cache for the status polls that follow checkout
+        PaymentOrderResponse response = PaymentOrderResponse.from(paymentOrder);
+        orderCache.put(response);
+        return response;
+    }
 
-            Order razorpayOrder = razorpayClient.orders.create(orderRequest);
+    static PaymentOrder newPendingOrder(PaymentOrderRequest request) {
+        PaymentOrder paymentOrder = new PaymentOrder(
+                null,
+                request.money(),
+                request.receipt()
+        );
+        paymentOrder.setStatus(PaymentOrder.PaymentStatus.PENDING);
+        paymentOrder.setCustomerEmail(request.customerEmail());
+        paymentOrder.setCustomerPhone(request.customerPhone());
+        paymentOrder.setNotes(request.notes());
+        return paymentOrder;
+    }
 
-            // Save to database
-            PaymentOrder paymentOrder = new PaymentOrder(
-                    razorpayOrder.get("id"),
-                    request.amount(),
-                    request.currency(),
-                    request.receipt()
-            );
-            paymentOrder.setCustomerEmail(request.customerEmail());
-            paymentOrder.setCustomerPhone(request.customerPhone());
-            paymentOrder.setNotes(request.notes());
+    static JSONObject buildRazorpayOrderRequest(PaymentOrderRequest request) {
+        // Razorpay takes the amount in the currency's smallest unit
+        long amountInMinorUnits = request.money().minorUnits();
 
-            PaymentOrder savedOrder = paymentOrderRepository.save(paymentOrder);
+        JSONObject orderRequest = new JSONObject();
+        orderRequest.put("amount", amountInMinorUnits);
+        orderRequest.put("currency", request.currency());
+        orderRequest.put("receipt", request.receipt());
 
-            return PaymentOrderResponse.from(savedOrder);
+        if (request.notes() != null) {
+            JSONObject notes = new JSONObject();
+            notes.put("notes", request.notes());
+            orderRequest.put("notes", notes);
+        }
+        return orderRequest;
+    }
 
-        } catch (RazorpayException e) {
-            logger.error("Error creating Razorpay order: {}", e.getMessage(), e);
-            throw new PaymentException("Failed to create payment order", e);
+    private void markPendingOrderFailed(PaymentOrder paymentOrder) {
+        try {
+            Integer updated = transactionTemplate.execute(status -> paymentOrderRepository.updateStatus(paymentOrder.getId(),
+                    PaymentOrder.PaymentStatus.FAILED, LocalDateTime.now(), PaymentOrder.PaymentStatus.PENDING));
+            paymentMetrics.recordTransition(PaymentOrder.PaymentStatus.FAILED, updated != null && updated > 0);
+            if (updated != null && updated > 0) {
+                paymentRollups.record(PaymentOrder.PaymentStatus.FAILED, paymentOrder.getMoney());
+            }
+        } catch (Exception e) {
+            logger.error("Could not mark pending order {} as failed: {}", paymentOrder.getId(), e.getMessage(), e);
         }
     }
 
+    /**
+     * Marks the order PAID with a single conditional update. A repeated verify of an already-paid
+     * order returns it unchanged; any other non-payable status is rejected.
+     */
+    @Transactional
     public PaymentOrderResponse verifyPayment(PaymentVerificationRequest request) {
         try {
             logger.info("Verifying payment for order: {}", request.razorpayOrderId());
@@ -94,20 +225,18 @@ public class PaymentOrderService {
                     request.razorpaySignature())) {
                 throw new PaymentException("Invalid payment signature");
             }
-
-            // Update payment order
-            PaymentOrder paymentOrder = paymentOrderRepository
-                    .findByRazorpayOrderId(request.razorpayOrderId())
-                    .orElseThrow(() -> new PaymentException("Payment order not found"));
-
-            paymentOrder.setRazorpayPaymentId(request.razorpayPaymentId());
-            paymentOrder.setRazorpaySignature(request.razorpaySignature());
-            paymentOrder.setStatus(PaymentOrder.PaymentStatus.PAID);
-
-            PaymentOrder updatedOrder = paymentOrderRepository.save(paymentOrder);
+            paymentJournal.append(JournalEvent.verifyRequested(request.razorpayOrderId(), request.razorpayPaymentId()));
+
+            PaymentOrderStateMachine.Transition transition = stateMachine.markPaid(
+                    request.razorpayOrderId(), request.razorpayPaymentId(), request.razorpaySignature());
+            switch (transition.outcome()) {
+                case NOT_FOUND -> throw new PaymentException("Payment order not found");
+                case REJECTED -> throw new PaymentException("Cannot mark a " + transition.status() + " order as paid");
+                default -> { }
+            }
 
             logger.info("Payment verified successfully for order: {}", request.razorpayOrderId());
-            return PaymentOrderResponse.from(updatedOrder);
+            return afterTransition(request.razorpayOrderId(), transition, request.razorpayPaymentId());
 
         } catch (Exception e) {
             logger.error("Error verifying payment: {}", e.getMessage(), e);
@@ -117,108 +246,267 @@ public class PaymentOrderService {
 
     private boolean verifySignature(String orderId, String paymentId, String signature) {
         try {
-            String data = orderId + "|" + paymentId;
-            String generatedSignature = calculateHMAC(data, razorpayProperties.getKeySecret());
-            return signature.equals(generatedSignature);
+            long start = System.nanoTime();
+            boolean valid = signatureVerifier.verifyPaymentSignature(orderId, paymentId, signature);
+            paymentMetrics.recordPaymentSignature(valid, start);
+            return valid;
         } catch (Exception e) {
             logger.error("Error verifying signature: {}", e.getMessage(), e);
             return false;
         }
     }
 
-    private String calculateHMAC(String data, String key)
-            throws NoSuchAlgorithmException, InvalidKeyException {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        mac.init(secretKeySpec);
-        byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    public PaymentOrderResponse getOrder(String orderId) {
+        return orderCache.get(orderId, orderLoader);
+    }
 
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hash) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
+    private PaymentOrderResponse loadOrder(String orderId) {
+        return readYourWrites.readOrder(orderId, () -> readOnlyTransactionTemplate.execute(status -> {
+            // Terminal orders past the archive age only exist in payment_orders_archive
+            return paymentOrderRepository.findByRazorpayOrderId(orderId)
+                    .map(PaymentOrderResponse::from)
+                    .or(() -> archivedPaymentOrderRepository.findFirstByRazorpayOrderId(orderId)
+                            .map(PaymentOrderResponse::from))
+                    .orElseThrow(() -> new PaymentException("Payment order not found"));
+        }));
     }
 
+    /**
+     * @deprecated returns only the first {@value #LEGACY_LIST_SIZE} orders; use {@link #getOrdersPage}
+     * or {@link #exportOrders}
+     */
+    @Deprecated
+    @Transactional(readOnly = true)
+    public List<PaymentOrderResponse> getAllOrders() {
+        return getOrdersPage(new PaymentOrderFilter(null, null, null, null), null, LEGACY_LIST_SIZE).items();
+    }
 
     @Transactional(readOnly = true)
-    public PaymentOrderResponse getOrder(String orderId) {
-        PaymentOrder paymentOrder = paymentOrderRepository
-                .findByRazorpayOrderId(orderId)
-                .orElseThrow(() -> new PaymentException("Payment order not found"));
+    public PaymentOrderPage getOrdersPage(PaymentOrderFilter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PaymentOrderCursor after = cursor == null || cursor.isBlank() ? null : PaymentOrderCursor.decode(cursor);
 
-        return PaymentOrderResponse.from(paymentOrder);
+        List<PaymentOrderResponse> rows = paymentOrderQueryRepository.findPage(filter, after, limit);
+        if (rows.size() <= limit) {
+            return new PaymentOrderPage(rows, null);
+        }
+
+        List<PaymentOrderResponse> items = List.copyOf(rows.subList(0, limit));
+        PaymentOrderResponse last = items.get(limit - 1);
+        return new PaymentOrderPage(items, new PaymentOrderCursor(last.createdAt(), last.id()).encode());
     }
 
     @Transactional(readOnly = true)
-    public List<PaymentOrderResponse> getAllOrders() {
-        return paymentOrderRepository.findAll()
-                .stream()
-                .map(PaymentOrderResponse::from)
-                .toList();
+    public void exportOrders(PaymentOrderFilter filter, Consumer<PaymentOrderResponse> consumer) {
+        paymentOrderQueryRepository.stream(filter, EXPORT_FETCH_SIZE, consumer);
     }
 
+    @Transactional
     public PaymentOrderResponse cancelOrder(String orderId) {
-        PaymentOrder paymentOrder = paymentOrderRepository
-                .findByRazorpayOrderId(orderId)
-                .orElseThrow(() -> new PaymentException("Payment order not found"));
-
-        if (paymentOrder.getStatus() == PaymentOrder.PaymentStatus.PAID) {
-            throw new PaymentException("Cannot cancel a paid order");
+        paymentJournal.append(JournalEvent.cancelRequested(orderId));
+        PaymentOrderStateMachine.Transition transition = stateMachine.transition(
+                orderId, PaymentOrder.PaymentStatus.CANCELLED);
+        switch (transition.outcome()) {
+            case NOT_FOUND -> throw new PaymentException("Payment order not found");
+            case REJECTED -> throw new PaymentException(transition.status() == PaymentOrder.PaymentStatus.PAID
+                    ? "Cannot cancel a paid order"
+                    : "Cannot cancel a " + transition.status() + " order");
+            default -> { }
         }
-
-        paymentOrder.setStatus(PaymentOrder.PaymentStatus.CANCELLED);
-        PaymentOrder updatedOrder = paymentOrderRepository.save(paymentOrder);
-
-        return PaymentOrderResponse.from(updatedOrder);
+        return afterTransition(orderId, transition, null);
     }
 
-    public void handleWebhook(String payload, String signature) {
+    /**
+     * Applies a webhook delivery unless its event was applied before; {@code eventId} is the
+     * {@code x-razorpay-event-id} header and may be null.
+     */
+    @Transactional
+    public void handleWebhook(byte[] payload, String signature, String eventId) {
         try {
             // Verify webhook signature
             if (!verifyWebhookSignature(payload, signature)) {
                 throw new PaymentException("Invalid webhook signature");
             }
 
-            JSONObject webhookData = new JSONObject(payload);
-            String event = webhookData.getString("event");
-            JSONObject paymentEntity = webhookData.getJSONObject("payload")
-                    .getJSONObject("payment")
-                    .getJSONObject("entity");
+            WebhookDeduplicator.EventKey key = webhookDeduplicator.keyOf(eventId, payload);
+            if (webhookDeduplicator.isDuplicate(key)) {
+                logger.debug("Skipping duplicate webhook event {}", eventId);
+                return;
+            }
 
-            String orderId = paymentEntity.getString("order_id");
+            long start = System.nanoTime();
+            RazorpayWebhookEvent event = webhookEventParser.parse(payload);
+            applyWebhookEvent(event);
+            webhookDeduplicator.recordProcessed(key, start);
+            logger.info("Processed webhook event: {} for order: {}", event.event(), event.orderId());
 
-            Optional<PaymentOrder> optionalOrder = paymentOrderRepository.findByRazorpayOrderId(orderId);
-            if (optionalOrder.isPresent()) {
-                PaymentOrder paymentOrder = optionalOrder.get();
+        } catch (Exception e) {
+            logger.error("Error processing webhook: {}", e.getMessage(), e);
+            throw new PaymentException("Webhook processing failed", e);
+        }
+    }
+
+    /**
+     * Applies a batch of queued webhook deliveries. Events are grouped by order and the locks of
+     * every order are taken up front, in stripe order. Round n then applies the n-th event of each
+     * order, one JDBC batch of conditional updates per target status, so every order still sees its
+     * events in delivery order and a late {@code payment.failed} cannot overwrite a PAID order.
+     * Deliveries of events already applied are marked processed without being applied again, and the
+     * keys of the rest are recorded in the same transaction.
+     * <p>
+     * Only deliveries {@code claimedBy} still holds a live lease on are processed, and they stay
+     * locked until the batch commits; the others were finished already or taken over by another
+     * instance after the lease lapsed, and are left to it.
+     */
+    @Transactional
+    public int processWebhookDeliveries(List<Long> deliveryIds, String claimedBy) {
+        long start = System.nanoTime();
+        List<Long> owned = webhookDeliveryRepository.lockOwnedIds(deliveryIds, claimedBy, LocalDateTime.now());
+        if (owned.size() < deliveryIds.size()) {
+            logger.debug("Dropping {} webhook deliveries no longer held by {}", deliveryIds.size() - owned.size(), claimedBy);
+        }
+        List<WebhookDelivery> deliveries = new ArrayList<>(webhookDeliveryRepository.findAllById(owned));
+        deliveries.sort(Comparator.comparing(WebhookDelivery::getId));
+
+        Map<String, List<RazorpayWebhookEvent>> eventsByOrder = new LinkedHashMap<>();
+        Set<WebhookDeduplicator.EventKey> keys = new LinkedHashSet<>();
+        for (WebhookDelivery delivery : deliveries) {
+            WebhookDeduplicator.EventKey key = webhookDeduplicator.keyOf(delivery.getEventId(),
+                    delivery.getPayload().getBytes(StandardCharsets.UTF_8));
+            if (keys.contains(key) || webhookDeduplicator.isDuplicate(key)) {
+                logger.debug("Skipping duplicate webhook delivery {}", delivery.getId());
+                delivery.markProcessed();
+                continue;
+            }
+            try {
+                RazorpayWebhookEvent event = webhookEventParser.parse(delivery.getPayload());
+                if (event.orderId() == null) {
+                    logger.debug("Ignoring webhook event {} without an order", event.event());
+                } else {
+                    paymentJournal.append(JournalEvent.webhookReceived(event.orderId(), event.paymentId(), event.event()));
+                    eventsByOrder.computeIfAbsent(event.orderId(), k -> new ArrayList<>()).add(event);
+                }
+                delivery.markProcessed();
+                keys.add(key);
+            } catch (Exception e) {
+                logger.warn("Discarding malformed webhook delivery {}: {}", delivery.getId(), e.getMessage());
+                delivery.markFailed(e.getMessage());
+            }
+        }
 
-                switch (event) {
-                    case "payment.captured" -> {
-                        paymentOrder.setStatus(PaymentOrder.PaymentStatus.PAID);
-                        paymentOrder.setRazorpayPaymentId(paymentEntity.getString("id"));
+        orderLocks.acquireAll(eventsByOrder.keySet());
+        int rounds = eventsByOrder.values().stream().mapToInt(List::size).max().orElse(0);
+        for (int round = 0; round < rounds; round++) {
+            Map<PaymentOrder.PaymentStatus, List<RazorpayWebhookEvent>> byTarget = new EnumMap<>(PaymentOrder.PaymentStatus.class);
+            for (List<RazorpayWebhookEvent> events : eventsByOrder.values()) {
+                if (round < events.size()) {
+                    RazorpayWebhookEvent event = events.get(round);
+                    PaymentOrder.PaymentStatus target = webhookTargetOf(event);
+                    if (target != null) {
+                        byTarget.computeIfAbsent(target, t -> new ArrayList<>()).add(event);
                     }
-                    case "payment.failed" -> paymentOrder.setStatus(PaymentOrder.PaymentStatus.FAILED);
-                    default -> logger.warn("Unhandled webhook event: {}", event);
                 }
+            }
+            byTarget.forEach((target, events) -> {
+                boolean[] applied = stateMachine.transitionAll(target,
+                        events.stream().map(RazorpayWebhookEvent::orderId).toList(),
+                        events.stream().map(event -> target == PaymentOrder.PaymentStatus.PAID ? event.paymentId() : null).toList());
+                for (int i = 0; i < applied.length; i++) {
+                    if (applied[i]) {
+                        afterWebhookTransition(events.get(i), target);
+                    }
+                }
+            });
+        }
 
-                paymentOrderRepository.save(paymentOrder);
-                logger.info("Processed webhook event: {} for order: {}", event, orderId);
+        webhookDeliveryRepository.saveAll(deliveries);
+        webhookDeduplicator.recordProcessed(new ArrayList<>(keys), start);
+        logger.debug("Processed {} webhook deliveries for {} orders", deliveries.size(), eventsByOrder.size());
+        return deliveries.size();
+    }
+
+    private void applyWebhookEvent(RazorpayWebhookEvent event) {
+        String orderId = event.orderId();
+        if (orderId == null) {
+            logger.debug("Ignoring webhook event {} without an order", event.event());
+            return;
+        }
+        paymentJournal.append(JournalEvent.webhookReceived(orderId, event.paymentId(), event.event()));
+        PaymentOrder.PaymentStatus target = webhookTargetOf(event);
+        if (target == null) {
+            return;
+        }
+        PaymentOrderStateMachine.Transition transition = target == PaymentOrder.PaymentStatus.PAID
+                ? stateMachine.markPaid(orderId, event.paymentId(), null)
+                : stateMachine.transition(orderId, target);
+        if (!transition.applied()) {
+            if (transition.outcome() == PaymentOrderStateMachine.Outcome.NOT_FOUND) {
+                logger.debug("Ignoring webhook event {} for unknown order: {}", event.event(), orderId);
             }
+            return;
+        }
+        afterWebhookTransition(event, transition.status());
+    }
 
-        } catch (Exception e) {
-            logger.error("Error processing webhook: {}", e.getMessage(), e);
-            throw new PaymentException("Webhook processing failed", e);
+    /**
+     * Status the event moves its order to, or null when it changes nothing.
+     */
+    private PaymentOrder.PaymentStatus webhookTargetOf(RazorpayWebhookEvent event) {
+        return switch (event.event()) {
+            case "payment.captured", "order.paid" -> event.paymentId() == null ? null : PaymentOrder.PaymentStatus.PAID;
+            case "payment.authorized" -> PaymentOrder.PaymentStatus.ATTEMPTED;
+            case "payment.failed" -> PaymentOrder.PaymentStatus.FAILED;
+            // Partial refunds leave the order PAID; the payment's refund_status turns "full" with the last one
+            case "refund.processed" -> "full".equals(event.refundStatus()) ? PaymentOrder.PaymentStatus.REFUNDED : null;
+            default -> {
+                if (!event.event().startsWith("refund.")) {
+                    logger.warn("Unhandled webhook event: {}", event.event());
+                }
+                yield null;
+            }
+        };
+    }
+
+    private void afterWebhookTransition(RazorpayWebhookEvent event, PaymentOrder.PaymentStatus status) {
+        paymentMetrics.recordWebhookLag(event.event(), event.createdAt());
+
+        PaymentOrderResponse cached = orderCache.getIfPresent(event.orderId());
+        if (cached != null) {
+            orderCache.refreshAfterCommit(cached.withStatus(status,
+                    status == PaymentOrder.PaymentStatus.PAID ? event.paymentId() : cached.razorpayPaymentId()));
+        } else {
+            orderCache.invalidateAfterCommit(event.orderId());
+        }
+    }
+
+    /**
+     * Builds the response for a successful transition from the cached entry when there is one, so the
+     * hot path stays at a single statement; otherwise reads the row back inside the same transaction.
+     */
+    private PaymentOrderResponse afterTransition(String orderId, PaymentOrderStateMachine.Transition transition,
+                                                 String razorpayPaymentId) {
+        PaymentOrderResponse cached = orderCache.getIfPresent(orderId);
+        PaymentOrderResponse response;
+        if (cached != null && transition.applied()) {
+            response = cached.withStatus(transition.status(),
+                    razorpayPaymentId != null ? razorpayPaymentId : cached.razorpayPaymentId());
+        } else if (cached != null && cached.status() == transition.status()) {
+            return cached;
+        } else {
+            response = paymentOrderRepository.findByRazorpayOrderId(orderId)
+                    .map(PaymentOrderResponse::from)
+                    .orElseThrow(() -> new PaymentException("Payment order not found"));
         }
+        orderCache.refreshAfterCommit(response);
+        return response;
     }
 
-    private boolean verifyWebhookSignature(String payload, String signature) {
+    private boolean verifyWebhookSignature(byte[] payload, String signature) {
         try {
-            String generatedSignature = calculateHMAC(payload, razorpayProperties.getWebhookSecret());
-            return signature.equals(generatedSignature);
+            long start = System.nanoTime();
+            boolean valid = signatureVerifier.verifyWebhookSignature(payload, signature);
+            paymentMetrics.recordWebhookSignature(valid, start);
+            return valid;
         } catch (Exception e) {
             logger.error("Error verifying webhook signature: {}", e.getMessage(), e);
             return false;
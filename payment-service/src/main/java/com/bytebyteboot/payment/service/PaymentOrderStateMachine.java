@@ -0,0 +1,198 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.journal.JournalEvent;
+import com.bytebyteboot.payment.journal.PaymentJournal;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOrderBatchRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Order status transitions as single compare-and-set statements.
+ * <p>
+ * Each transition is one {@code UPDATE ... WHERE status IN (allowed predecessors)} that also bumps
+ * the version. The affected-row count decides the outcome; the current status is only read when the
+ * update matched nothing, to tell a missing order from a duplicate or an illegal transition.
+ * Transitions of one order are serialized through {@link OrderMutationLocks}, and a transition to a
+ * status the order is known to have reached returns UNCHANGED without touching the database.
+ * {@link #transitionAll} sends the same update for many orders as one JDBC batch.
+ * Applied transitions write their outbox event in the same transaction.
+ * Callers must run inside a transaction.
+ */
+@Component
+public class PaymentOrderStateMachine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentOrderStateMachine.class);
+
+    private static final Map<PaymentStatus, Set<PaymentStatus>> PREDECESSORS = new EnumMap<>(PaymentStatus.class);
+
+    static {
+        PREDECESSORS.put(PaymentStatus.PENDING, EnumSet.noneOf(PaymentStatus.class));
+        PREDECESSORS.put(PaymentStatus.CREATED, EnumSet.of(PaymentStatus.PENDING));
+        PREDECESSORS.put(PaymentStatus.ATTEMPTED, EnumSet.of(PaymentStatus.CREATED));
+        // A failed attempt can still be followed by a successful one on the same order, and a
+        // checkout left open past the expiry can still be paid
+        PREDECESSORS.put(PaymentStatus.PAID, EnumSet.of(PaymentStatus.CREATED, PaymentStatus.ATTEMPTED,
+                PaymentStatus.FAILED, PaymentStatus.EXPIRED));
+        PREDECESSORS.put(PaymentStatus.FAILED,
+                EnumSet.of(PaymentStatus.PENDING, PaymentStatus.CREATED, PaymentStatus.ATTEMPTED));
+        PREDECESSORS.put(PaymentStatus.CANCELLED, EnumSet.of(PaymentStatus.PENDING, PaymentStatus.CREATED,
+                PaymentStatus.ATTEMPTED, PaymentStatus.FAILED));
+        PREDECESSORS.put(PaymentStatus.REFUNDED, EnumSet.of(PaymentStatus.PAID));
+        PREDECESSORS.put(PaymentStatus.EXPIRED, EnumSet.of(PaymentStatus.CREATED));
+    }
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentOrderBatchRepository paymentOrderBatchRepository;
+    private final PaymentMetrics paymentMetrics;
+    private final ReadYourWrites readYourWrites;
+    private final PaymentRollups paymentRollups;
+    private final OrderMutationLocks orderLocks;
+    private final PaymentJournal paymentJournal;
+    private final PaymentOutbox paymentOutbox;
+
+    @Autowired
+    public PaymentOrderStateMachine(PaymentOrderRepository paymentOrderRepository,
+                                    PaymentOrderBatchRepository paymentOrderBatchRepository,
+                                    PaymentMetrics paymentMetrics,
+                                    ReadYourWrites readYourWrites,
+                                    PaymentRollups paymentRollups,
+                                    OrderMutationLocks orderLocks,
+                                    PaymentJournal paymentJournal,
+                                    PaymentOutbox paymentOutbox) {
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.paymentOrderBatchRepository = paymentOrderBatchRepository;
+        this.paymentMetrics = paymentMetrics;
+        this.readYourWrites = readYourWrites;
+        this.paymentRollups = paymentRollups;
+        this.orderLocks = orderLocks;
+        this.paymentJournal = paymentJournal;
+        this.paymentOutbox = paymentOutbox;
+    }
+
+    public static Set<PaymentStatus> predecessorsOf(PaymentStatus target) {
+        return PREDECESSORS.get(target);
+    }
+
+    public static boolean canTransition(PaymentStatus from, PaymentStatus to) {
+        return PREDECESSORS.get(to).contains(from);
+    }
+
+    public Transition transition(String razorpayOrderId, PaymentStatus target) {
+        return serialized(razorpayOrderId, target, null, () -> paymentOrderRepository.transitionStatus(
+                razorpayOrderId, target, LocalDateTime.now(), PREDECESSORS.get(target)));
+    }
+
+    /**
+     * Moves the order to PAID and records the payment. The signature is kept as-is when null,
+     * which is the case for webhook captures.
+     */
+    public Transition markPaid(String razorpayOrderId, String razorpayPaymentId, String razorpaySignature) {
+        return serialized(razorpayOrderId, PaymentStatus.PAID, razorpayPaymentId, () -> paymentOrderRepository.transitionWithPayment(
+                razorpayOrderId, PaymentStatus.PAID, razorpayPaymentId, razorpaySignature, LocalDateTime.now(),
+                PREDECESSORS.get(PaymentStatus.PAID)));
+    }
+
+    /**
+     * Moves each of the orders to {@code target} with one JDBC batch of compare-and-set updates and
+     * returns which of them changed. The orders must be distinct and already locked through
+     * {@link OrderMutationLocks#acquireAll}. A payment ID, when given, replaces the stored one.
+     */
+    public boolean[] transitionAll(PaymentStatus target, List<String> razorpayOrderIds, List<String> razorpayPaymentIds) {
+        boolean[] applied = new boolean[razorpayOrderIds.size()];
+        List<Integer> candidates = new ArrayList<>(razorpayOrderIds.size());
+        for (int i = 0; i < razorpayOrderIds.size(); i++) {
+            if (!orderLocks.isRedundant(razorpayOrderIds.get(i), target)) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return applied;
+        }
+
+        int[] results = paymentOrderBatchRepository.applyTransitions(target, PREDECESSORS.get(target),
+                candidates.stream().map(razorpayOrderIds::get).toList(),
+                candidates.stream().map(razorpayPaymentIds::get).toList(),
+                LocalDateTime.now());
+        List<String> updatedIds = new ArrayList<>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO) {
+                int index = candidates.get(i);
+                String razorpayOrderId = razorpayOrderIds.get(index);
+                applied[index] = true;
+                updatedIds.add(razorpayOrderId);
+                paymentMetrics.recordTransition(target, true);
+                readYourWrites.recordOrderWrite(razorpayOrderId);
+                paymentRollups.record(razorpayOrderId, target);
+                orderLocks.recordStatus(razorpayOrderId, target);
+                paymentJournal.appendAfterCommit(JournalEvent.statusChanged(razorpayOrderId, target,
+                        razorpayPaymentIds.get(index)));
+            }
+        }
+        paymentOutbox.recordAll(target, updatedIds);
+        return applied;
+    }
+
+    private Transition serialized(String razorpayOrderId, PaymentStatus target, String razorpayPaymentId,
+                                  IntSupplier update) {
+        try (OrderMutationLocks.Hold hold = orderLocks.acquire(razorpayOrderId)) {
+            if (orderLocks.isRedundant(razorpayOrderId, target)) {
+                return new Transition(Outcome.UNCHANGED, target);
+            }
+            Transition transition = outcome(razorpayOrderId, target, update.getAsInt());
+            if (transition.status() != null) {
+                orderLocks.recordStatus(razorpayOrderId, transition.status());
+            }
+            if (transition.applied()) {
+                paymentOutbox.record(razorpayOrderId, target);
+                paymentJournal.appendAfterCommit(JournalEvent.statusChanged(razorpayOrderId, target, razorpayPaymentId));
+            }
+            return transition;
+        }
+    }
+
+    private Transition outcome(String razorpayOrderId, PaymentStatus target, int updated) {
+        if (updated > 0) {
+            paymentMetrics.recordTransition(target, true);
+            readYourWrites.recordOrderWrite(razorpayOrderId);
+            paymentRollups.record(razorpayOrderId, target);
+            return new Transition(Outcome.APPLIED, target);
+        }
+        PaymentStatus current = paymentOrderRepository.findStatusByRazorpayOrderId(razorpayOrderId).orElse(null);
+        if (current == null) {
+            return new Transition(Outcome.NOT_FOUND, null);
+        }
+        if (current == target) {
+            return new Transition(Outcome.UNCHANGED, current);
+        }
+        paymentMetrics.recordTransition(target, false);
+        logger.info("Rejected transition {} -> {} for order: {}", current, target, razorpayOrderId);
+        return new Transition(Outcome.REJECTED, current);
+    }
+
+    public enum Outcome {
+        APPLIED, UNCHANGED, REJECTED, NOT_FOUND
+    }
+
+    /**
+     * Result of a transition; {@code status} is the order's status afterwards, null when not found.
+     */
+    public record Transition(Outcome outcome, PaymentStatus status) {
+        public boolean applied() {
+            return outcome == Outcome.APPLIED;
+        }
+    }
+}
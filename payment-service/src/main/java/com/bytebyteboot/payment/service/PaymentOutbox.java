@@ -0,0 +1,41 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.OutboxProperties;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes status-change events to payment_outbox. Callers run inside the transaction that changed
+ * the status, so the event commits or rolls back with it; {@link OutboxRelay} publishes it later.
+ */
+@Component
+public class PaymentOutbox {
+
+    private final PaymentOutboxRepository outboxRepository;
+    private final OutboxProperties outboxProperties;
+
+    @Autowired
+    public PaymentOutbox(PaymentOutboxRepository outboxRepository, OutboxProperties outboxProperties) {
+        this.outboxRepository = outboxRepository;
+        this.outboxProperties = outboxProperties;
+    }
+
+    public void record(String razorpayOrderId, PaymentStatus status) {
+        recordAll(status, List.of(razorpayOrderId));
+    }
+
+    public void recordAll(PaymentStatus status, List<String> razorpayOrderIds) {
+        if (!razorpayOrderIds.isEmpty() && outboxProperties.isEnabled() && outboxProperties.getStatuses().contains(status)) {
+            outboxRepository.insertFromOrders(razorpayOrderIds, this::partitionOf, LocalDateTime.now());
+        }
+    }
+
+    int partitionOf(String razorpayOrderId) {
+        return Math.floorMod(razorpayOrderId.hashCode(), outboxProperties.getPartitions());
+    }
+}
@@ -0,0 +1,286 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.RollupProperties;
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.dto.PaymentRollupRow;
+import com.bytebyteboot.payment.model.Money;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hourly counts and amounts of orders entering each status, per currency, kept current as
+ * transitions commit instead of being recomputed by scanning payment_orders.
+ * <p>
+ * Committed transitions add to in-memory {@link LongAdder} cells; a scheduled flush drains them
+ * into additive upserts on payment_rollups, so the table lags by at most the flush interval and
+ * several replicas can flush into the same rows. Transitions that arrive without the order's amount
+ * and currency (webhooks, reconciliation) take them from the order cache, or are queued and looked
+ * up in one batched query at flush time. {@link #backfill()} rebuilds past hours from the orders
+ * themselves.
+ */
+@Service
+public class PaymentRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRollups.class);
+
+    private final PaymentRollupRepository rollupRepository;
+    private final OrderCache orderCache;
+    private final RollupProperties rollupProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Key, Cell> cells = new ConcurrentHashMap<>();
+    private final Queue<Unresolved> unresolved = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger unresolvedCount = new AtomicInteger();
+    private final Counter flushFailures;
+    private final Counter droppedTransitions;
+
+    @Autowired
+    public PaymentRollups(PaymentRollupRepository rollupRepository,
+                          OrderCache orderCache,
+                          RollupProperties rollupProperties,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.rollupRepository = rollupRepository;
+        this.orderCache = orderCache;
+        this.rollupProperties = rollupProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushFailures = Counter.builder("payment.rollups.flush.failures").register(meterRegistry);
+        this.droppedTransitions = Counter.builder("payment.rollups.unresolved.dropped")
+                .description("Transitions left out of the rollups because their order could not be found")
+                .register(meterRegistry);
+        Gauge.builder("payment.rollups.unresolved", unresolvedCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Counts a transition of an order whose amount and currency are known, once the surrounding
+     * transaction (if any) commits.
+     */
+    public void record(PaymentStatus status, Money amount) {
+        if (!rollupProperties.isEnabled()) {
+            return;
+        }
+        LocalDateTime bucket = bucketOf(LocalDateTime.now());
+        afterCommit(() -> add(new Key(bucket, status, amount.currency()), 1, amount.minorUnits()));
+    }
+
+    /**
+     * Counts a transition known only by the order's Razorpay ID.
+     */
+    public void record(String razorpayOrderId, PaymentStatus status) {
+        if (!rollupProperties.isEnabled()) {
+            return;
+        }
+        LocalDateTime bucket = bucketOf(LocalDateTime.now());
+        afterCommit(() -> {
+            PaymentOrderResponse cached = orderCache.getIfPresent(razorpayOrderId);
+            if (cached != null) {
+                add(new Key(bucket, status, cached.currency()), 1,
+                        Money.toMinorUnits(cached.amount(), cached.currency()));
+            } else {
+                unresolved.add(new Unresolved(razorpayOrderId, bucket, status));
+                unresolvedCount.incrementAndGet();
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${payment.rollups.flush-interval:PT10S}",
+            fixedDelayString = "${payment.rollups.flush-interval:PT10S}")
+    public void scheduledFlush() {
+        if (rollupProperties.isEnabled()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything recorded so far to payment_rollups and returns the number of rows touched.
+     * On failure the drained amounts are put back and retried on the next flush.
+     */
+    public synchronized int flush() {
+        resolvePending();
+        LocalDateTime idleBefore = bucketOf(LocalDateTime.now()).minusHours(1);
+        List<PaymentRollupRepository.Delta> deltas = new ArrayList<>();
+        for (Map.Entry<Key, Cell> entry : cells.entrySet()) {
+            long count = entry.getValue().count.sumThenReset();
+            long amountMinor = entry.getValue().amountMinor.sumThenReset();
+            if (count == 0 && amountMinor == 0) {
+                // Cells of past hours are dropped once idle; a late add to a dropped cell moves to a fresh one
+                if (entry.getKey().bucketStart().isBefore(idleBefore)) {
+                    cells.remove(entry.getKey(), entry.getValue());
+                    long lateCount = entry.getValue().count.sumThenReset();
+                    long lateAmount = entry.getValue().amountMinor.sumThenReset();
+                    if (lateCount != 0 || lateAmount != 0) {
+                        add(entry.getKey(), lateCount, lateAmount);
+                    }
+                }
+                continue;
+            }
+            Key key = entry.getKey();
+            deltas.add(new PaymentRollupRepository.Delta(key.bucketStart(), key.status(), key.currency(),
+                    count, amountMinor));
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> rollupRepository.addAll(deltas, LocalDateTime.now()));
+            return deltas.size();
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            logger.warn("Rollup flush of {} rows failed, retrying next interval: {}", deltas.size(), e.getMessage());
+            for (PaymentRollupRepository.Delta delta : deltas) {
+                add(new Key(delta.bucketStart(), delta.status(), delta.currency()), delta.count(), delta.amountMinor());
+            }
+            return 0;
+        }
+    }
+
+    private void resolvePending() {
+        int batchSize = rollupProperties.getResolveBatchSize();
+        List<Unresolved> batch = new ArrayList<>(batchSize);
+        Unresolved next;
+        while ((next = unresolved.poll()) != null) {
+            unresolvedCount.decrementAndGet();
+            batch.add(next);
+            if (batch.size() == batchSize) {
+                resolve(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            resolve(batch);
+        }
+    }
+
+    private void resolve(List<Unresolved> batch) {
+        Map<String, PaymentRollupRepository.OrderAmount> amounts;
+        try {
+            amounts = rollupRepository.findAmounts(batch.stream().map(Unresolved::razorpayOrderId).distinct().toList());
+        } catch (RuntimeException e) {
+            logger.warn("Could not resolve {} rollup transitions, retrying next interval: {}", batch.size(), e.getMessage());
+            unresolved.addAll(batch);
+            unresolvedCount.addAndGet(batch.size());
+            return;
+        }
+        for (Unresolved transition : batch) {
+            PaymentRollupRepository.OrderAmount amount = amounts.get(transition.razorpayOrderId());
+            if (amount == null) {
+                droppedTransitions.increment();
+                continue;
+            }
+            add(new Key(transition.bucketStart(), transition.status(), amount.currency()), 1,
+                    amount.amountMinor());
+        }
+    }
+
+    /**
+     * Rebuilds every hour before the current one from the orders (hot and archived), replacing what
+     * the incremental path wrote. Only each order's creation and its current status survive in the
+     * table, so intermediate states such as ATTEMPTED are counted only for orders still in them.
+     */
+    public BackfillResult backfill() {
+        flush();
+        LocalDateTime until = bucketOf(LocalDateTime.now());
+        Map<Key, long[]> totals = new HashMap<>();
+        long[] orders = new long[1];
+        rollupRepository.streamHistory(rollupProperties.getBackfillFetchSize(), rs -> {
+            orders[0]++;
+            String currency = rs.getString("currency");
+            long amountMinor = rs.getLong("amount_minor");
+            PaymentStatus status = PaymentStatus.valueOf(rs.getString("status"));
+            LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+            if (rs.getString("razorpay_order_id") != null && createdAt.isBefore(until)) {
+                accumulate(totals, new Key(bucketOf(createdAt), PaymentStatus.CREATED, currency), amountMinor);
+            }
+            if (status != PaymentStatus.CREATED) {
+                // Rows from before the schema was versioned may never have been updated
+                Timestamp updated = rs.getTimestamp("updated_at");
+                LocalDateTime updatedAt = updated != null ? updated.toLocalDateTime() : createdAt;
+                if (updatedAt.isBefore(until)) {
+                    accumulate(totals, new Key(bucketOf(updatedAt), status, currency), amountMinor);
+                }
+            }
+        });
+        List<PaymentRollupRepository.Delta> deltas = totals.entrySet().stream()
+                .map(e -> new PaymentRollupRepository.Delta(e.getKey().bucketStart(), e.getKey().status(),
+                        e.getKey().currency(), e.getValue()[0], e.getValue()[1]))
+                .toList();
+        transactionTemplate.executeWithoutResult(tx -> {
+            rollupRepository.deleteBefore(until);
+            rollupRepository.addAll(deltas, LocalDateTime.now());
+        });
+        logger.info("Rebuilt {} rollup rows before {} from {} orders", deltas.size(), until, orders[0]);
+        return new BackfillResult(orders[0], deltas.size(), until);
+    }
+
+    public List<PaymentRollupRow> find(LocalDateTime from, LocalDateTime to, boolean daily,
+                                       PaymentStatus status, String currency) {
+        return rollupRepository.find(from, to, daily, status, currency);
+    }
+
+    private void add(Key key, long count, long amountMinor) {
+        Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+        cell.count.add(count);
+        cell.amountMinor.add(amountMinor);
+    }
+
+    private static void accumulate(Map<Key, long[]> totals, Key key, long amountMinor) {
+        long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+        total[0]++;
+        total[1] = Money.add(total[1], amountMinor);
+    }
+
+    private static LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Key(LocalDateTime bucketStart, PaymentStatus status, String currency) {
+    }
+
+    private record Unresolved(String razorpayOrderId, LocalDateTime bucketStart, PaymentStatus status) {
+    }
+
+    private static final class Cell {
+        final LongAdder count = new LongAdder();
+        final LongAdder amountMinor = new LongAdder();
+    }
+
+    public record BackfillResult(long orders, int rows, LocalDateTime until) {
+    }
+}
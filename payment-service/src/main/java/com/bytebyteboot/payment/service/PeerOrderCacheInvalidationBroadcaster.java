@@ -0,0 +1,50 @@
+package com.bytebyteboot.payment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Fire-and-forget HTTP invalidation to a static list of peers. A lost message only costs
+ * staleness up to the cache TTL. Each request carries the shared peer secret in
+ * {@value #SECRET_HEADER}, which the receiving replica checks before invalidating.
+ */
+public class PeerOrderCacheInvalidationBroadcaster implements OrderCacheInvalidationBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerOrderCacheInvalidationBroadcaster.class);
+
+    public static final String SECRET_HEADER = "X-Peer-Secret";
+
+    private final List<String> peers;
+    private final String secret;
+    private final RestClient restClient;
+    private final ExecutorService executor;
+
+    public PeerOrderCacheInvalidationBroadcaster(List<String> peers, String secret, RestClient restClient,
+                                                 ExecutorService executor) {
+        this.peers = List.copyOf(peers);
+        this.secret = secret;
+        this.restClient = restClient;
+        this.executor = executor;
+    }
+
+    @Override
+    public void broadcast(String razorpayOrderId) {
+        for (String peer : peers) {
+            executor.execute(() -> {
+                try {
+                    restClient.post()
+                            .uri(peer + "/api/internal/cache/orders/{orderId}/invalidate", razorpayOrderId)
+                            .header(SECRET_HEADER, secret)
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (Exception e) {
+                    logger.warn("Could not invalidate order {} on {}: {}", razorpayOrderId, peer, e.getMessage());
+                }
+            });
+        }
+    }
+}
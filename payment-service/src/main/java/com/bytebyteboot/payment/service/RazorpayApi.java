@@ -0,0 +1,19 @@
+package com.bytebyteboot.payment.service;
+
+import com.razorpay.Order;
+import com.razorpay.Payment;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * The part of the Razorpay REST API this service uses. Backed by the Razorpay SDK, or by plain
+ * HTTP against {@code razorpay.base-url} when that is set (e.g. a local stand-in for load tests).
+ */
+public interface RazorpayApi {
+
+    Order createOrder(JSONObject orderRequest) throws RazorpayException;
+
+    List<Payment> fetchPayments(String razorpayOrderId) throws RazorpayException;
+}
@@ -0,0 +1,101 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.exception.PaymentException;
+import com.razorpay.Order;
+import com.razorpay.Payment;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Outbound calls to the Razorpay API. Calls run on the dedicated virtual-thread executor so
+ * that waiting on the network never ties up a platform thread or a database connection, behind
+ * the timeout, bulkhead, concurrency limit and circuit breaker of {@link ResilientCallExecutor}.
+ * Each {@link Lane} has its own executor, so batch work cannot use up the budget of checkout.
+ */
+@Component
+public class RazorpayGateway {
+
+    private final RazorpayApi razorpayApi;
+    private final ResilientCallExecutor razorpayCallExecutor;
+    private final ResilientCallExecutor razorpayBatchCallExecutor;
+    private final PaymentMetrics paymentMetrics;
+
+    @Autowired
+    public RazorpayGateway(RazorpayApi razorpayApi,
+                           @Qualifier("razorpayCallExecutor") ResilientCallExecutor razorpayCallExecutor,
+                           @Qualifier("razorpayBatchCallExecutor") ResilientCallExecutor razorpayBatchCallExecutor,
+                           PaymentMetrics paymentMetrics) {
+        this.razorpayApi = razorpayApi;
+        this.razorpayCallExecutor = razorpayCallExecutor;
+        this.razorpayBatchCallExecutor = razorpayBatchCallExecutor;
+        this.paymentMetrics = paymentMetrics;
+    }
+
+    public Order createOrder(JSONObject orderRequest) throws RazorpayException {
+        return createOrder(orderRequest, Lane.INTERACTIVE);
+    }
+
+    public Order createOrder(JSONObject orderRequest, Lane lane) throws RazorpayException {
+        return call(lane, "orders.create", () -> razorpayApi.createOrder(orderRequest));
+    }
+
+    /**
+     * All payment attempts made against an order, used to reconcile orders whose webhooks never arrived.
+     */
+    public List<Payment> fetchPayments(String razorpayOrderId) throws RazorpayException {
+        return fetchPayments(razorpayOrderId, Lane.INTERACTIVE);
+    }
+
+    public List<Payment> fetchPayments(String razorpayOrderId, Lane lane) throws RazorpayException {
+        return call(lane, "orders.fetchPayments", () -> razorpayApi.fetchPayments(razorpayOrderId));
+    }
+
+    /**
+     * Whether an error says something about Razorpay's health. Rejected requests
+     * ({@code BAD_REQUEST_ERROR}) are the caller's problem and must not open the breaker.
+     */
+    public static boolean isGatewayFailure(Throwable error) {
+        return !(error instanceof RazorpayException)
+                || error.getMessage() == null
+                || !error.getMessage().startsWith("BAD_REQUEST_ERROR");
+    }
+
+    private <T> T call(Lane lane, String operation, Callable<T> request) throws RazorpayException {
+        ResilientCallExecutor executor = lane == Lane.BATCH ? razorpayBatchCallExecutor : razorpayCallExecutor;
+        try {
+            return executor.execute(() -> {
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    T result = request.call();
+                    success = true;
+                    return result;
+                } finally {
+                    paymentMetrics.recordRazorpayCall(operation, success, start);
+                }
+            });
+        } catch (RazorpayException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentException("Interrupted while calling Razorpay " + operation, e);
+        } catch (Exception e) {
+            throw new PaymentException("Razorpay " + operation + " failed", e);
+        }
+    }
+
+    /**
+     * Which budget a call draws on. {@code INTERACTIVE} calls have a customer waiting and are shed
+     * quickly under load; {@code BATCH} calls (bulk creation, reconciliation) wait for a slot instead.
+     */
+    public enum Lane {
+        INTERACTIVE,
+        BATCH
+    }
+}
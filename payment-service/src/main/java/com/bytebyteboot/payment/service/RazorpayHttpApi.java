@@ -0,0 +1,97 @@
+package com.bytebyteboot.payment.service;
+
+import com.razorpay.Order;
+import com.razorpay.Payment;
+import com.razorpay.RazorpayException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Calls the Razorpay v1 REST endpoints directly with basic auth, against a configurable base URL.
+ * Error bodies are turned into {@link RazorpayException}s with the SDK's {@code CODE:description}
+ * message, so callers cannot tell the two implementations apart.
+ */
+public class RazorpayHttpApi implements RazorpayApi {
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String authorization;
+    private final Duration timeout;
+
+    public RazorpayHttpApi(String baseUrl, String keyId, String keySecret, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public Order createOrder(JSONObject orderRequest) throws RazorpayException {
+        HttpRequest request = request("/v1/orders")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(orderRequest.toString()))
+                .build();
+        return new Order(send(request));
+    }
+
+    @Override
+    public List<Payment> fetchPayments(String razorpayOrderId) throws RazorpayException {
+        HttpRequest request = request("/v1/orders/"
+                + URLEncoder.encode(razorpayOrderId, StandardCharsets.UTF_8) + "/payments")
+                .GET()
+                .build();
+        JSONArray items = send(request).optJSONArray("items");
+        List<Payment> payments = new ArrayList<>();
+        if (items != null) {
+            for (int i = 0; i < items.length(); i++) {
+                payments.add(new Payment(items.getJSONObject(i)));
+            }
+        }
+        return payments;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+    }
+
+    private JSONObject send(HttpRequest request) throws RazorpayException {
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            RazorpayException exception = new RazorpayException(e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RazorpayException("Interrupted calling " + request.uri());
+        }
+
+        JSONObject body = response.body().isEmpty() ? new JSONObject() : new JSONObject(response.body());
+        if (response.statusCode() >= 200 && response.statusCode() < 300) {
+            return body;
+        }
+        JSONObject error = body.optJSONObject("error");
+        String code = error == null ? "SERVER_ERROR" : error.optString("code", "SERVER_ERROR");
+        String description = error == null ? "HTTP " + response.statusCode() : error.optString("description");
+        throw new RazorpayException(code + ":" + description);
+    }
+}
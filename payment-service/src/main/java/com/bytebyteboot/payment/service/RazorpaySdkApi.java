@@ -0,0 +1,28 @@
+package com.bytebyteboot.payment.service;
+
+import com.razorpay.Order;
+import com.razorpay.Payment;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+
+import java.util.List;
+
+public class RazorpaySdkApi implements RazorpayApi {
+
+    private final RazorpayClient razorpayClient;
+
+    public RazorpaySdkApi(RazorpayClient razorpayClient) {
+        this.razorpayClient = razorpayClient;
+    }
+
+    @Override
+    public Order createOrder(JSONObject orderRequest) throws RazorpayException {
+        return razorpayClient.orders.create(orderRequest);
+    }
+
+    @Override
+    public List<Payment> fetchPayments(String razorpayOrderId) throws RazorpayException {
+        return razorpayClient.orders.fetchPayments(razorpayOrderId);
+    }
+}
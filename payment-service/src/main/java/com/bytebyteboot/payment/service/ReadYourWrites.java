@@ -0,0 +1,81 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.ReplicaRoutingProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Remembers which orders and client sessions changed within the read-your-writes window, and pins
+ * their reads to the primary so a customer polling right after paying does not get a replica's
+ * stale CREATED. The pin is a thread-local consulted by the routing data source when a read-only
+ * transaction first touches the database.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWrites;
+
+    @Autowired
+    public ReadYourWrites(ReplicaRoutingProperties replicaRoutingProperties) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(replicaRoutingProperties.getMaxPinnedKeys())
+                .expireAfterWrite(replicaRoutingProperties.getReadYourWritesWindow())
+                .build();
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public void recordOrderWrite(String razorpayOrderId) {
+        if (razorpayOrderId != null) {
+            recentWrites.put("order:" + razorpayOrderId, Boolean.TRUE);
+        }
+    }
+
+    public void recordSessionWrite(String sessionId) {
+        recentWrites.put("session:" + sessionId, Boolean.TRUE);
+    }
+
+    public boolean isSessionPinned(String sessionId) {
+        return recentWrites.getIfPresent("session:" + sessionId) != null;
+    }
+
+    /**
+     * Runs a read of one order, on the primary if the order changed within the window.
+     */
+    public <T> T readOrder(String razorpayOrderId, Supplier<T> read) {
+        if (recentWrites.getIfPresent("order:" + razorpayOrderId) == null) {
+            return read.get();
+        }
+        return onPrimary(read);
+    }
+
+    public <T> T onPrimary(Supplier<T> read) {
+        try (Pin pin = pinToPrimary()) {
+            return read.get();
+        }
+    }
+
+    /**
+     * Routes this thread's transactions to the primary until the returned pin is closed.
+     */
+    public Pin pinToPrimary() {
+        if (isPrimaryRequired()) {
+            return () -> { };
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        return PRIMARY_REQUIRED::remove;
+    }
+
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
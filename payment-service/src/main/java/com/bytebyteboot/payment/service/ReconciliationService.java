@@ -0,0 +1,314 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.ReconciliationProperties;
+import com.bytebyteboot.payment.dto.PaymentOrderCursor;
+import com.bytebyteboot.payment.exception.GatewayUnavailableException;
+import com.bytebyteboot.payment.journal.JournalEvent;
+import com.bytebyteboot.payment.journal.PaymentJournal;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.model.ReconciliationCheckpoint;
+import com.bytebyteboot.payment.repository.PaymentOrderBatchRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderQueryRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderQueryRepository.OrderRef;
+import com.bytebyteboot.payment.repository.ReconciliationCheckpointRepository;
+import com.razorpay.Payment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repairs orders left in CREATED or ATTEMPTED because their webhook never arrived.
+ * <p>
+ * Each status is scanned oldest-first in keyset chunks. The payments of every order in a chunk are
+ * fetched from Razorpay on virtual threads, bounded by a semaphore and a token bucket sized to the
+ * API quota, through the batch lane of {@link RazorpayGateway} so the job neither competes with
+ * checkout for its budget nor is shed by it. Fetches the gateway still turns away are left for the
+ * next pass rather than counted as errors. The corrections of a chunk are written as one JDBC batch of compare-and-set updates
+ * in the same transaction that advances the checkpoint, so a restarted run resumes after the last
+ * completed chunk. A lease on the checkpoint row keeps replicas from scanning the same status.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private static final List<PaymentStatus> CANDIDATE_STATUSES = List.of(PaymentStatus.CREATED, PaymentStatus.ATTEMPTED);
+
+    private final RazorpayGateway razorpayGateway;
+    private final PaymentOrderQueryRepository paymentOrderQueryRepository;
+    private final PaymentOrderBatchRepository paymentOrderBatchRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final OrderCache orderCache;
+    private final PaymentMetrics paymentMetrics;
+    private final ReadYourWrites readYourWrites;
+    private final PaymentRollups paymentRollups;
+    private final PaymentJournal paymentJournal;
+    private final PaymentOutbox paymentOutbox;
+    private final ReconciliationProperties reconciliationProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter checkedCounter;
+    private final Counter correctedCounter;
+    private final Counter errorCounter;
+    private final Counter deferredCounter;
+    private final Timer chunkTimer;
+
+    @Autowired
+    public ReconciliationService(RazorpayGateway razorpayGateway,
+                                 PaymentOrderQueryRepository paymentOrderQueryRepository,
+                                 PaymentOrderBatchRepository paymentOrderBatchRepository,
+                                 ReconciliationCheckpointRepository checkpointRepository,
+                                 OrderCache orderCache,
+                                 PaymentMetrics paymentMetrics,
+                                 ReadYourWrites readYourWrites,
+                                 PaymentRollups paymentRollups,
+                                 PaymentJournal paymentJournal,
+                                 PaymentOutbox paymentOutbox,
+                                 ReconciliationProperties reconciliationProperties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.razorpayGateway = razorpayGateway;
+        this.paymentOrderQueryRepository = paymentOrderQueryRepository;
+        this.paymentOrderBatchRepository = paymentOrderBatchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.orderCache = orderCache;
+        this.paymentMetrics = paymentMetrics;
+        this.readYourWrites = readYourWrites;
+        this.paymentRollups = paymentRollups;
+        this.paymentJournal = paymentJournal;
+        this.paymentOutbox = paymentOutbox;
+        this.reconciliationProperties = reconciliationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkedCounter = Counter.builder("payment.reconciliation.checked").register(meterRegistry);
+        this.correctedCounter = Counter.builder("payment.reconciliation.corrected").register(meterRegistry);
+        this.errorCounter = Counter.builder("payment.reconciliation.errors").register(meterRegistry);
+        this.deferredCounter = Counter.builder("payment.reconciliation.deferred").register(meterRegistry);
+        this.chunkTimer = Timer.builder("payment.reconciliation.chunk.duration").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${payment.reconciliation.interval:PT5M}",
+            fixedDelayString = "${payment.reconciliation.interval:PT5M}")
+    public void scheduledReconcile() {
+        if (reconciliationProperties.isEnabled()) {
+            reconcile();
+        }
+    }
+
+    public ReconciliationResult reconcile() {
+        TokenBucket rateLimiter = new TokenBucket(
+                reconciliationProperties.getPermitsPerSecond(), reconciliationProperties.getBurst());
+        int checked = 0;
+        int corrected = 0;
+        for (PaymentStatus status : CANDIDATE_STATUSES) {
+            String name = "reconciliation:" + status.name();
+            if (!checkpointRepository.tryAcquireLease(name, reconciliationProperties.getLease())) {
+                logger.debug("Reconciliation of {} orders is running elsewhere", status);
+                continue;
+            }
+            try {
+                ReconciliationResult result = reconcileStatus(name, status, rateLimiter);
+                checked += result.checked();
+                corrected += result.corrected();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Reconciliation interrupted; resuming from the checkpoint on the next run");
+                break;
+            } finally {
+                checkpointRepository.releaseLease(name, LocalDateTime.now());
+            }
+        }
+        if (checked > 0) {
+            logger.info("Reconciled {} orders, corrected {}", checked, corrected);
+        }
+        return new ReconciliationResult(checked, corrected);
+    }
+
+    private ReconciliationResult reconcileStatus(String name, PaymentStatus status, TokenBucket rateLimiter)
+            throws InterruptedException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime from = startedAt.minus(reconciliationProperties.getMaxAge());
+        LocalDateTime to = startedAt.minus(reconciliationProperties.getMinAge());
+        int chunkSize = reconciliationProperties.getChunkSize();
+
+        ReconciliationCheckpoint checkpoint = checkpointRepository.findById(name).orElseThrow();
+        PaymentOrderCursor after = checkpoint.getLastId() == null
+                ? null
+                : new PaymentOrderCursor(checkpoint.getLastCreatedAt(), checkpoint.getLastId());
+
+        int checked = 0;
+        int corrected = 0;
+        while (true) {
+            long chunkStart = System.nanoTime();
+            List<OrderRef> chunk = paymentOrderQueryRepository.findByStatusAfter(status, from, to, after, chunkSize);
+            List<Correction> corrections = chunk.isEmpty() ? List.of() : fetchCorrections(status, chunk, rateLimiter);
+
+            // A short chunk ends the pass; clearing the position makes the next run start over
+            boolean passComplete = chunk.size() < chunkSize;
+            OrderRef last = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1);
+            PaymentOrderCursor position = passComplete ? null : new PaymentOrderCursor(last.createdAt(), last.id());
+            Integer applied = transactionTemplate.execute(tx -> {
+                LocalDateTime now = LocalDateTime.now();
+                int count = applyCorrections(corrections, now);
+                checkpointRepository.advance(name,
+                        position == null ? null : position.createdAt(),
+                        position == null ? null : position.id(),
+                        now.plus(reconciliationProperties.getLease()), now);
+                return count;
+            });
+
+            checked += chunk.size();
+            corrected += applied;
+            checkedCounter.increment(chunk.size());
+            correctedCounter.increment(applied);
+            chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+            if (passComplete) {
+                return new ReconciliationResult(checked, corrected);
+            }
+            after = position;
+        }
+    }
+
+    private List<Correction> fetchCorrections(PaymentStatus status, List<OrderRef> chunk, TokenBucket rateLimiter)
+            throws InterruptedException {
+        Semaphore permits = new Semaphore(reconciliationProperties.getMaxConcurrency());
+        List<Future<Correction>> futures = new ArrayList<>(chunk.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (OrderRef ref : chunk) {
+                permits.acquire();
+                rateLimiter.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return decide(ref.razorpayOrderId(), status,
+                                razorpayGateway.fetchPayments(ref.razorpayOrderId(), RazorpayGateway.Lane.BATCH));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<Correction> corrections = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    Correction correction = futures.get(i).get();
+                    if (correction != null) {
+                        corrections.add(correction);
+                    }
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof GatewayUnavailableException) {
+                        // Shed or timed out: the order is still a candidate and comes up again next pass
+                        deferredCounter.increment();
+                        logger.debug("Deferred order {}: {}", chunk.get(i).razorpayOrderId(), e.getCause().getMessage());
+                        continue;
+                    }
+                    errorCounter.increment();
+                    logger.warn("Could not fetch payments for order {}: {}",
+                            chunk.get(i).razorpayOrderId(), e.getCause().getMessage());
+                }
+            }
+            return corrections;
+        }
+    }
+
+    /**
+     * Derives the status an order should be in from its Razorpay payments, or null when it is
+     * already right. A captured payment wins over any failed attempt; an order whose only
+     * successful payment was since fully refunded is REFUNDED.
+     */
+    static Correction decide(String razorpayOrderId, PaymentStatus current, List<Payment> payments) {
+        String capturedPaymentId = null;
+        String refundedPaymentId = null;
+        boolean authorized = false;
+        boolean allFailed = !payments.isEmpty();
+        for (Payment payment : payments) {
+            String paymentStatus = payment.get("status");
+            if ("captured".equals(paymentStatus)) {
+                capturedPaymentId = payment.get("id");
+            } else if ("refunded".equals(paymentStatus)) {
+                refundedPaymentId = payment.get("id");
+            } else if ("authorized".equals(paymentStatus)) {
+                authorized = true;
+            }
+            allFailed &= "failed".equals(paymentStatus);
+        }
+
+        if (capturedPaymentId != null) {
+            return new Correction(razorpayOrderId, PaymentStatus.PAID, capturedPaymentId);
+        }
+        if (refundedPaymentId != null) {
+            return new Correction(razorpayOrderId, PaymentStatus.REFUNDED, refundedPaymentId);
+        }
+        if (authorized && current == PaymentStatus.CREATED) {
+            return new Correction(razorpayOrderId, PaymentStatus.ATTEMPTED, null);
+        }
+        if (allFailed) {
+            return new Correction(razorpayOrderId, PaymentStatus.FAILED, null);
+        }
+        return null;
+    }
+
+    private int applyCorrections(List<Correction> corrections, LocalDateTime now) {
+        Map<PaymentStatus, List<Correction>> byTarget = new EnumMap<>(PaymentStatus.class);
+        for (Correction correction : corrections) {
+            if (correction.target() == PaymentStatus.REFUNDED) {
+                // Only PAID orders can be refunded, so the order first records the payment it missed;
+                // EnumMap order applies the PAID group before the REFUNDED one
+                byTarget.computeIfAbsent(PaymentStatus.PAID, t -> new ArrayList<>())
+                        .add(new Correction(correction.razorpayOrderId(), PaymentStatus.PAID, correction.razorpayPaymentId()));
+            }
+            byTarget.computeIfAbsent(correction.target(), t -> new ArrayList<>()).add(correction);
+        }
+
+        Set<String> applied = new HashSet<>();
+        for (Map.Entry<PaymentStatus, List<Correction>> entry : byTarget.entrySet()) {
+            List<Correction> group = entry.getValue();
+            int[] results = paymentOrderBatchRepository.applyTransitions(entry.getKey(),
+                    PaymentOrderStateMachine.predecessorsOf(entry.getKey()),
+                    group.stream().map(Correction::razorpayOrderId).toList(),
+                    group.stream().map(Correction::razorpayPaymentId).toList(),
+                    now);
+            List<String> updatedIds = new ArrayList<>(results.length);
+            for (int i = 0; i < results.length; i++) {
+                boolean updated = results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO;
+                paymentMetrics.recordTransition(entry.getKey(), updated);
+                if (updated) {
+                    applied.add(group.get(i).razorpayOrderId());
+                    updatedIds.add(group.get(i).razorpayOrderId());
+                    orderCache.invalidateAfterCommit(group.get(i).razorpayOrderId());
+                    readYourWrites.recordOrderWrite(group.get(i).razorpayOrderId());
+                    paymentRollups.record(group.get(i).razorpayOrderId(), entry.getKey());
+                    paymentJournal.appendAfterCommit(JournalEvent.statusChanged(
+                            group.get(i).razorpayOrderId(), entry.getKey(), group.get(i).razorpayPaymentId()));
+                }
+            }
+            paymentOutbox.recordAll(entry.getKey(), updatedIds);
+        }
+        return applied.size();
+    }
+
+    record Correction(String razorpayOrderId, PaymentStatus target, String razorpayPaymentId) {
+    }
+
+    public record ReconciliationResult(int checked, int corrected) {
+    }
+}
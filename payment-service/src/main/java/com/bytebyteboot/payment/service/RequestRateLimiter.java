@@ -0,0 +1,309 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.RateLimitProperties;
+import com.bytebyteboot.payment.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Request budgets per client IP, customer email and customer phone for the order-creating
+ * endpoints, checked by the controller before any service work, Razorpay call or insert.
+ * <p>
+ * Each (endpoint, dimension, value) key has a token bucket held as one theoretical arrival time
+ * (the generic cell rate algorithm): admitting a request is a single compare-and-set that pushes
+ * the time forward by one emission interval, allowed while it stays within {@code burst} intervals
+ * of now. There are no locks and no refill bookkeeping. Buckets live in a cache bounded by
+ * {@code max-keys} that drops idle ones, so a flood of distinct keys costs memory only up to the bound.
+ * <p>
+ * One request takes a token from each of its dimensions in turn, so a request rejected on its
+ * email has still used a token of its IP.
+ * <p>
+ * The {@value #TRACKED_OFFENDERS} most rejected keys are kept in a ranking, so the offender gauges
+ * and the actuator view read that short list instead of walking every bucket. A rejection only
+ * increments its bucket's counter; a bucket that could enter the ranking is also queued once, and
+ * the ranking is rebuilt from the queue off the request path, every second and before each read.
+ */
+@Component
+public class RequestRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestRateLimiter.class);
+
+    public static final String CREATE_ORDER = "create-order";
+    public static final String BULK_CREATE_ORDERS = "bulk-create-orders";
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    static final int TRACKED_OFFENDERS = 100;
+
+    private final RateLimitProperties rateLimitProperties;
+    private final Cache<String, Bucket> buckets;
+    private final Map<String, Map<Dimension, Counter>> rejections = new HashMap<>();
+    // Most rejected buckets as of the last refresh, most rejected first; guarded by itself
+    private final List<Bucket> ranking = new ArrayList<>();
+    // Rejected buckets waiting to be considered for the ranking, each at most once
+    private final Queue<Bucket> candidates = new ConcurrentLinkedQueue<>();
+    // Rejections a bucket must exceed to enter a full ranking
+    private volatile long rankingFloor;
+    private final LongAdder offenders = new LongAdder();
+    private final LongSupplier clock;
+
+    @Autowired
+    public RequestRateLimiter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        this(rateLimitProperties, meterRegistry, System::nanoTime);
+    }
+
+    RequestRateLimiter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxKeys())
+                .expireAfterAccess(rateLimitProperties.getIdleExpiry())
+                .evictionListener((String key, Bucket bucket, RemovalCause cause) -> forget(bucket))
+                .build();
+
+        for (String endpoint : rateLimitProperties.getEndpoints().keySet()) {
+            Map<Dimension, Counter> counters = new EnumMap<>(Dimension.class);
+            for (Dimension dimension : Dimension.values()) {
+                counters.put(dimension, Counter.builder("payment.ratelimit.rejected")
+                        .tag("endpoint", endpoint)
+                        .tag("dimension", dimension.tag)
+                        .register(meterRegistry));
+            }
+            rejections.put(endpoint, counters);
+        }
+        Gauge.builder("payment.ratelimit.keys", buckets, Cache::estimatedSize)
+                .description("Rate limit buckets currently tracked")
+                .register(meterRegistry);
+        Gauge.builder("payment.ratelimit.offenders", offenders, LongAdder::sum)
+                .description("Tracked keys with at least one rejected request")
+                .register(meterRegistry);
+        Gauge.builder("payment.ratelimit.top.rejections", this, limiter -> limiter.topRejections())
+                .description("Rejections of the most rejected tracked key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from each limited dimension of the request, or throws
+     * {@link RateLimitExceededException} for the first one that is exhausted. Null or blank values
+     * are not limited.
+     */
+    public void check(String endpoint, String clientIp, String customerEmail, String customerPhone) {
+        if (!rateLimitProperties.isEnabled()) {
+            return;
+        }
+        RateLimitProperties.Endpoint limits = rateLimitProperties.getEndpoints().get(endpoint);
+        if (limits == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        acquire(endpoint, Dimension.IP, clientIp, limits.getIp(), now);
+        if (customerEmail != null) {
+            acquire(endpoint, Dimension.EMAIL, customerEmail.trim().toLowerCase(Locale.ROOT), limits.getCustomer(), now);
+        }
+        acquire(endpoint, Dimension.PHONE, customerPhone, limits.getCustomer(), now);
+    }
+
+    public String clientIp(HttpServletRequest request) {
+        if (rateLimitProperties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Tracked keys with the most rejections since they were first seen, most rejected first, up to
+     * {@value #TRACKED_OFFENDERS}. Emails and phone numbers are masked.
+     */
+    public List<Offender> topOffenders(int limit) {
+        List<Bucket> ranked;
+        synchronized (ranking) {
+            refreshRanking();
+            ranked = new ArrayList<>(ranking);
+        }
+        return ranked.stream()
+                .map(bucket -> new Offender(bucket.endpoint, bucket.dimension.tag,
+                        bucket.dimension.mask(bucket.value), bucket.rejected.get()))
+                .sorted(Comparator.comparingLong(Offender::rejected).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void acquire(String endpoint, Dimension dimension, String value, RateLimitProperties.Limit limit, long now) {
+        if (limit == null || value == null || value.isBlank()) {
+            return;
+        }
+        long intervalNanos = (long) (1_000_000_000L / limit.getPermitsPerSecond());
+        Bucket bucket = buckets.get(endpoint + '|' + dimension.tag + '|' + value,
+                key -> new Bucket(endpoint, dimension, value, now));
+        long waitNanos = bucket.tryAcquire(now, intervalNanos, limit.getBurst());
+        if (waitNanos > 0) {
+            long rejected = bucket.rejected.incrementAndGet();
+            if (rejected == 1) {
+                offenders.increment();
+            }
+            if (!bucket.ranked && rejected > rankingFloor && bucket.queued.compareAndSet(false, true)) {
+                candidates.add(bucket);
+            }
+            rejections.get(endpoint).get(dimension).increment();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Rate limited {} by {}: {}", endpoint, dimension.tag, dimension.mask(value));
+            }
+            throw new RateLimitExceededException("Too many requests for this " + dimension.description
+                    + ", retry later", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Rebuilds the ranking from the buckets ranked so far and those queued since, dropping evicted
+     * ones. Counters keep moving while this runs, so they are read once and sorted as read.
+     */
+    @Scheduled(fixedDelayString = "PT1S")
+    public void refreshRanking() {
+        synchronized (ranking) {
+            Bucket candidate;
+            while ((candidate = candidates.poll()) != null) {
+                candidate.queued.set(false);
+                if (!candidate.ranked) {
+                    candidate.ranked = true;
+                    ranking.add(candidate);
+                }
+            }
+            List<Ranked> snapshot = new ArrayList<>(ranking.size());
+            for (Bucket bucket : ranking) {
+                if (bucket.evicted) {
+                    bucket.ranked = false;
+                } else {
+                    snapshot.add(new Ranked(bucket, bucket.rejected.get()));
+                }
+            }
+            snapshot.sort(Comparator.comparingLong(Ranked::rejected).reversed());
+
+            ranking.clear();
+            for (Ranked ranked : snapshot) {
+                if (ranking.size() < TRACKED_OFFENDERS) {
+                    ranking.add(ranked.bucket());
+                } else {
+                    ranked.bucket().ranked = false;
+                }
+            }
+            rankingFloor = ranking.size() < TRACKED_OFFENDERS ? 0 : snapshot.get(TRACKED_OFFENDERS - 1).rejected();
+        }
+    }
+
+    private void forget(Bucket bucket) {
+        if (bucket == null) {
+            return;
+        }
+        if (bucket.rejected.get() > 0) {
+            offenders.decrement();
+        }
+        // Dropped from the ranking on the next refresh
+        bucket.evicted = true;
+    }
+
+    private long topRejections() {
+        synchronized (ranking) {
+            refreshRanking();
+            return ranking.isEmpty() ? 0 : ranking.get(0).rejected.get();
+        }
+    }
+
+    enum Dimension {
+        IP("ip", "client"),
+        EMAIL("email", "customer"),
+        PHONE("phone", "customer");
+
+        private final String tag;
+        private final String description;
+
+        Dimension(String tag, String description) {
+            this.tag = tag;
+            this.description = description;
+        }
+
+        String mask(String value) {
+            return switch (this) {
+                case IP -> value;
+                case EMAIL -> {
+                    int at = value.indexOf('@');
+                    yield at < 0 ? "***" : (at <= 1 ? "" : value.substring(0, 1)) + "***" + value.substring(at);
+                }
+                case PHONE -> value.length() <= 4 ? "****" : "*".repeat(value.length() - 4) + value.substring(value.length() - 4);
+            };
+        }
+    }
+
+    static final class Bucket {
+
+        private final String endpoint;
+        private final Dimension dimension;
+        private final String value;
+        // Theoretical arrival time of the next request, in System.nanoTime units
+        private final AtomicLong arrival;
+        private final AtomicLong rejected = new AtomicLong();
+        // Written under the ranking lock; read without it to skip buckets already ranked
+        private volatile boolean ranked;
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile boolean evicted;
+
+        Bucket(String endpoint, Dimension dimension, String value, long now) {
+            this.endpoint = endpoint;
+            this.dimension = dimension;
+            this.value = value;
+            this.arrival = new AtomicLong(now);
+        }
+
+        /**
+         * Returns 0 when a token was taken, otherwise how long until one is available.
+         */
+        long tryAcquire(long now, long intervalNanos, int burst) {
+            long capacityNanos = intervalNanos * burst;
+            while (true) {
+                long current = arrival.get();
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                long ahead = next - now;
+                if (ahead > capacityNanos) {
+                    return ahead - capacityNanos;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private record Ranked(Bucket bucket, long rejected) {
+    }
+
+    public record Offender(String endpoint, String dimension, String key, long rejected) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.GatewayResilienceProperties;
+import com.bytebyteboot.payment.exception.GatewayUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Runs outbound calls on a dedicated executor behind, in order: a bulkhead (bounded wait for one of
+ * a fixed number of slots), an AIMD concurrency limit, and a circuit breaker. Calls that get through
+ * are bounded by a timeout. Anything shed or timed out surfaces as {@link GatewayUnavailableException},
+ * so the calling request thread is never held longer than the bulkhead and limit waits plus the timeout.
+ * <p>
+ * Timeouts, slow calls and exceptions matching {@code isFailure} shrink the limit and count against
+ * the breaker; other exceptions (client errors) are passed through without affecting either.
+ */
+public class ResilientCallExecutor {
+
+    private final String name;
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+    private final long slowCallNanos;
+    private final long maxWaitNanos;
+    private final long limitWaitNanos;
+    private final Semaphore bulkhead;
+    private final AimdConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final Predicate<Throwable> isFailure;
+    private final Counter bulkheadRejections;
+    private final Counter limitRejections;
+    private final Counter circuitRejections;
+    private final Counter timeouts;
+
+    public ResilientCallExecutor(String name,
+                                 ExecutorService executor,
+                                 Duration timeout,
+                                 GatewayResilienceProperties properties,
+                                 Predicate<Throwable> isFailure,
+                                 MeterRegistry meterRegistry) {
+        this.name = name;
+        this.executor = executor;
+        this.timeoutNanos = timeout.toNanos();
+        this.slowCallNanos = properties.getSlowCallThreshold().toNanos();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.limitWaitNanos = properties.getLimitWait().toNanos();
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+        this.limiter = new AimdConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+                Math.min(properties.getMaxLimit(), properties.getMaxConcurrentCalls()), properties.getBackoffRatio());
+        this.circuitBreaker = new CircuitBreaker(properties.getWindowSize(), properties.getMinimumCalls(),
+                properties.getFailureRateThreshold(), properties.getOpenDuration(), properties.getHalfOpenCalls());
+        this.isFailure = isFailure;
+
+        String prefix = "payment.gateway";
+        Gauge.builder(prefix + ".bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("gateway", name)
+                .register(meterRegistry);
+        Gauge.builder(prefix + ".concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .tag("gateway", name)
+                .register(meterRegistry);
+        Gauge.builder(prefix + ".concurrency.in_flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .tag("gateway", name)
+                .register(meterRegistry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder(prefix + ".circuit.state", circuitBreaker, cb -> cb.getState() == state ? 1 : 0)
+                    .tag("gateway", name)
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        this.bulkheadRejections = rejections(meterRegistry, prefix, "bulkhead");
+        this.limitRejections = rejections(meterRegistry, prefix, "limit");
+        this.circuitRejections = rejections(meterRegistry, prefix, "circuit_open");
+        this.timeouts = rejections(meterRegistry, prefix, "timeout");
+    }
+
+    public <T> T execute(Callable<T> call) throws Exception {
+        if (!bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+            bulkheadRejections.increment();
+            throw new GatewayUnavailableException(name + " is saturated, too many calls in flight");
+        }
+        try {
+            if (!limiter.tryAcquire(limitWaitNanos)) {
+                limitRejections.increment();
+                throw new GatewayUnavailableException(name + " concurrency limit reached");
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                limiter.onIgnored();
+                circuitRejections.increment();
+                throw new GatewayUnavailableException(name + " is unavailable, circuit breaker is open");
+            }
+            return invoke(call);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private <T> T invoke(Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(call);
+        } catch (RuntimeException e) {
+            // Rejected or shut down: the call never ran, so it must not hold its slot or permit
+            limiter.onIgnored();
+            circuitBreaker.releasePermission();
+            throw new GatewayUnavailableException(name + " could not start the call", e);
+        }
+        try {
+            T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            onCompleted(System.nanoTime() - start);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            onFailed();
+            throw new GatewayUnavailableException(name + " did not respond within "
+                    + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            limiter.onIgnored();
+            circuitBreaker.releasePermission();
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (isFailure.test(cause)) {
+                onFailed();
+            } else {
+                onCompleted(System.nanoTime() - start);
+            }
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    private void onCompleted(long elapsedNanos) {
+        if (elapsedNanos > slowCallNanos) {
+            onFailed();
+        } else {
+            limiter.onSuccess();
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private void onFailed() {
+        limiter.onDropped();
+        circuitBreaker.onFailure();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public int getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+
+    private Counter rejections(MeterRegistry meterRegistry, String prefix, String reason) {
+        return Counter.builder(prefix + ".rejected")
+                .tag("gateway", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.bytebyteboot.payment.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: {@code levels} rings of {@code wheelSize} slots, where a slot of level
+ * {@code n} spans {@code wheelSize^n} ticks. Scheduling appends to the slot of the level whose span
+ * fits the delay, so it is O(1) whatever the number of pending items. Advancing one tick drains a
+ * single level-0 slot; each time a lower ring wraps, the next slot of the ring above is cascaded
+ * down into finer slots. Items further out than the top ring can reach are parked in its last slot
+ * and placed again when it cascades.
+ * <p>
+ * Items fire on the first {@link #advance} at or after their deadline, at most one tick late, and
+ * items whose deadline has already passed when scheduled fire on the next advance. Not thread-safe.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[][] slots;
+    private final List<T> overdue = new ArrayList<>();
+    // Every tick up to and including this one has been processed
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 2
+                || Integer.numberOfTrailingZeros(wheelSize) * levels >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick=" + tickMillis + "ms, size=" + wheelSize
+                    + ", levels=" + levels);
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.slots = new ArrayDeque[levels][wheelSize];
+        for (ArrayDeque<Entry<T>>[] level : slots) {
+            for (int i = 0; i < wheelSize; i++) {
+                level[i] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    void schedule(T item, long deadlineMillis) {
+        // Rounded up so an item never fires before its deadline
+        long tick = Math.floorDiv(deadlineMillis, tickMillis) + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        place(new Entry<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns every item that became due, in no
+     * particular order.
+     */
+    List<T> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>(overdue);
+        overdue.clear();
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = 1; level < slots.length && (currentTick & ((1L << (bits * level)) - 1)) == 0; level++) {
+                cascade(slots[level][slot(currentTick, level)]);
+            }
+            ArrayDeque<Entry<T>> slot = slots[0][slot(currentTick, 0)];
+            for (Entry<T> entry : slot) {
+                due.add(entry.item());
+            }
+            slot.clear();
+            // Cascading puts items due exactly now on the overdue list
+            due.addAll(overdue);
+            overdue.clear();
+        }
+        size -= due.size();
+        return due;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void cascade(ArrayDeque<Entry<T>> slot) {
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries) {
+            place(entry);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delay = entry.tick() - currentTick;
+        if (delay <= 0) {
+            overdue.add(entry.item());
+            return;
+        }
+        int top = slots.length - 1;
+        int level = 0;
+        while (level < top && delay >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        if (level == top && delay >= 1L << (bits * (top + 1))) {
+            // Beyond the top ring: park in the slot it reaches last, from where the item is placed again
+            slots[top][(int) (((currentTick >>> (bits * top)) - 1) & mask)].add(entry);
+            return;
+        }
+        slots[level][slot(entry.tick(), level)].add(entry);
+    }
+
+    private int slot(long tick, int level) {
+        return (int) ((tick >>> (bits * level)) & mask);
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.bytebyteboot.payment.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking token bucket. A caller that finds the bucket empty reserves the next token (the balance
+ * goes negative) and sleeps outside the lock until it is due, so waiters are spaced at the refill
+ * rate instead of waking together.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
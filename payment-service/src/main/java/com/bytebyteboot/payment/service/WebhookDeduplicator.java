@@ -0,0 +1,267 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.WebhookProperties;
+import com.bytebyteboot.payment.repository.WebhookEventKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recognises webhook events that were already applied, so Razorpay's redeliveries are acknowledged
+ * without being parsed, looked up or written again.
+ * <p>
+ * An event is keyed by the first 128 bits of a SHA-256 over its {@code x-razorpay-event-id}, or
+ * over the payload when the header is missing. A lookup goes through three tiers and stops at the
+ * first that can answer: a Bloom filter, which rules out unseen keys with a few word reads; a
+ * bounded cache of recent keys; and the webhook_event_keys table, read only for keys the filter
+ * reports as possibly seen. The filter is loaded from the table on startup, so a restart keeps
+ * answering correctly.
+ * <p>
+ * Both webhook paths check a key before doing any work and record it in the transaction that
+ * applied its event: {@link PaymentOrderService#handleWebhook} on the synchronous path, and the
+ * worker batch in {@link PaymentOrderService#processWebhookDeliveries} when webhooks are queued.
+ * The queueing path also checks on intake, so a redelivery of an applied event takes no queue
+ * slot. A delivery that failed or was rolled back is therefore processed again when it is retried.
+ * Copies queued before the first was applied, or first seen by another replica, may be applied once
+ * more, which the compare-and-set transitions absorb.
+ * <p>
+ * The filter cannot forget keys; it is replaced by a fresh generation every half retention and the
+ * previous one is kept, so a key stays visible for at least half the retention.
+ */
+@Component
+public class WebhookDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDeduplicator.class);
+
+    private static final int CLEANUP_BATCH_SIZE = 5000;
+
+    private static final byte[] EVENT_ID_PREFIX = "event-id:".getBytes(StandardCharsets.UTF_8);
+
+    private final WebhookEventKeyRepository webhookEventKeyRepository;
+    private final WebhookProperties.Dedup dedupProperties;
+    private final Cache<EventKey, Boolean> recentKeys;
+    private volatile BloomFilter currentFilter;
+    private volatile BloomFilter previousFilter;
+    private volatile long generationStartNanos = System.nanoTime();
+    private final Counter memoryDuplicates;
+    private final Counter databaseDuplicates;
+    private final Counter uniqueEvents;
+    private final Counter falsePositives;
+    private final Timer processingTimer;
+
+    @Autowired
+    public WebhookDeduplicator(WebhookEventKeyRepository webhookEventKeyRepository,
+                               WebhookProperties webhookProperties,
+                               MeterRegistry meterRegistry) {
+        this.webhookEventKeyRepository = webhookEventKeyRepository;
+        this.dedupProperties = webhookProperties.getDedup();
+        this.recentKeys = Caffeine.newBuilder().maximumSize(dedupProperties.getCacheSize()).build();
+        this.currentFilter = newFilter();
+
+        this.memoryDuplicates = duplicateCounter("memory", meterRegistry);
+        this.databaseDuplicates = duplicateCounter("database", meterRegistry);
+        this.uniqueEvents = Counter.builder("payment.webhook.dedup.unique")
+                .description("Webhook events seen for the first time")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("payment.webhook.dedup.false.positives")
+                .description("Unseen events the Bloom filter sent to the database")
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("payment.webhook.dedup.processing")
+                .description("Work done for a first delivery, which each duplicate skips")
+                .register(meterRegistry);
+        Gauge.builder("payment.webhook.dedup.hit.ratio", this, dedup -> dedup.hitRatio())
+                .description("Share of webhook deliveries rejected as duplicates")
+                .register(meterRegistry);
+        Gauge.builder("payment.webhook.dedup.saved", this, dedup -> dedup.savedSeconds())
+                .description("Estimated processing time saved by rejecting duplicates")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void seed() {
+        if (!dedupProperties.isEnabled()) {
+            return;
+        }
+        BloomFilter filter = currentFilter;
+        long[] seeded = new long[1];
+        webhookEventKeyRepository.streamSince(LocalDateTime.now().minus(dedupProperties.getRetention()),
+                dedupProperties.getSeedFetchSize(), (high, low) -> {
+                    filter.put(high, low);
+                    seeded[0]++;
+                });
+        logger.info("Webhook dedup filter loaded with {} event keys", seeded[0]);
+    }
+
+    public EventKey keyOf(String eventId, byte[] payload) {
+        MessageDigest digest = sha256();
+        if (eventId != null && !eventId.isBlank()) {
+            digest.update(EVENT_ID_PREFIX);
+            digest.update(eventId.trim().getBytes(StandardCharsets.UTF_8));
+        } else {
+            digest.update(payload);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new EventKey(hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * Whether the event was applied before. Lookup failures count as not seen, since applying an
+     * event twice is safe.
+     */
+    public boolean isDuplicate(EventKey key) {
+        if (!dedupProperties.isEnabled()) {
+            return false;
+        }
+        if (!mightContain(key)) {
+            uniqueEvents.increment();
+            return false;
+        }
+        if (recentKeys.getIfPresent(key) != null) {
+            memoryDuplicates.increment();
+            return true;
+        }
+        try {
+            if (webhookEventKeyRepository.exists(key.high(), key.low())) {
+                recentKeys.put(key, Boolean.TRUE);
+                databaseDuplicates.increment();
+                return true;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Webhook dedup lookup failed, processing the event: {}", e.getMessage());
+        }
+        falsePositives.increment();
+        uniqueEvents.increment();
+        return false;
+    }
+
+    /**
+     * Records an event that has just been applied. {@code startNanos} is when its processing began.
+     * Inside a transaction the key is written with it and only becomes visible in memory once it
+     * commits, so a rolled-back event is not rejected when Razorpay retries it.
+     */
+    public void recordProcessed(EventKey key, long startNanos) {
+        if (!dedupProperties.isEnabled()) {
+            return;
+        }
+        processingTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        try {
+            webhookEventKeyRepository.insert(key.high(), key.low(), LocalDateTime.now());
+        } catch (RuntimeException e) {
+            logger.warn("Could not persist webhook event key: {}", e.getMessage());
+        }
+        afterCommit(() -> {
+            currentFilter.put(key.high(), key.low());
+            recentKeys.put(key, Boolean.TRUE);
+        });
+    }
+
+    /**
+     * Records the events of a batch that have just been applied together, spreading the batch's
+     * processing time from {@code startNanos} across them.
+     */
+    public void recordProcessed(List<EventKey> keys, long startNanos) {
+        if (!dedupProperties.isEnabled() || keys.isEmpty()) {
+            return;
+        }
+        long share = (System.nanoTime() - startNanos) / keys.size();
+        for (EventKey key : keys) {
+            recordProcessed(key, System.nanoTime() - share);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${payment.webhook.dedup.cleanup-interval:PT1H}",
+            fixedDelayString = "${payment.webhook.dedup.cleanup-interval:PT1H}")
+    public void cleanup() {
+        if (!dedupProperties.isEnabled()) {
+            return;
+        }
+        if (System.nanoTime() - generationStartNanos >= dedupProperties.getRetention().dividedBy(2).toNanos()) {
+            previousFilter = currentFilter;
+            currentFilter = newFilter();
+            generationStartNanos = System.nanoTime();
+            logger.info("Started a new webhook dedup filter generation");
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(dedupProperties.getRetention());
+        int deleted = 0;
+        int batch;
+        do {
+            batch = webhookEventKeyRepository.deleteBefore(cutoff, CLEANUP_BATCH_SIZE);
+            deleted += batch;
+        } while (batch == CLEANUP_BATCH_SIZE);
+        if (deleted > 0) {
+            logger.info("Deleted {} webhook event keys received before {}", deleted, cutoff);
+        }
+    }
+
+    private boolean mightContain(EventKey key) {
+        BloomFilter previous = previousFilter;
+        return currentFilter.mightContain(key.high(), key.low())
+                || (previous != null && previous.mightContain(key.high(), key.low()));
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(dedupProperties.getExpectedEvents(), dedupProperties.getFalsePositiveRate());
+    }
+
+    private double hitRatio() {
+        double duplicates = memoryDuplicates.count() + databaseDuplicates.count();
+        double total = duplicates + uniqueEvents.count();
+        return total == 0 ? 0 : duplicates / total;
+    }
+
+    private double savedSeconds() {
+        return (memoryDuplicates.count() + databaseDuplicates.count()) * processingTimer.mean(TimeUnit.SECONDS);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Counter duplicateCounter(String tier, MeterRegistry meterRegistry) {
+        return Counter.builder("payment.webhook.dedup.duplicates")
+                .description("Webhook deliveries rejected as already applied")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record EventKey(long high, long low) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.RazorpayWebhookEvent;
+import com.bytebyteboot.payment.exception.PaymentException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Streaming reader for Razorpay webhook payloads.
+ * <p>
+ * Walks the raw body with a Jackson {@link JsonParser} and materializes only {@code event},
+ * {@code created_at} and the ids under {@code payload.payment|order|refund.entity}. Every other
+ * value is skipped without being decoded, and parsing stops as soon as the top-level fields it
+ * needs have been read.
+ */
+@Component
+public class WebhookEventParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public RazorpayWebhookEvent parse(byte[] body) {
+        return parse(body, 0, body.length);
+    }
+
+    public RazorpayWebhookEvent parse(byte[] body, int offset, int length) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body, offset, length)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new PaymentException("Malformed webhook payload", e);
+        }
+    }
+
+    public RazorpayWebhookEvent parse(String body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new PaymentException("Malformed webhook payload", e);
+        }
+    }
+
+    private static RazorpayWebhookEvent read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new PaymentException("Webhook payload is not a JSON object");
+        }
+
+        Fields fields = new Fields();
+        boolean payloadRead = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "event" -> fields.event = parser.getValueAsString();
+                case "created_at" -> fields.createdAt = parser.getValueAsLong();
+                case "payload" -> {
+                    readPayload(parser, value, fields);
+                    payloadRead = true;
+                }
+                default -> parser.skipChildren();
+            }
+            if (fields.event != null && fields.createdAt != 0 && payloadRead) {
+                break;
+            }
+        }
+
+        if (fields.event == null) {
+            throw new PaymentException("Webhook payload has no event");
+        }
+        String orderId = fields.event.startsWith("order.") && fields.orderEntityId != null
+                ? fields.orderEntityId
+                : fields.paymentOrderId;
+        return new RazorpayWebhookEvent(fields.event, orderId, fields.paymentId, fields.refundId,
+                fields.refundStatus, fields.createdAt);
+    }
+
+    private static void readPayload(JsonParser parser, JsonToken start, Fields fields) throws IOException {
+        if (start != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String entityType = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT
+                    && (entityType.equals("payment") || entityType.equals("order") || entityType.equals("refund"))) {
+                readWrapper(parser, entityType, fields);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // {"entity": {...}} wrapper around each payload entity
+    private static void readWrapper(JsonParser parser, String entityType, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals("entity") && value == JsonToken.START_OBJECT) {
+                readEntity(parser, entityType, fields);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readEntity(JsonParser parser, String entityType, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (entityType) {
+                case "payment" -> {
+                    switch (name) {
+                        case "id" -> fields.paymentId = parser.getValueAsString();
+                        case "order_id" -> fields.paymentOrderId = parser.getValueAsString();
+                        case "refund_status" -> fields.refundStatus = parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+                case "order" -> {
+                    if (name.equals("id")) {
+                        fields.orderEntityId = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> {
+                    if (name.equals("id")) {
+                        fields.refundId = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Fields {
+        private String event;
+        private long createdAt;
+        private String paymentId;
+        private String paymentOrderId;
+        private String orderEntityId;
+        private String refundId;
+        private String refundStatus;
+    }
+}
@@ -0,0 +1,264 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.WebhookProperties;
+import com.bytebyteboot.payment.model.WebhookDelivery;
+import com.bytebyteboot.payment.repository.WebhookDeliveryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable, bounded webhook queue. Deliveries are persisted as PENDING rows before Razorpay is
+ * acknowledged, then drained in batches by a fixed pool of workers. A semaphore sized to the
+ * queue capacity provides backpressure: once it is exhausted new deliveries are rejected so
+ * Razorpay retries them later.
+ * <p>
+ * Each queued row is claimed by this instance for {@code claim-lease}. A periodic re-scan, also run
+ * on startup, claims PENDING rows whose lease has lapsed, in pages sized to the free queue slots,
+ * with {@code FOR UPDATE SKIP LOCKED} so replicas scanning at once take disjoint rows. That picks
+ * up batches that failed here, deliveries left by a stopped instance and any backlog larger than
+ * the queue.
+ */
+@Service
+public class WebhookIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookIngestionService.class);
+
+    // A re-scan page fills this many worker batches
+    private static final int RESCAN_PAGE_BATCHES = 10;
+
+    private final PaymentOrderService paymentOrderService;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final WebhookProperties webhookProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+
+    private final BlockingQueue<Long> queue;
+    private final Semaphore permits;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter reclaimedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer batchTimer;
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    @Autowired
+    public WebhookIngestionService(PaymentOrderService paymentOrderService,
+                                   WebhookDeliveryRepository webhookDeliveryRepository,
+                                   WebhookProperties webhookProperties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.paymentOrderService = paymentOrderService;
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.webhookProperties = webhookProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.instanceId = instanceId();
+        this.queue = new ArrayBlockingQueue<>(webhookProperties.getQueueCapacity());
+        this.permits = new Semaphore(webhookProperties.getQueueCapacity());
+
+        Gauge.builder("payment.webhook.queue.depth", queue, BlockingQueue::size)
+                .description("Webhook deliveries waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("payment.webhook.queue.remaining", permits, Semaphore::availablePermits)
+                .description("Free slots before new webhook deliveries are rejected")
+                .register(meterRegistry);
+        this.acceptedCounter = Counter.builder("payment.webhook.accepted").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("payment.webhook.rejected")
+                .description("Webhook deliveries rejected because the queue was full")
+                .register(meterRegistry);
+        this.processedCounter = Counter.builder("payment.webhook.processed").register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.webhook.failed").register(meterRegistry);
+        this.reclaimedCounter = Counter.builder("payment.webhook.reclaimed")
+                .description("PENDING deliveries claimed by the re-scan after their lease lapsed")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("payment.webhook.batch.size").register(meterRegistry);
+        this.batchTimer = Timer.builder("payment.webhook.batch.duration").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!webhookProperties.isAsyncEnabled()) {
+            return;
+        }
+
+        running = true;
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(webhookProperties.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "webhook-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < webhookProperties.getWorkers(); i++) {
+            workers.submit(this::drainLoop);
+        }
+        rescan();
+        logger.info("Started {} webhook workers as {} (queue capacity {}, batch size {})", webhookProperties.getWorkers(),
+                instanceId, webhookProperties.getQueueCapacity(), webhookProperties.getBatchSize());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (workers == null) {
+            return;
+        }
+
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(webhookProperties.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        // Anything still queued remains PENDING in the database and is re-scanned once its claim lapses
+        logger.info("Stopped webhook workers with {} deliveries still queued", queue.size());
+    }
+
+    /**
+     * Persists the raw delivery and queues it for the workers.
+     *
+     * @return false if the queue is full and the delivery was not accepted
+     */
+    public boolean enqueue(String payload, String eventId) {
+        if (!permits.tryAcquire()) {
+            rejectedCounter.increment();
+            return false;
+        }
+
+        try {
+            WebhookDelivery delivery = new WebhookDelivery(payload, eventId);
+            delivery.claim(instanceId, LocalDateTime.now().plus(webhookProperties.getClaimLease()));
+            delivery = webhookDeliveryRepository.save(delivery);
+            queue.add(delivery.getId());
+            acceptedCounter.increment();
+            return true;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private static String instanceId() {
+        String host = System.getenv().getOrDefault("HOSTNAME", "local");
+        String id = host + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        return id.length() <= 64 ? id : id.substring(id.length() - 64);
+    }
+
+    /**
+     * Claims PENDING deliveries that no instance holds and queues them, a page at a time, until the
+     * queue is full or none are left. Returns the number claimed.
+     */
+    @Scheduled(initialDelayString = "${payment.webhook.rescan-interval:PT30S}",
+            fixedDelayString = "${payment.webhook.rescan-interval:PT30S}")
+    public synchronized int rescan() {
+        if (!running) {
+            return 0;
+        }
+        int claimed = 0;
+        try {
+            while (running) {
+                int room = Math.min(permits.availablePermits(), webhookProperties.getBatchSize() * RESCAN_PAGE_BATCHES);
+                if (room == 0 || !permits.tryAcquire(room)) {
+                    break;
+                }
+                List<Long> ids = claimPage(room);
+                permits.release(room - ids.size());
+                queue.addAll(ids);
+                claimed += ids.size();
+                if (ids.size() < room) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Webhook re-scan failed: {}", e.getMessage());
+        }
+        if (claimed > 0) {
+            reclaimedCounter.increment(claimed);
+            logger.info("Claimed {} pending webhook deliveries", claimed);
+        }
+        return claimed;
+    }
+
+    private List<Long> claimPage(int limit) {
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> claimable = webhookDeliveryRepository.lockClaimableIds(now, limit);
+                if (!claimable.isEmpty()) {
+                    webhookDeliveryRepository.claim(claimable, instanceId, now.plus(webhookProperties.getClaimLease()));
+                }
+                return claimable;
+            });
+            return ids == null ? List.of() : ids;
+        } catch (RuntimeException e) {
+            permits.release(limit);
+            throw e;
+        }
+    }
+
+    private void drainLoop() {
+        int batchSize = webhookProperties.getBatchSize();
+        List<Long> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Long first = queue.poll(webhookProperties.getPollTimeoutMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                if (!batch.isEmpty()) {
+                    permits.release(batch.size());
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void processBatch(List<Long> batch) {
+        batchSizeSummary.record(batch.size());
+        try {
+            int processed = batchTimer.recordCallable(() -> paymentOrderService.processWebhookDeliveries(batch, instanceId));
+            processedCounter.increment(processed);
+        } catch (Exception e) {
+            // The rows stay PENDING and are claimed again by a re-scan once their lease lapses
+            failedCounter.increment(batch.size());
+            logger.error("Failed to process webhook batch of {} deliveries: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Which instance's in-memory queue holds a PENDING delivery, and until when. Deliveries whose claim
+-- has lapsed (the instance stopped, or its batch failed) are claimed again by any instance's re-scan.
+
+ALTER TABLE webhook_deliveries
+    ADD COLUMN claimed_by VARCHAR(64) NULL,
+    ADD COLUMN claimed_until DATETIME(6) NULL;
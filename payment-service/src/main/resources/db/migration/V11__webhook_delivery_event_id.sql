@@ -0,0 +1,5 @@
+-- The x-razorpay-event-id of a queued delivery, so the worker that applies it can record the
+-- event's deduplication key in the same transaction.
+
+ALTER TABLE webhook_deliveries
+    ADD COLUMN event_id VARCHAR(128) NULL;
@@ -0,0 +1,13 @@
+-- Raw webhook deliveries accepted by the asynchronous ingestion mode and applied by its workers.
+
+CREATE TABLE webhook_deliveries (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    payload      MEDIUMTEXT   NOT NULL,
+    status       VARCHAR(32)  NOT NULL,
+    received_at  DATETIME(6)  NOT NULL,
+    processed_at DATETIME(6),
+    error        VARCHAR(512),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_webhook_deliveries_status ON webhook_deliveries (status, id);
@@ -0,0 +1,2 @@
+-- Keyset pagination and the NDJSON export walk orders by (created_at, id).
+CREATE INDEX idx_payment_orders_created_at_id ON payment_orders (created_at, id);
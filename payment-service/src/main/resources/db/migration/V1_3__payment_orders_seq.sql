@@ -0,0 +1,9 @@
+-- Emulated sequence for pooled payment order ids (allocation size 50). Rows inserted while ids were
+-- IDENTITY-generated must stay below it, so it starts one block past the highest existing id.
+
+CREATE TABLE payment_orders_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO payment_orders_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM payment_orders;
@@ -0,0 +1,14 @@
+-- Stored responses for requests carrying an Idempotency-Key.
+
+CREATE TABLE idempotency_records (
+    idempotency_key VARCHAR(320) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(32)  NOT NULL,
+    response_status INT,
+    response_body   MEDIUMTEXT,
+    created_at      DATETIME(6)  NOT NULL,
+    expires_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_idempotency_records_expires_at ON idempotency_records (expires_at);
@@ -0,0 +1,21 @@
+-- Schema as ddl-auto generated it before Flyway was introduced. Existing databases are baselined
+-- at this version (spring.flyway.baseline-on-migrate) and skip this script, so it must not contain
+-- anything those databases lack; later tables get their own versions.
+
+CREATE TABLE payment_orders (
+    id                  BIGINT         NOT NULL AUTO_INCREMENT,
+    razorpay_order_id   VARCHAR(255)   NOT NULL,
+    razorpay_payment_id VARCHAR(255),
+    razorpay_signature  VARCHAR(255),
+    amount              DECIMAL(19, 2) NOT NULL,
+    currency            VARCHAR(255)   NOT NULL,
+    receipt             VARCHAR(255)   NOT NULL,
+    status              ENUM ('CREATED', 'ATTEMPTED', 'PAID', 'FAILED', 'CANCELLED') NOT NULL,
+    customer_email      VARCHAR(255),
+    customer_phone      VARCHAR(255),
+    created_at          DATETIME(6)    NOT NULL,
+    updated_at          DATETIME(6),
+    notes               TEXT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payment_orders_razorpay_order_id UNIQUE (razorpay_order_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,9 @@
+-- ddl-auto created the status column as a native ENUM and razorpay_order_id as NOT NULL (see V1);
+-- relax both so new statuses need no further migrations and rows can exist before the gateway call.
+ALTER TABLE payment_orders MODIFY razorpay_order_id VARCHAR(255) NULL;
+ALTER TABLE payment_orders MODIFY status VARCHAR(32) NOT NULL;
+
+-- Finder indexes: findByStatus / reconciliation sweeps, per-customer history, payment-id lookups
+CREATE INDEX idx_payment_orders_status_created_at ON payment_orders (status, created_at);
+CREATE INDEX idx_payment_orders_email_created_at ON payment_orders (customer_email, created_at);
+CREATE INDEX idx_payment_orders_payment_id ON payment_orders (razorpay_payment_id);
@@ -0,0 +1 @@
+ALTER TABLE payment_orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+CREATE TABLE reconciliation_checkpoints (
+    name            VARCHAR(64) NOT NULL,
+    last_created_at DATETIME(6),
+    last_id         BIGINT,
+    lease_until     DATETIME(6),
+    updated_at      DATETIME(6),
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
@@ -0,0 +1,30 @@
+-- Cold tier for terminal orders past payment.archive.min-age. Range-partitioned by month on
+-- created_at so old months can be dropped or moved wholesale; the archiver splits p_future into
+-- monthly partitions ahead of the rows it moves. Partitioned tables need the partition column in
+-- every unique key, so razorpay_order_id is indexed but not unique here.
+
+CREATE TABLE payment_orders_archive (
+    id                  BIGINT         NOT NULL,
+    razorpay_order_id   VARCHAR(255),
+    razorpay_payment_id VARCHAR(255),
+    razorpay_signature  VARCHAR(255),
+    amount              DECIMAL(19, 2) NOT NULL,
+    currency            VARCHAR(255)   NOT NULL,
+    receipt             VARCHAR(255)   NOT NULL,
+    status              VARCHAR(32)    NOT NULL,
+    customer_email      VARCHAR(255),
+    customer_phone      VARCHAR(255),
+    created_at          DATETIME(6)    NOT NULL,
+    updated_at          DATETIME(6),
+    notes               TEXT,
+    version             BIGINT         NOT NULL,
+    archived_at         DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id, created_at)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED
+PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2020-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+CREATE INDEX idx_payment_orders_archive_order_id ON payment_orders_archive (razorpay_order_id);
+CREATE INDEX idx_payment_orders_archive_email_created_at ON payment_orders_archive (customer_email, created_at);
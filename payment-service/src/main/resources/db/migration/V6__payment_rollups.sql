@@ -0,0 +1,12 @@
+-- Hourly status-transition totals, maintained incrementally by PaymentRollups and rebuilt for past
+-- hours by the backfill. amount_minor is in the currency's minor unit (paise for INR).
+
+CREATE TABLE payment_rollups (
+    bucket_start     DATETIME    NOT NULL,
+    status           VARCHAR(32) NOT NULL,
+    currency         VARCHAR(16) NOT NULL,
+    transition_count BIGINT      NOT NULL,
+    amount_minor     BIGINT      NOT NULL,
+    updated_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (bucket_start, status, currency)
+) ENGINE = InnoDB;
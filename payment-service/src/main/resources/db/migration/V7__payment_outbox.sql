@@ -0,0 +1,21 @@
+-- Status-change events written in the same transaction as the status update and published by
+-- OutboxRelay. partition_key spreads orders over relay leases while keeping each order's events
+-- in one partition, and so in order.
+
+CREATE TABLE payment_outbox (
+    id                  BIGINT         NOT NULL AUTO_INCREMENT,
+    partition_key       INT            NOT NULL,
+    razorpay_order_id   VARCHAR(255)   NOT NULL,
+    status              VARCHAR(32)    NOT NULL,
+    razorpay_payment_id VARCHAR(255),
+    amount              DECIMAL(19, 2) NOT NULL,
+    currency            VARCHAR(255)   NOT NULL,
+    occurred_at         DATETIME(6)    NOT NULL,
+    published_at        DATETIME(6),
+    attempts            INT            NOT NULL DEFAULT 0,
+    last_error          VARCHAR(512),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_payment_outbox_pending ON payment_outbox (partition_key, published_at, id);
+CREATE INDEX idx_payment_outbox_published_at ON payment_outbox (published_at);
@@ -0,0 +1,35 @@
+-- Amounts become exact counts of the currency's minor units (see Money): amount_minor is the
+-- authoritative value and amount is widened to four decimals so three-decimal currencies such as
+-- KWD are no longer rounded. Existing rows were all written at two decimals; their minor units
+-- follow the exponent the JDK's ISO 4217 table gives their currency, which Money reads them back
+-- with, including withdrawn zero-decimal codes such as ITL. Both MODIFY statements rebuild the tables.
+
+ALTER TABLE payment_orders
+    MODIFY amount DECIMAL(19, 4) NOT NULL,
+    ADD COLUMN amount_minor BIGINT NULL AFTER amount;
+
+UPDATE payment_orders SET amount_minor = ROUND(amount * CASE
+    WHEN currency IN ('ADP', 'BEF', 'BIF', 'BYB', 'BYR', 'CLP', 'DJF', 'ESP', 'GNF', 'GRD', 'ISK', 'ITL',
+                      'JPY', 'KMF', 'KRW', 'LUF', 'MGF', 'PTE', 'PYG', 'ROL', 'RWF', 'TPE', 'TRL', 'UGX',
+                      'UYI', 'VND', 'VUV', 'XAF', 'XOF', 'XPF') THEN 1
+    WHEN currency IN ('BHD', 'IQD', 'JOD', 'KWD', 'LYD', 'OMR', 'TND') THEN 1000
+    WHEN currency IN ('CLF') THEN 10000
+    ELSE 100 END);
+
+ALTER TABLE payment_orders MODIFY amount_minor BIGINT NOT NULL;
+
+ALTER TABLE payment_orders_archive
+    MODIFY amount DECIMAL(19, 4) NOT NULL,
+    ADD COLUMN amount_minor BIGINT NULL AFTER amount;
+
+UPDATE payment_orders_archive SET amount_minor = ROUND(amount * CASE
+    WHEN currency IN ('ADP', 'BEF', 'BIF', 'BYB', 'BYR', 'CLP', 'DJF', 'ESP', 'GNF', 'GRD', 'ISK', 'ITL',
+                      'JPY', 'KMF', 'KRW', 'LUF', 'MGF', 'PTE', 'PYG', 'ROL', 'RWF', 'TPE', 'TRL', 'UGX',
+                      'UYI', 'VND', 'VUV', 'XAF', 'XOF', 'XPF') THEN 1
+    WHEN currency IN ('BHD', 'IQD', 'JOD', 'KWD', 'LYD', 'OMR', 'TND') THEN 1000
+    WHEN currency IN ('CLF') THEN 10000
+    ELSE 100 END);
+
+ALTER TABLE payment_orders_archive MODIFY amount_minor BIGINT NOT NULL;
+
+ALTER TABLE payment_outbox MODIFY amount DECIMAL(19, 4) NOT NULL;
@@ -0,0 +1,12 @@
+-- Webhook events already applied, for WebhookDeduplicator. The key is the first 128 bits of a
+-- SHA-256 over the x-razorpay-event-id header, or over the payload when the header is missing,
+-- so each row is a fixed 24 bytes whatever the event.
+
+CREATE TABLE webhook_event_keys (
+    key_high    BIGINT      NOT NULL,
+    key_low     BIGINT      NOT NULL,
+    received_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (key_high, key_low)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_webhook_event_keys_received_at ON webhook_event_keys (received_at);
@@ -0,0 +1,24 @@
+package com.bytebyteboot.payment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Starts the application with the shipped application.yml, swapping only the database for an
+ * in-memory one, so every scheduling interval and binding in the default configuration is parsed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:default_config;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class DefaultConfigurationContextTest {
+
+    @Test
+    void contextLoadsWithDefaultConfiguration() {
+    }
+}
@@ -0,0 +1,106 @@
+package com.bytebyteboot.payment.config;
+
+import com.bytebyteboot.payment.service.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final HikariDataSource replica1 = mock(HikariDataSource.class);
+    private final HikariDataSource replica2 = mock(HikariDataSource.class);
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(new ReplicaRoutingProperties());
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        doReturn(replica1Connection).when(replica1).getConnection();
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        when(replica1Connection.isValid(1)).thenReturn(true);
+        when(replica2Connection.isValid(1)).thenReturn(true);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2));
+    }
+
+    @AfterEach
+    void clearReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writesGoToThePrimary() throws SQLException {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyTransactionsAreBalancedOverReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(replica1Connection, replica2Connection, replica1Connection);
+    }
+
+    @Test
+    void pinnedReadsGoToThePrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readYourWrites.recordOrderWrite("order_pinned");
+
+        Connection pinned = readYourWrites.readOrder("order_pinned", this::connection);
+        Connection unpinned = readYourWrites.readOrder("order_other", this::connection);
+
+        assertThat(pinned).isSameAs(primaryConnection);
+        assertThat(unpinned).isNotSameAs(primaryConnection);
+    }
+
+    @Test
+    void failingReplicaLeavesRotationUntilHealthy() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getHealthyReplicas()).isEqualTo(1);
+        assertThat(List.of(routing.getConnection(), routing.getConnection()))
+                .containsOnly(replica2Connection);
+
+        doReturn(replica1Connection).when(replica1).getConnection();
+        routing.checkHealth(Duration.ofSeconds(1));
+        assertThat(routing.getHealthyReplicas()).isEqualTo(2);
+    }
+
+    @Test
+    void noHealthyReplicaFallsBackToThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica1Connection.isValid(1)).thenReturn(false);
+        when(replica2.getConnection()).thenThrow(new SQLException("timeout"));
+
+        routing.checkHealth(Duration.ofSeconds(1));
+
+        assertThat(routing.getHealthyReplicas()).isZero();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    private Connection connection() {
+        try {
+            return routing.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
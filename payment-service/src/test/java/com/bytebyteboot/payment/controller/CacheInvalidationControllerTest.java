@@ -0,0 +1,36 @@
+package com.bytebyteboot.payment.controller;
+
+import com.bytebyteboot.payment.config.OrderCacheProperties;
+import com.bytebyteboot.payment.service.OrderCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationControllerTest {
+
+    @Test
+    void acceptsOnlyRequestsCarryingThePeerSecret() {
+        CacheInvalidationController controller = controller("s3cret");
+
+        assertThat(controller.invalidateOrder("order_1", "s3cret").getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(controller.invalidateOrder("order_1", "guess").getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.invalidateOrder("order_1", null).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void refusesEveryRequestWithoutAConfiguredSecret() {
+        CacheInvalidationController controller = controller(null);
+
+        assertThat(controller.invalidateOrder("order_1", null).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.invalidateOrder("order_1", "").getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    private static CacheInvalidationController controller(String peerSecret) {
+        OrderCacheProperties properties = new OrderCacheProperties();
+        properties.setPeerSecret(peerSecret);
+        OrderCache orderCache = new OrderCache(properties, razorpayOrderId -> { }, new SimpleMeterRegistry());
+        return new CacheInvalidationController(orderCache, properties);
+    }
+}
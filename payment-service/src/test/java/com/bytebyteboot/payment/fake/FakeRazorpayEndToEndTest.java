@@ -0,0 +1,139 @@
+package com.bytebyteboot.payment.fake;
+
+import com.bytebyteboot.payment.dto.PaymentOrderRequest;
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.dto.PaymentVerificationRequest;
+import com.bytebyteboot.payment.fake.FakeRazorpayServer.SimulatedPayment;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.service.RazorpayGateway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the service against {@link FakeRazorpayServer} over real HTTP in both directions: order
+ * creation and payment fetches go out to the fake, signed webhooks come back in.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class FakeRazorpayEndToEndTest {
+
+    private static final FakeRazorpayServer razorpay = startServer();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RazorpayGateway razorpayGateway;
+
+    @DynamicPropertySource
+    static void razorpayProperties(DynamicPropertyRegistry registry) {
+        registry.add("razorpay.base-url", razorpay::baseUrl);
+        registry.add("razorpay.key-id", () -> "rzp_test_fake");
+        registry.add("razorpay.key-secret", () -> "fake_key_secret");
+        registry.add("razorpay.webhook-secret", () -> "fake_webhook_secret");
+    }
+
+    @BeforeEach
+    void pointWebhooksAtTheService() {
+        razorpay.setWebhookUrl("http://localhost:" + port + "/api/webhooks/razorpay");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        razorpay.close();
+    }
+
+    @Test
+    void webhookCaptureMarksTheOrderPaid() throws Exception {
+        PaymentOrderResponse order = createOrder("rcpt_e2e_webhook");
+        assertThat(order.status()).isEqualTo(PaymentStatus.CREATED);
+        assertThat(order.razorpayOrderId()).startsWith("order_");
+
+        SimulatedPayment payment = razorpay.pay(order.razorpayOrderId());
+        assertThat(razorpay.sendWebhook("payment.captured", payment)).isEqualTo(200);
+
+        PaymentOrderResponse paid = restTemplate.getForObject(
+                "/api/payments/order/{id}", PaymentOrderResponse.class, order.razorpayOrderId());
+        assertThat(paid.status()).isEqualTo(PaymentStatus.PAID);
+        assertThat(paid.razorpayPaymentId()).isEqualTo(payment.razorpayPaymentId());
+        assertThat(razorpayGateway.fetchPayments(order.razorpayOrderId()))
+                .extracting(p -> (String) p.get("id"))
+                .containsExactly(payment.razorpayPaymentId());
+    }
+
+    @Test
+    void checkoutSignatureVerifies() {
+        PaymentOrderResponse order = createOrder("rcpt_e2e_verify");
+        SimulatedPayment payment = razorpay.pay(order.razorpayOrderId());
+
+        ResponseEntity<PaymentOrderResponse> verified = restTemplate.postForEntity("/api/payments/verify",
+                new PaymentVerificationRequest(payment.razorpayOrderId(), payment.razorpayPaymentId(),
+                        payment.signature()),
+                PaymentOrderResponse.class);
+
+        assertThat(verified.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(verified.getBody().status()).isEqualTo(PaymentStatus.PAID);
+    }
+
+    @Test
+    void rejectsOrdersBelowTheMinimumAmount() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/payments/create-order",
+                new PaymentOrderRequest(new BigDecimal("0.50"), "INR", "rcpt_e2e_small", null, null, null),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void exportWritesOneLinePerOrderAndNothingWhenNoneMatch() {
+        PaymentOrderResponse order = createOrder("rcpt_e2e_export", "export@example.com");
+
+        String exported = restTemplate.getForObject("/api/payments/orders/export?email={email}", String.class,
+                "export@example.com");
+        String empty = restTemplate.getForObject("/api/payments/orders/export?email={email}", String.class,
+                "nobody@example.com");
+
+        assertThat(exported).endsWith("\n").doesNotEndWith("\n\n");
+        assertThat(exported.split("\n")).singleElement().asString().contains(order.razorpayOrderId());
+        assertThat(empty).isNullOrEmpty();
+    }
+
+    private PaymentOrderResponse createOrder(String receipt) {
+        return createOrder(receipt, "e2e@example.com");
+    }
+
+    private PaymentOrderResponse createOrder(String receipt, String customerEmail) {
+        ResponseEntity<PaymentOrderResponse> response = restTemplate.postForEntity("/api/payments/create-order",
+                new PaymentOrderRequest(new BigDecimal("499.00"), "INR", receipt, customerEmail, null, null),
+                PaymentOrderResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+
+    private static FakeRazorpayServer startServer() {
+        try {
+            return new FakeRazorpayServer("rzp_test_fake", "fake_key_secret", "fake_webhook_secret").start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.bytebyteboot.payment.fake;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Razorpay API, for tests and load runs that must not leave the machine.
+ * <p>
+ * Serves {@code POST /v1/orders} and {@code GET /v1/orders/{id}/payments} with the same bodies and
+ * error format as Razorpay, after an injected latency and with an injected server-error rate (see
+ * {@link Profile}). Payments are simulated explicitly with {@link #pay} or {@link #fail}, which
+ * return the checkout signature, and {@link #sendWebhook} delivers the matching event to the
+ * service signed with the webhook secret. Point the service at it with {@code razorpay.base-url}.
+ * {@link #peakConcurrency} reports the most API calls it has been serving at once.
+ */
+public class FakeRazorpayServer implements AutoCloseable {
+
+    private final String authorization;
+    private final String keySecret;
+    private final String webhookSecret;
+    private final Map<String, FakeOrder> orders = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakConcurrency = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient webhookClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(executor)
+            .build();
+    private final HttpServer server;
+    private volatile Profile profile = Profile.none();
+    private volatile String webhookUrl;
+    private volatile boolean malformedResponses;
+
+    public FakeRazorpayServer(String keyId, String keySecret, String webhookSecret) throws IOException {
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+        this.keySecret = keySecret;
+        this.webhookSecret = webhookSecret;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/v1/orders", this::handleOrders);
+    }
+
+    public FakeRazorpayServer start() {
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public void setProfile(Profile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Where {@link #sendWebhook} delivers events, normally {@code http://host:port/api/webhooks/razorpay}.
+     */
+    public void setWebhookUrl(String webhookUrl) {
+        this.webhookUrl = webhookUrl;
+    }
+
+    public int orderCount() {
+        return orders.size();
+    }
+
+    /**
+     * The most API calls in progress at the same time since start or the last reset.
+     */
+    public int peakConcurrency() {
+        return peakConcurrency.get();
+    }
+
+    public void resetPeakConcurrency() {
+        peakConcurrency.set(inFlight.get());
+    }
+
+    /**
+     * Answers successful API calls with a truncated JSON body, as a proxy cutting the response would.
+     */
+    public void setMalformedResponses(boolean malformedResponses) {
+        this.malformedResponses = malformedResponses;
+    }
+
+    /**
+     * Records a captured payment on the order, as if the customer completed checkout.
+     */
+    public SimulatedPayment pay(String razorpayOrderId) {
+        return addPayment(razorpayOrderId, "captured");
+    }
+
+    public SimulatedPayment fail(String razorpayOrderId) {
+        return addPayment(razorpayOrderId, "failed");
+    }
+
+    /**
+     * POSTs the event for a simulated payment to the webhook URL and returns the HTTP status.
+     */
+    public int sendWebhook(String event, SimulatedPayment payment) throws IOException, InterruptedException {
+        JSONObject entity = orders.get(payment.razorpayOrderId()).payment(payment.razorpayPaymentId());
+        JSONObject body = new JSONObject()
+                .put("entity", "event")
+                .put("account_id", "acc_fake")
+                .put("event", event)
+                .put("contains", new JSONArray().put("payment"))
+                .put("payload", new JSONObject().put("payment", new JSONObject().put("entity", entity)))
+                .put("created_at", Instant.now().getEpochSecond());
+        byte[] payload = body.toString().getBytes(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(webhookUrl))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .header("X-Razorpay-Signature", hmacHex(webhookSecret, payload))
+                .header("X-Razorpay-Event-Id", "evt_" + Long.toString(sequence.incrementAndGet(), 36))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+        return webhookClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private SimulatedPayment addPayment(String razorpayOrderId, String status) {
+        FakeOrder order = orders.get(razorpayOrderId);
+        if (order == null) {
+            throw new IllegalArgumentException("Unknown order: " + razorpayOrderId);
+        }
+        String paymentId = nextId("pay_");
+        JSONObject payment = new JSONObject()
+                .put("id", paymentId)
+                .put("entity", "payment")
+                .put("amount", order.entity.getLong("amount"))
+                .put("currency", order.entity.getString("currency"))
+                .put("status", status)
+                .put("order_id", razorpayOrderId)
+                .put("method", "upi")
+                .put("captured", status.equals("captured"))
+                .put("created_at", Instant.now().getEpochSecond());
+        synchronized (order.payments) {
+            order.payments.add(payment);
+        }
+        String signature = hmacHex(keySecret, (razorpayOrderId + "|" + paymentId).getBytes(StandardCharsets.UTF_8));
+        return new SimulatedPayment(razorpayOrderId, paymentId, signature);
+    }
+
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!authorization.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                error(exchange, 401, "BAD_REQUEST_ERROR", "Authentication failed");
+                return;
+            }
+            peakConcurrency.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Profile current = profile;
+                current.pause();
+                if (current.failNow()) {
+                    error(exchange, 503, "SERVER_ERROR", "The server is currently unavailable");
+                    return;
+                }
+
+                String[] path = exchange.getRequestURI().getPath().split("/");
+                String method = exchange.getRequestMethod();
+                if (method.equals("POST") && path.length == 3) {
+                    createOrder(exchange);
+                } else if (method.equals("GET") && path.length == 5 && path[4].equals("payments")) {
+                    fetchPayments(exchange, path[3]);
+                } else {
+                    error(exchange, 404, "BAD_REQUEST_ERROR", "The requested URL was not found on the server.");
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private void createOrder(HttpExchange exchange) throws IOException {
+        JSONObject request = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        long amount = request.optLong("amount", 0);
+        if (amount < 100) {
+            error(exchange, 400, "BAD_REQUEST_ERROR", "Order amount less than minimum amount allowed");
+            return;
+        }
+        String id = nextId("order_");
+        JSONObject entity = new JSONObject()
+                .put("id", id)
+                .put("entity", "order")
+                .put("amount", amount)
+                .put("amount_paid", 0)
+                .put("amount_due", amount)
+                .put("currency", request.optString("currency", "INR"))
+                .put("receipt", request.optString("receipt", null))
+                .put("status", "created")
+                .put("attempts", 0)
+                .put("notes", request.optJSONObject("notes") == null ? new JSONArray() : request.getJSONObject("notes"))
+                .put("created_at", Instant.now().getEpochSecond());
+        orders.put(id, new FakeOrder(entity));
+        respond(exchange, 200, entity);
+    }
+
+    private void fetchPayments(HttpExchange exchange, String razorpayOrderId) throws IOException {
+        FakeOrder order = orders.get(razorpayOrderId);
+        if (order == null) {
+            error(exchange, 400, "BAD_REQUEST_ERROR", "The id provided does not exist");
+            return;
+        }
+        JSONArray items = new JSONArray();
+        synchronized (order.payments) {
+            order.payments.forEach(items::put);
+        }
+        respond(exchange, 200, new JSONObject()
+                .put("entity", "collection")
+                .put("count", items.length())
+                .put("items", items));
+    }
+
+    private void error(HttpExchange exchange, int status, String code, String description) throws IOException {
+        respond(exchange, status, new JSONObject().put("error", new JSONObject()
+                .put("code", code)
+                .put("description", description)));
+    }
+
+    private void respond(HttpExchange exchange, int status, JSONObject body) throws IOException {
+        String json = body.toString();
+        if (malformedResponses && status == 200) {
+            json = json.substring(0, json.length() / 2);
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String nextId(String prefix) {
+        return prefix + "Fk" + Long.toString(sequence.incrementAndGet(), 36) + Long.toString(System.nanoTime() & 0xffffff, 36);
+    }
+
+    static String hmacHex(String secret, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class FakeOrder {
+        private final JSONObject entity;
+        private final List<JSONObject> payments = new ArrayList<>();
+
+        private FakeOrder(JSONObject entity) {
+            this.entity = entity;
+        }
+
+        private JSONObject payment(String paymentId) {
+            synchronized (payments) {
+                return payments.stream()
+                        .filter(payment -> payment.getString("id").equals(paymentId))
+                        .findFirst()
+                        .orElseThrow();
+            }
+        }
+    }
+
+    /**
+     * Latency drawn uniformly from [minLatency, maxLatency] before every API response, and the
+     * share of API calls answered with a 503.
+     */
+    public record Profile(Duration minLatency, Duration maxLatency, double errorRate) {
+
+        public static Profile none() {
+            return new Profile(Duration.ZERO, Duration.ZERO, 0);
+        }
+
+        public static Profile of(Duration minLatency, Duration maxLatency, double errorRate) {
+            return new Profile(minLatency, maxLatency, errorRate);
+        }
+
+        void pause() {
+            long min = minLatency.toNanos();
+            long max = Math.max(min, maxLatency.toNanos());
+            long nanos = min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+            if (nanos > 0) {
+                try {
+                    Thread.sleep(Duration.ofNanos(nanos));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        boolean failNow() {
+            return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+        }
+    }
+
+    public record SimulatedPayment(String razorpayOrderId, String razorpayPaymentId, String signature) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.bytebyteboot.payment.journal;
+
+import com.bytebyteboot.payment.config.JournalProperties;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PaymentJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<PaymentJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        journals.forEach(PaymentJournal::stop);
+    }
+
+    @Test
+    void concurrentAppendsAcrossSegmentsReadBackInPerWriterOrder() throws Exception {
+        PaymentJournal journal = open();
+        int writers = 8;
+        int perWriter = 500;
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String writer = "w" + w;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    assertThat(journal.append(JournalEvent.webhookReceived("order_" + writer, null, writer + ":" + i)))
+                            .isGreaterThanOrEqualTo(0);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Map<String, Integer> lastSeen = new HashMap<>();
+        List<Long> positions = new ArrayList<>();
+        long next = new PaymentJournalReader(directory).replay(0, (position, event) -> {
+            positions.add(position);
+            String[] parts = event.detail().split(":");
+            int sequence = Integer.parseInt(parts[1]);
+            assertThat(sequence).isEqualTo(lastSeen.getOrDefault(parts[0], -1) + 1);
+            lastSeen.put(parts[0], sequence);
+        });
+
+        assertThat(positions).hasSize(writers * perWriter).doesNotHaveDuplicates().isSorted();
+        assertThat(lastSeen).hasSize(writers).allSatisfy((writer, last) -> assertThat(last).isEqualTo(perWriter - 1));
+        assertThat(PaymentJournalReader.listSegments(directory).size()).isGreaterThan(1);
+        assertThat(next).isGreaterThan(positions.get(positions.size() - 1));
+    }
+
+    @Test
+    void recordsThatFillASegmentExactlyRollOverOnTheNextAppend() throws Exception {
+        // Pad the detail until a record is 128 bytes, so 32 of them end exactly on the 4 KB boundary
+        String detail = "";
+        while (JournalSegment.stride(JournalEvent.webhookReceived("order_x", null, detail).encode().length) < 128) {
+            detail += "x";
+        }
+        JournalEvent event = JournalEvent.webhookReceived("order_x", null, detail);
+        assertThat(JournalSegment.stride(event.encode().length)).isEqualTo(128);
+
+        PaymentJournal journal = open();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 32; i++) {
+                assertThat(journal.append(event)).isEqualTo(i * 128L);
+            }
+            assertThat(journal.append(event)).isEqualTo(4096);
+        });
+        journal.stop();
+        journals.remove(journal);
+
+        // Reopen on the full segment alone, as if it were sealed before the next one was mapped
+        List<Path> segments = PaymentJournalReader.listSegments(directory);
+        for (Path later : segments.subList(1, segments.size())) {
+            Files.delete(later);
+        }
+        PaymentJournal reopened = open();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThat(reopened.append(event)).isEqualTo(4096));
+    }
+
+    @Test
+    void reopensAfterTheLastIntactRecordAndRebuildsOrders() throws Exception {
+        PaymentJournal journal = open();
+        journal.append(JournalEvent.orderCreated("order_j1", new BigDecimal("499.00"), "INR"));
+        journal.append(JournalEvent.orderCreated("order_j2", new BigDecimal("10.50"), "INR"));
+        journal.append(JournalEvent.verifyRequested("order_j1", "pay_j1"));
+        journal.append(JournalEvent.statusChanged("order_j1", PaymentStatus.PAID, "pay_j1"));
+        long end = journal.getPosition();
+        journal.stop();
+        journals.remove(journal);
+
+        // A torn record: a length and garbage that never got a valid checksum
+        Path segment = PaymentJournalReader.listSegments(directory).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(Integer.reverseBytes(24));
+            file.writeInt(0xdeadbeef);
+        }
+
+        PaymentJournal reopened = open();
+        reopened.append(JournalEvent.statusChanged("order_j2", PaymentStatus.FAILED, null));
+        reopened.append(JournalEvent.statusChanged("order_j1", PaymentStatus.REFUNDED, null));
+        reopened.flush();
+
+        Map<String, PaymentJournalReader.OrderState> orders = new PaymentJournalReader(directory).rebuildOrders();
+        assertThat(orders).containsOnlyKeys("order_j1", "order_j2");
+        assertThat(orders.get("order_j1").status()).isEqualTo(PaymentStatus.REFUNDED);
+        assertThat(orders.get("order_j1").razorpayPaymentId()).isEqualTo("pay_j1");
+        assertThat(orders.get("order_j1").amount()).isEqualByComparingTo("499.00");
+        assertThat(orders.get("order_j2").status()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(reopened.getDurablePosition()).isEqualTo(reopened.getPosition());
+    }
+
+    @Test
+    void eventsRoundTripThroughTheBinaryFormat() {
+        JournalEvent event = new JournalEvent(JournalEvent.Type.STATUS_CHANGED, Instant.parse("2024-05-01T10:15:30.123456Z"),
+                "order_rt", PaymentStatus.CANCELLED, null, new BigDecimal("-1.005"), "USD", "détail");
+
+        JournalEvent decoded = JournalEvent.decode(ByteBuffer.wrap(event.encode()).order(ByteOrder.LITTLE_ENDIAN));
+
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    private PaymentJournal open() {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(4));
+        properties.setFsyncInterval(Duration.ofMillis(5));
+        properties.setPreTouch(false);
+        PaymentJournal journal = new PaymentJournal(properties, new SimpleMeterRegistry());
+        journal.start();
+        journals.add(journal);
+        return journal;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bytebyteboot.payment.model;
+
+import com.bytebyteboot.payment.dto.PaymentOrderRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void convertsUsingTheExponentOfEachCurrency() {
+        assertThat(Money.of(new BigDecimal("499.5"), "INR").minorUnits()).isEqualTo(49_950);
+        assertThat(Money.of(new BigDecimal("1500"), "JPY").minorUnits()).isEqualTo(1_500);
+        assertThat(Money.of(new BigDecimal("1.234"), "KWD").minorUnits()).isEqualTo(1_234);
+
+        assertThat(Money.ofMinor(49_950, "INR").toDecimal()).isEqualTo(new BigDecimal("499.50"));
+        assertThat(Money.ofMinor(1_500, "JPY").toDecimal()).isEqualTo(new BigDecimal("1500"));
+        assertThat(Money.ofMinor(1_234, "KWD").toDecimal()).isEqualTo(new BigDecimal("1.234"));
+    }
+
+    @Test
+    void holdsAmountsBeyondTheIntRangeOfMinorUnits() {
+        // 3 crore rupees is 3,000,000,000 paise, more than Integer.MAX_VALUE
+        Money amount = Money.of(new BigDecimal("30000000.00"), "INR");
+
+        assertThat(amount.minorUnits()).isEqualTo(3_000_000_000L);
+        assertThat(amount.plus(amount).toDecimal()).isEqualTo(new BigDecimal("60000000.00"));
+    }
+
+    @Test
+    void rejectsAmountsThatWouldBeRoundedOrOverflow() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("10.005"), "INR")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("100.5"), "JPY")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1E+20"), "INR")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(100, "INR").plus(Money.ofMinor(100, "USD")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void orderRequestsMustBeExactInTheirCurrency() {
+        assertThat(request("10.50", "INR").isAmountExact()).isTrue();
+        assertThat(request("10.505", "INR").isAmountExact()).isFalse();
+        assertThat(request("10.5", "JPY").isAmountExact()).isFalse();
+        assertThat(request("10.50", "RUPEES").isAmountExact()).isFalse();
+        assertThat(request("10.505", "KWD").money()).isEqualTo(Money.ofMinor(10_505, "KWD"));
+    }
+
+    private static PaymentOrderRequest request(String amount, String currency) {
+        return new PaymentOrderRequest(new BigDecimal(amount), currency, "rcpt_money", null, null, null);
+    }
+}
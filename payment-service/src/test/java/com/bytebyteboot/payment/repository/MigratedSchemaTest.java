@@ -0,0 +1,100 @@
+package com.bytebyteboot.payment.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on a schema built by the whole Flyway chain, with Hibernate validating
+ * every entity against it, so a migration that disagrees with an entity fails here and not on the
+ * first deploy.
+ * <p>
+ * H2 in MySQL mode runs the scripts after two rewrites that leave every column as it is: the
+ * PARTITION BY clause of V5 is dropped, and ALTER TABLE statements with several clauses are split
+ * into one statement per clause. Partitioning and the rebuilds themselves need a MySQL server.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrated_schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        // MySQL has no sequences: the dialect the service runs with reads ids from payment_orders_seq
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"
+})
+@ActiveProfiles("h2")
+class MigratedSchemaTest {
+
+    private static final Path MIGRATIONS = Path.of("src/main/resources/db/migration");
+    private static final Pattern PARTITIONING = Pattern.compile("\\s*PARTITION BY .*?\\n\\)(?=;)", Pattern.DOTALL);
+    private static final Pattern MULTI_CLAUSE_ALTER = Pattern.compile("ALTER TABLE (\\w+)\\s+([^;]*?,\\n[^;]*);");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void migrations(DynamicPropertyRegistry registry) {
+        Path portable = portableMigrations();
+        registry.add("spring.flyway.locations", () -> "filesystem:" + portable);
+    }
+
+    @Test
+    void entitiesMatchTheSchemaOfTheLatestMigration() {
+        Integer latest;
+        try (Stream<Path> scripts = Files.list(MIGRATIONS)) {
+            latest = scripts.map(script -> script.getFileName().toString())
+                    .map(name -> Integer.parseInt(name.substring(1, name.indexOf("__")).split("_")[0]))
+                    .max(Integer::compare)
+                    .orElseThrow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // The context only starts if validation passed; check the chain really ran to the end
+        List<String> applied = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success = TRUE", String.class);
+        assertThat(applied).contains(String.valueOf(latest));
+    }
+
+    private static Path portableMigrations() {
+        try {
+            Path target = Files.createTempDirectory("migrations");
+            try (Stream<Path> scripts = Files.list(MIGRATIONS)) {
+                for (Path script : scripts.toList()) {
+                    Files.writeString(target.resolve(script.getFileName()), portable(Files.readString(script)));
+                }
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String portable(String sql) {
+        String unpartitioned = PARTITIONING.matcher(sql).replaceAll("");
+        Matcher alter = MULTI_CLAUSE_ALTER.matcher(unpartitioned);
+        StringBuilder split = new StringBuilder();
+        while (alter.find()) {
+            StringBuilder statements = new StringBuilder();
+            for (String clause : alter.group(2).split(",\\n")) {
+                statements.append("ALTER TABLE ").append(alter.group(1)).append(' ').append(clause.strip()).append(";\n");
+            }
+            alter.appendReplacement(split, Matcher.quoteReplacement(statements.toString()));
+        }
+        alter.appendTail(split);
+        return split.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.bytebyteboot.payment.repository;
+
+import com.bytebyteboot.payment.model.Money;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway scripts on H2 in MySQL mode, up to V4: the later scripts use MySQL-only DDL such
+ * as partitioning. The currency table of V8 is checked against {@link Money} instead, and
+ * {@link MigratedSchemaTest} validates the entities against the whole chain.
+ */
+class SchemaMigrationTest {
+
+    private static final String LAST_PORTABLE_VERSION = "4";
+
+    @Test
+    void baselinedPreFlywayDatabaseGainsEveryLaterTable() {
+        DataSource dataSource = dataSource("pre_flyway");
+        // A database created by ddl-auto before Flyway, with rows and no history table
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO payment_orders (razorpay_order_id, amount, currency, receipt, status, created_at) "
+                + "VALUES ('order_old1', 10.00, 'INR', 'r1', 'PAID', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO payment_orders (razorpay_order_id, amount, currency, receipt, status, created_at) "
+                + "VALUES ('order_old2', 20.00, 'INR', 'r2', 'CREATED', CURRENT_TIMESTAMP)");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .target(LAST_PORTABLE_VERSION)
+                .load()
+                .migrate();
+
+        assertThat(tables(jdbcTemplate)).contains("webhook_deliveries", "payment_orders_seq", "idempotency_records",
+                "reconciliation_checkpoints");
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM payment_orders", Long.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM payment_orders_seq", Long.class))
+                .isEqualTo(maxId + 51);
+        // V2 relaxed the ENUM status and the NOT NULL order id
+        jdbcTemplate.update("INSERT INTO payment_orders (id, amount, currency, receipt, status, created_at, version) "
+                + "VALUES (1000, 5.00, 'INR', 'r3', 'EXPIRED', CURRENT_TIMESTAMP, 0)");
+    }
+
+    @Test
+    void emptyDatabaseMigratesFromV1() {
+        DataSource dataSource = dataSource("fresh");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .target(LAST_PORTABLE_VERSION)
+                .load()
+                .migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(tables(jdbcTemplate)).contains("payment_orders", "webhook_deliveries", "payment_orders_seq",
+                "idempotency_records", "reconciliation_checkpoints");
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM payment_orders_seq", Long.class)).isEqualTo(51);
+    }
+
+    @Test
+    void v8MinorUnitsFollowTheExponentsOfMoney() throws IOException {
+        String script = new ClassPathResource("db/migration/V8__amount_minor_units.sql").getContentAsString(StandardCharsets.UTF_8);
+        Matcher update = Pattern.compile("UPDATE (\\w+) SET amount_minor = ROUND\\(amount \\* CASE(.*?)ELSE 100 END",
+                Pattern.DOTALL).matcher(script);
+        List<String> tables = new ArrayList<>();
+        while (update.find()) {
+            tables.add(update.group(1));
+            Map<String, Long> multipliers = multipliers(update.group(2));
+            assertThat(multipliers.keySet()).allSatisfy(code -> assertThat(Money.isSupported(code)).as(code).isTrue());
+            for (Currency currency : Currency.getAvailableCurrencies()) {
+                String code = currency.getCurrencyCode();
+                if (Money.isSupported(code)) {
+                    assertThat(multipliers.getOrDefault(code, 100L))
+                            .as("%s in %s", code, update.group(1))
+                            .isEqualTo(BigDecimal.TEN.pow(Money.exponentOf(code)).longValueExact());
+                }
+            }
+        }
+        assertThat(tables).containsExactly("payment_orders", "payment_orders_archive");
+    }
+
+    private static Map<String, Long> multipliers(String caseExpression) {
+        Matcher when = Pattern.compile("WHEN currency IN \\(([^)]*)\\) THEN (\\d+)").matcher(caseExpression);
+        Map<String, Long> multipliers = new HashMap<>();
+        while (when.find()) {
+            for (String code : when.group(1).split(",")) {
+                multipliers.put(code.strip().replace("'", ""), Long.parseLong(when.group(2)));
+            }
+        }
+        return multipliers;
+    }
+
+    private static List<String> tables(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'public'", String.class);
+    }
+
+    private static DataSource dataSource(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
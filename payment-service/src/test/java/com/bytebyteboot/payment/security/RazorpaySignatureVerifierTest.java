@@ -0,0 +1,60 @@
+package com.bytebyteboot.payment.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RazorpaySignatureVerifierTest {
+
+    private static final String KEY_SECRET = "key_secret";
+    private static final String WEBHOOK_SECRET = "webhook_secret";
+
+    private final RazorpaySignatureVerifier verifier = new RazorpaySignatureVerifier(KEY_SECRET, WEBHOOK_SECRET);
+
+    @Test
+    void acceptsValidPaymentSignature() throws Exception {
+        String signature = hmac("order_123|pay_456", KEY_SECRET);
+
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_456", signature)).isTrue();
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_456", signature.toUpperCase())).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedOrMalformedPaymentSignature() throws Exception {
+        String signature = hmac("order_123|pay_456", KEY_SECRET);
+        char last = signature.charAt(signature.length() - 1);
+        String tampered = signature.substring(0, signature.length() - 1) + (last == '0' ? '1' : '0');
+
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_457", signature)).isFalse();
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_456", tampered)).isFalse();
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_456", signature.substring(1))).isFalse();
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_456", "zz" + signature.substring(2))).isFalse();
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_456", null)).isFalse();
+        // A failed comparison must not leave data behind in the cached Mac
+        assertThat(verifier.verifyPaymentSignature("order_123", "pay_456", signature)).isTrue();
+    }
+
+    @Test
+    void verifiesWebhookFromStringBytesAndStream() throws Exception {
+        String payload = "{\"event\":\"payment.captured\",\"note\":\"\u20B9 caf\u00E9\"}" + "x".repeat(20_000);
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        String signature = hmac(payload, WEBHOOK_SECRET);
+
+        assertThat(verifier.verifyWebhookSignature(payload, signature)).isTrue();
+        assertThat(verifier.verifyWebhookSignature(bytes, signature)).isTrue();
+        assertThat(verifier.verifyWebhookSignature(new ByteArrayInputStream(bytes), signature)).isTrue();
+        assertThat(verifier.verifyWebhookSignature(bytes, hmac(payload, KEY_SECRET))).isFalse();
+    }
+
+    private static String hmac(String data, String key) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.BulkOrderResponse;
+import com.bytebyteboot.payment.dto.PaymentOrderRequest;
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.fake.FakeRazorpayServer;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the one-call-per-order path with the bulk endpoint against {@link FakeRazorpayServer}
+ * answering after a fixed delay, checks that a bulk run leaves checkout its own gateway budget, and
+ * checks per-item failure reporting.
+ */
+@SpringBootTest(properties = "payment.bulk.max-concurrency=16")
+@ActiveProfiles("h2")
+class BulkOrderThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOrderThroughputTest.class);
+
+    private static final int ORDERS = 200;
+    private static final Duration RAZORPAY_LATENCY = Duration.ofMillis(20);
+
+    private static final FakeRazorpayServer razorpay = startServer();
+
+    @Autowired
+    private PaymentOrderService paymentOrderService;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @DynamicPropertySource
+    static void razorpayProperties(DynamicPropertyRegistry registry) {
+        registry.add("razorpay.base-url", razorpay::baseUrl);
+        registry.add("razorpay.key-id", () -> "rzp_test_fake");
+        registry.add("razorpay.key-secret", () -> "fake_key_secret");
+    }
+
+    @AfterEach
+    void resetProfile() {
+        razorpay.setProfile(FakeRazorpayServer.Profile.none());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        razorpay.close();
+    }
+
+    @Test
+    void bulkPathOutperformsSingleOrderPath() {
+        razorpay.setProfile(FakeRazorpayServer.Profile.of(RAZORPAY_LATENCY, RAZORPAY_LATENCY, 0));
+
+        long singleStarted = System.nanoTime();
+        for (PaymentOrderRequest request : requests("single", ORDERS)) {
+            paymentOrderService.createOrder(request);
+        }
+        double singleSeconds = (System.nanoTime() - singleStarted) / 1e9;
+
+        long bulkStarted = System.nanoTime();
+        BulkOrderResponse response = bulkOrderService.createOrders(requests("bulk", ORDERS));
+        double bulkSeconds = (System.nanoTime() - bulkStarted) / 1e9;
+
+        logger.info("Single-order path: {} orders/s, bulk path: {} orders/s",
+                Math.round(ORDERS / singleSeconds), Math.round(ORDERS / bulkSeconds));
+
+        assertThat(response.succeeded()).isEqualTo(ORDERS);
+        assertThat(bulkSeconds * 5).isLessThan(singleSeconds);
+    }
+
+    @Test
+    void bulkRunDoesNotShedCheckoutCalls() throws Exception {
+        razorpay.setProfile(FakeRazorpayServer.Profile.of(Duration.ofMillis(50), Duration.ofMillis(50), 0));
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<BulkOrderResponse> bulk = clients.submit(() -> bulkOrderService.createOrders(requests("busy", ORDERS)));
+            List<Future<PaymentOrderResponse>> checkouts = new ArrayList<>();
+            for (PaymentOrderRequest request : requests("checkout", 20)) {
+                checkouts.add(clients.submit(() -> paymentOrderService.createOrder(request)));
+            }
+
+            for (Future<PaymentOrderResponse> checkout : checkouts) {
+                assertThat(checkout.get().status()).isEqualTo(PaymentOrder.PaymentStatus.CREATED);
+            }
+            assertThat(bulk.get().succeeded()).isEqualTo(ORDERS);
+        }
+    }
+
+    @Test
+    void reportsFailuresPerItem() {
+        List<PaymentOrderRequest> requests = new ArrayList<>(requests("partial", 3));
+        // Valid here, but below the gateway's minimum order amount
+        requests.set(1, new PaymentOrderRequest(new BigDecimal("0.50"), "INR", "partial_1", null, null, null));
+        requests.add(new PaymentOrderRequest(new BigDecimal("-1"), "INR", "partial_invalid", null, null, null));
+
+        BulkOrderResponse response = bulkOrderService.createOrders(requests);
+
+        assertThat(response.succeeded()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.results().get(1).error()).contains("Failed to create payment order");
+        assertThat(response.results().get(3).error()).contains("amount");
+        assertThat(paymentOrderRepository.findAll())
+                .filteredOn(order -> "partial_1".equals(order.getReceipt()))
+                .extracting(PaymentOrder::getStatus)
+                .containsExactly(PaymentOrder.PaymentStatus.FAILED);
+    }
+
+    private static List<PaymentOrderRequest> requests(String prefix, int count) {
+        List<PaymentOrderRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new PaymentOrderRequest(
+                    new BigDecimal("199.00"), "INR", prefix + "_" + i, "renewal@example.com", "9999999999", null));
+        }
+        return requests;
+    }
+
+    private static FakeRazorpayServer startServer() {
+        try {
+            return new FakeRazorpayServer("rzp_test_fake", "fake_key_secret", "fake_webhook_secret").start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.PaymentOrderRequest;
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.fake.FakeRazorpayServer;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.json.JSONException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives concurrent order creation through {@link RazorpayHttpApi} and the virtual-thread
+ * Razorpay executor against {@link FakeRazorpayServer} with injected latency, and checks at the
+ * stub that the calls overlap far beyond the connection pool: a transaction held across the remote
+ * call would let at most one call per pooled connection reach it at a time.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=" + CreateOrderLoadTest.POOL_SIZE)
+@ActiveProfiles("h2")
+class CreateOrderLoadTest {
+
+    static final int POOL_SIZE = 4;
+    // Within the initial interactive concurrency limit, so none of them is shed
+    private static final int CONCURRENT_REQUESTS = 16;
+    private static final Duration RAZORPAY_LATENCY = Duration.ofMillis(300);
+
+    private static final FakeRazorpayServer razorpay = startServer();
+
+    @Autowired
+    private PaymentOrderService paymentOrderService;
+
+    @Autowired
+    private RazorpayApi razorpayApi;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @DynamicPropertySource
+    static void razorpayProperties(DynamicPropertyRegistry registry) {
+        registry.add("razorpay.base-url", razorpay::baseUrl);
+        registry.add("razorpay.key-id", () -> "rzp_test_fake");
+        registry.add("razorpay.key-secret", () -> "fake_key_secret");
+    }
+
+    @AfterEach
+    void resetServer() {
+        razorpay.setProfile(FakeRazorpayServer.Profile.none());
+        razorpay.setMalformedResponses(false);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        razorpay.close();
+    }
+
+    @Test
+    void remoteLatencyDoesNotHoldConnections() throws Exception {
+        assertThat(razorpayApi).isInstanceOf(RazorpayHttpApi.class);
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        razorpay.setProfile(FakeRazorpayServer.Profile.of(RAZORPAY_LATENCY, RAZORPAY_LATENCY, 0));
+        razorpay.resetPeakConcurrency();
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_REQUESTS)) {
+            List<Future<PaymentOrderResponse>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                String receipt = "rcpt_" + i;
+                results.add(clients.submit(() -> paymentOrderService.createOrder(new PaymentOrderRequest(
+                        new BigDecimal("499.00"), "INR", receipt, "load@example.com", "9999999999", null))));
+            }
+            for (Future<PaymentOrderResponse> result : results) {
+                assertThat(result.get().status()).isEqualTo(PaymentOrder.PaymentStatus.CREATED);
+            }
+        }
+
+        assertThat(razorpay.peakConcurrency()).isGreaterThan(2 * POOL_SIZE);
+        assertThat(hikari.getHikariPoolMXBean().getThreadsAwaitingConnection()).isZero();
+    }
+
+    @Test
+    void unexpectedGatewayErrorFailsThePendingRow() {
+        razorpay.setMalformedResponses(true);
+
+        assertThatThrownBy(() -> paymentOrderService.createOrder(new PaymentOrderRequest(
+                new BigDecimal("499.00"), "INR", "rcpt_malformed", "load@example.com", "9999999999", null)))
+                .isInstanceOf(JSONException.class);
+
+        assertThat(paymentOrderRepository.findAll())
+                .filteredOn(order -> "rcpt_malformed".equals(order.getReceipt()))
+                .extracting(PaymentOrder::getStatus)
+                .containsExactly(PaymentOrder.PaymentStatus.FAILED);
+    }
+
+    private static FakeRazorpayServer startServer() {
+        try {
+            return new FakeRazorpayServer("rzp_test_fake", "fake_key_secret", "fake_webhook_secret").start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
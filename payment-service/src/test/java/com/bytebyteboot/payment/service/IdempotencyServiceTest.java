@@ -0,0 +1,87 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.PaymentOrderResponse;
+import com.bytebyteboot.payment.exception.IdempotencyException;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Test
+    void concurrentDuplicatesRunTheActionOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        Map<String, String> request = Map.of("receipt", "rcpt_concurrent");
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<ResponseEntity<PaymentOrderResponse>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(clients.submit(() -> idempotencyService.execute("create-order", "key-concurrent", request,
+                    PaymentOrderResponse.class, () -> {
+                        executions.incrementAndGet();
+                        sleep(200);
+                        return new ResponseEntity<>(response("order_once"), HttpStatus.CREATED);
+                    })));
+        }
+        for (Future<ResponseEntity<PaymentOrderResponse>> result : results) {
+            ResponseEntity<PaymentOrderResponse> response = result.get();
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(response.getBody().razorpayOrderId()).isEqualTo("order_once");
+        }
+        clients.shutdown();
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedAttemptCanBeRetriedAndReusedKeyWithOtherBodyIsRejected() {
+        Map<String, String> request = Map.of("receipt", "rcpt_retry");
+
+        assertThatThrownBy(() -> idempotencyService.execute("verify", "key-retry", request, PaymentOrderResponse.class,
+                () -> { throw new IllegalStateException("upstream down"); }))
+                .isInstanceOf(IllegalStateException.class);
+
+        ResponseEntity<PaymentOrderResponse> response = idempotencyService.execute("verify", "key-retry", request,
+                PaymentOrderResponse.class, () -> ResponseEntity.ok(response("order_retry")));
+        assertThat(response.getBody().razorpayOrderId()).isEqualTo("order_retry");
+
+        assertThatThrownBy(() -> idempotencyService.execute("verify", "key-retry", Map.of("receipt", "other"),
+                PaymentOrderResponse.class, () -> ResponseEntity.ok(response("order_other"))))
+                .isInstanceOf(IdempotencyException.class);
+    }
+
+    private static PaymentOrderResponse response(String razorpayOrderId) {
+        return new PaymentOrderResponse(1L, razorpayOrderId, null, new BigDecimal("10.00"), "INR", "rcpt",
+                PaymentOrder.PaymentStatus.CREATED, null, null, LocalDateTime.now(), null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.ArchivedPaymentOrderRepository;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "payment.archive.min-age=30d",
+        "payment.archive.batch-size=2",
+        "payment.archive.max-rows-per-second=100000",
+        "payment.cache.order.enabled=false"
+})
+@ActiveProfiles("h2")
+class OrderArchiverTest {
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private PaymentOrderService paymentOrderService;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private ArchivedPaymentOrderRepository archivedPaymentOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void movesOldTerminalOrdersAndServesThemFromTheArchive() {
+        order("order_arc_paid", PaymentStatus.PAID, 90);
+        order("order_arc_failed", PaymentStatus.FAILED, 60);
+        order("order_arc_cancelled", PaymentStatus.CANCELLED, 45);
+        order("order_arc_open", PaymentStatus.CREATED, 90);
+        order("order_arc_recent", PaymentStatus.PAID, 1);
+
+        int archived = orderArchiver.archive();
+
+        assertThat(archived).isEqualTo(3);
+        assertThat(paymentOrderRepository.findByRazorpayOrderId("order_arc_paid")).isEmpty();
+        assertThat(paymentOrderRepository.findByRazorpayOrderId("order_arc_open")).isPresent();
+        assertThat(paymentOrderRepository.findByRazorpayOrderId("order_arc_recent")).isPresent();
+        assertThat(archivedPaymentOrderRepository.findFirstByRazorpayOrderId("order_arc_failed"))
+                .hasValueSatisfying(order -> assertThat(order.getArchivedAt()).isNotNull());
+
+        assertThat(paymentOrderService.getOrder("order_arc_paid").status()).isEqualTo(PaymentStatus.PAID);
+        assertThat(paymentOrderService.getOrder("order_arc_recent").status()).isEqualTo(PaymentStatus.PAID);
+        assertThat(orderArchiver.archive()).isZero();
+    }
+
+    private void order(String razorpayOrderId, PaymentStatus status, int ageDays) {
+        PaymentOrder order = new PaymentOrder(razorpayOrderId, new BigDecimal("250.00"), "INR", "rcpt_" + razorpayOrderId);
+        order.setStatus(status);
+        paymentOrderRepository.save(order);
+        jdbcTemplate.update("UPDATE payment_orders SET created_at = ? WHERE razorpay_order_id = ?",
+                LocalDateTime.now().minusDays(ageDays), razorpayOrderId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "payment.expiry.enabled=true",
+        "payment.expiry.ttl=30m",
+        "payment.expiry.batch-size=2",
+        "payment.expiry.sweep-interval=PT1H",
+        "payment.cache.order.enabled=false"
+})
+@ActiveProfiles("h2")
+class OrderExpiryTest {
+
+    @Autowired
+    private OrderExpiry orderExpiry;
+
+    @Autowired
+    private PaymentOrderStateMachine stateMachine;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void sweepExpiresOnlyOverdueOrdersThatAreStillCreated() {
+        order("order_exp_old_1", PaymentStatus.CREATED, 45);
+        order("order_exp_old_2", PaymentStatus.CREATED, 31);
+        order("order_exp_old_3", PaymentStatus.CREATED, 120);
+        order("order_exp_attempted", PaymentStatus.ATTEMPTED, 45);
+        order("order_exp_recent", PaymentStatus.CREATED, 5);
+
+        orderExpiry.sweep();
+
+        assertThat(status("order_exp_old_1")).isEqualTo(PaymentStatus.EXPIRED);
+        assertThat(status("order_exp_old_2")).isEqualTo(PaymentStatus.EXPIRED);
+        assertThat(status("order_exp_old_3")).isEqualTo(PaymentStatus.EXPIRED);
+        assertThat(status("order_exp_attempted")).isEqualTo(PaymentStatus.ATTEMPTED);
+        assertThat(status("order_exp_recent")).isEqualTo(PaymentStatus.CREATED);
+    }
+
+    @Test
+    void scheduledOrdersExpireOnTheTickAfterTheirTtlAndCanStillBePaid() {
+        order("order_exp_scheduled", PaymentStatus.CREATED, 31);
+        order("order_exp_paid", PaymentStatus.PAID, 31);
+
+        orderExpiry.schedule("order_exp_scheduled", LocalDateTime.now().minusMinutes(31));
+        orderExpiry.schedule("order_exp_paid", LocalDateTime.now().minusMinutes(31));
+        orderExpiry.expireDue();
+
+        assertThat(status("order_exp_scheduled")).isEqualTo(PaymentStatus.EXPIRED);
+        assertThat(status("order_exp_paid")).isEqualTo(PaymentStatus.PAID);
+
+        PaymentOrderStateMachine.Transition latePayment = new TransactionTemplate(transactionManager)
+                .execute(status -> stateMachine.markPaid("order_exp_scheduled", "pay_exp_late", null));
+        assertThat(latePayment.outcome()).isEqualTo(PaymentOrderStateMachine.Outcome.APPLIED);
+    }
+
+    private void order(String razorpayOrderId, PaymentStatus status, int ageMinutes) {
+        PaymentOrder order = new PaymentOrder(razorpayOrderId, new BigDecimal("250.00"), "INR", "rcpt_" + razorpayOrderId);
+        order.setStatus(status);
+        paymentOrderRepository.save(order);
+        jdbcTemplate.update("UPDATE payment_orders SET created_at = ? WHERE razorpay_order_id = ?",
+                LocalDateTime.now().minusMinutes(ageMinutes), razorpayOrderId);
+    }
+
+    private PaymentStatus status(String razorpayOrderId) {
+        return paymentOrderRepository.findStatusByRazorpayOrderId(razorpayOrderId).orElseThrow();
+    }
+}
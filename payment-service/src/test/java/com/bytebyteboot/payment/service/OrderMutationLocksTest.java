@@ -0,0 +1,132 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.OrderLockProperties;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderMutationLocksTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void serializesOneOrderWhileOtherStripesProceed() throws Exception {
+        OrderMutationLocks locks = locks(Duration.ofSeconds(5));
+        String other = otherStripe(locks, "order_lock_a");
+
+        OrderMutationLocks.Hold hold = locks.acquire("order_lock_a");
+        Future<?> sameOrder = executor.submit(() -> locks.acquire("order_lock_a").close());
+        Future<?> otherOrder = executor.submit(() -> locks.acquire(other).close());
+
+        otherOrder.get(1, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> sameOrder.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        hold.close();
+        sameOrder.get(1, TimeUnit.SECONDS);
+
+        assertThat(meterRegistry.get("payment.order.lock.contended")
+                .tag("stripe", Integer.toString(locks.stripeOf("order_lock_a"))).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failsAfterTheMaxWait() throws Exception {
+        OrderMutationLocks locks = locks(Duration.ofMillis(50));
+
+        try (OrderMutationLocks.Hold hold = locks.acquire("order_lock_b")) {
+            Future<?> waiter = executor.submit(() -> locks.acquire("order_lock_b").close());
+            assertThatThrownBy(() -> waiter.get(1, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(CannotAcquireLockException.class);
+        }
+
+        assertThat(meterRegistry.get("payment.order.lock.timeouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void batchesTakeTheirStripesInOrderSoOpposingBatchesDoNotDeadlock() throws Exception {
+        OrderMutationLocks locks = locks(Duration.ofSeconds(5));
+        String first = "order_lock_d";
+        String second = otherStripe(locks, first);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // Same orders, opposite arrival order; taken one by one this could deadlock until the max wait
+        List<Future<?>> batches = new ArrayList<>();
+        for (List<String> orders : List.of(List.of(first, second), List.of(second, first))) {
+            batches.add(executor.submit(() -> {
+                bothStarted.countDown();
+                bothStarted.await();
+                for (int i = 0; i < 1_000; i++) {
+                    locks.acquireAll(orders).close();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> batch : batches) {
+            batch.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(meterRegistry.get("payment.order.lock.timeouts").counter().count()).isZero();
+    }
+
+    @Test
+    void releasesTheStripesAlreadyTakenWhenOneTimesOut() throws Exception {
+        OrderMutationLocks locks = locks(Duration.ofMillis(50));
+        String free = "order_lock_e";
+        String busy = otherStripe(locks, free);
+
+        try (OrderMutationLocks.Hold hold = locks.acquire(busy)) {
+            Future<?> batch = executor.submit(() -> locks.acquireAll(List.of(free, busy)).close());
+            assertThatThrownBy(() -> batch.get(1, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(CannotAcquireLockException.class);
+        }
+
+        executor.submit(() -> locks.acquire(free).close()).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void coalescesTransitionsToAnAlreadyReachedStatus() {
+        OrderMutationLocks locks = locks(Duration.ofSeconds(1));
+
+        assertThat(locks.isRedundant("order_lock_c", PaymentStatus.PAID)).isFalse();
+        locks.recordStatus("order_lock_c", PaymentStatus.PAID);
+
+        assertThat(locks.isRedundant("order_lock_c", PaymentStatus.PAID)).isTrue();
+        assertThat(locks.isRedundant("order_lock_c", PaymentStatus.REFUNDED)).isFalse();
+        assertThat(meterRegistry.get("payment.order.transitions.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    private OrderMutationLocks locks(Duration maxWait) {
+        OrderLockProperties properties = new OrderLockProperties();
+        properties.setStripes(16);
+        properties.setMaxWait(maxWait);
+        return new OrderMutationLocks(properties, meterRegistry);
+    }
+
+    private static String otherStripe(OrderMutationLocks locks, String orderId) {
+        for (int i = 0; ; i++) {
+            String candidate = "order_lock_" + i;
+            if (locks.stripeOf(candidate) != locks.stripeOf(orderId)) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.PaymentStatusEvent;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "payment.outbox.partitions=4",
+        "payment.outbox.batch-size=3"
+})
+@ActiveProfiles("h2")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private PaymentOrderStateMachine stateMachine;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM payment_outbox");
+        outboxSink.clear();
+    }
+
+    @Test
+    void eventsCommitWithTheirTransitionAndArePublishedOnce() {
+        createOrder("order_outbox_paid");
+        createOrder("order_outbox_rolled_back");
+
+        inTransaction(() -> stateMachine.markPaid("order_outbox_paid", "pay_outbox_1", "sig"));
+        try {
+            inTransaction(() -> {
+                stateMachine.transition("order_outbox_rolled_back", PaymentStatus.CANCELLED);
+                throw new IllegalStateException("rollback");
+            });
+        } catch (IllegalStateException expected) {
+            // the cancellation and its event roll back together
+        }
+
+        assertThat(outboxRelay.relay()).isEqualTo(1);
+        assertThat(outboxRelay.relay()).isZero();
+
+        assertThat(outboxSink.getEvents()).singleElement().satisfies(event -> {
+            assertThat(event.razorpayOrderId()).isEqualTo("order_outbox_paid");
+            assertThat(event.status()).isEqualTo(PaymentStatus.PAID);
+            assertThat(event.razorpayPaymentId()).isEqualTo("pay_outbox_1");
+            assertThat(event.amount()).isEqualByComparingTo("250.00");
+        });
+    }
+
+    @Test
+    void concurrentRelaysPublishEveryEventOnceAndInOrderPerOrder() throws Exception {
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String orderId = createOrder("order_outbox_many_" + i);
+            orderIds.add(orderId);
+            inTransaction(() -> stateMachine.markPaid(orderId, "pay_" + orderId, null));
+            if (i % 2 == 0) {
+                inTransaction(() -> stateMachine.transition(orderId, PaymentStatus.REFUNDED));
+            }
+        }
+
+        ExecutorService replicas = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> passes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            passes.add(replicas.submit(() -> {
+                int published = 0;
+                for (int pass = 0; pass < 10; pass++) {
+                    published += outboxRelay.relay();
+                }
+                return published;
+            }));
+        }
+        int published = 0;
+        for (Future<Integer> pass : passes) {
+            published += pass.get();
+        }
+        replicas.shutdown();
+        published += outboxRelay.relay();
+
+        List<PaymentStatusEvent> events = outboxSink.getEvents();
+        assertThat(published).isEqualTo(30);
+        assertThat(events).hasSize(30);
+        assertThat(events.stream().map(PaymentStatusEvent::id)).doesNotHaveDuplicates();
+        for (String orderId : orderIds) {
+            List<PaymentStatus> statuses = events.stream()
+                    .filter(event -> event.razorpayOrderId().equals(orderId))
+                    .map(PaymentStatusEvent::status)
+                    .toList();
+            assertThat(statuses).first().isEqualTo(PaymentStatus.PAID);
+            assertThat(statuses).hasSizeBetween(1, 2).doesNotHaveDuplicates();
+        }
+    }
+
+    private String createOrder(String razorpayOrderId) {
+        PaymentOrder order = new PaymentOrder(razorpayOrderId, new BigDecimal("250.00"), "INR", "rcpt_" + razorpayOrderId);
+        order.setStatus(PaymentStatus.CREATED);
+        paymentOrderRepository.save(order);
+        return razorpayOrderId;
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+}
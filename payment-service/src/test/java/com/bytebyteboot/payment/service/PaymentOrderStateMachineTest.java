@@ -0,0 +1,214 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.model.WebhookDelivery;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import com.bytebyteboot.payment.repository.WebhookDeliveryRepository;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class PaymentOrderStateMachineTest {
+
+    private static final String WORKER = "webhook-test-worker";
+
+    @Autowired
+    private PaymentOrderStateMachine stateMachine;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PaymentOrderService paymentOrderService;
+
+    @Autowired
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    @Autowired
+    private WebhookDeduplicator webhookDeduplicator;
+
+    @Test
+    void lateFailureDoesNotOverwritePaid() {
+        String orderId = createOrder("order_sm_late_failure");
+
+        assertThat(inTransaction(() -> stateMachine.markPaid(orderId, "pay_sm_1", "sig")).outcome())
+                .isEqualTo(PaymentOrderStateMachine.Outcome.APPLIED);
+        PaymentOrderStateMachine.Transition failed = inTransaction(() -> stateMachine.transition(orderId, PaymentStatus.FAILED));
+        PaymentOrderStateMachine.Transition cancelled = inTransaction(() -> stateMachine.transition(orderId, PaymentStatus.CANCELLED));
+        PaymentOrderStateMachine.Transition repeated = inTransaction(() -> stateMachine.markPaid(orderId, "pay_sm_1", null));
+
+        assertThat(failed).isEqualTo(new PaymentOrderStateMachine.Transition(
+                PaymentOrderStateMachine.Outcome.REJECTED, PaymentStatus.PAID));
+        assertThat(cancelled.outcome()).isEqualTo(PaymentOrderStateMachine.Outcome.REJECTED);
+        assertThat(repeated.outcome()).isEqualTo(PaymentOrderStateMachine.Outcome.UNCHANGED);
+
+        PaymentOrder order = paymentOrderRepository.findByRazorpayOrderId(orderId).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(order.getRazorpayPaymentId()).isEqualTo("pay_sm_1");
+        assertThat(order.getRazorpaySignature()).isEqualTo("sig");
+        assertThat(order.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void unknownOrderIsReportedWithoutUpdating() {
+        assertThat(inTransaction(() -> stateMachine.transition("order_sm_missing", PaymentStatus.CANCELLED)).outcome())
+                .isEqualTo(PaymentOrderStateMachine.Outcome.NOT_FOUND);
+    }
+
+    @Test
+    void racingPaymentAndCancellationApplyExactlyOnce() throws Exception {
+        String orderId = createOrder("order_sm_race");
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            boolean pay = i % 2 == 0;
+            String paymentId = "pay_sm_race_" + i;
+            futures.add(workers.submit(() -> {
+                start.await();
+                PaymentOrderStateMachine.Transition transition = inTransaction(() -> pay
+                        ? stateMachine.markPaid(orderId, paymentId, null)
+                        : stateMachine.transition(orderId, PaymentStatus.CANCELLED));
+                if (transition.applied()) {
+                    applied.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+
+        assertThat(applied).hasValue(1);
+        assertThat(paymentOrderRepository.findByRazorpayOrderId(orderId).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void webhookBatchAppliesEachOrdersEventsInDeliveryOrder() {
+        String first = createOrder("order_sm_batch_1");
+        String second = createOrder("order_sm_batch_2");
+        List<Long> deliveryIds = new ArrayList<>();
+        for (String payload : List.of(
+                webhook("payment.authorized", first, "pay_sm_b1", null),
+                webhook("payment.captured", first, "pay_sm_b1", null),
+                webhook("payment.captured", second, "pay_sm_b2", null),
+                webhook("payment.failed", first, "pay_sm_b1", null),
+                webhook("refund.processed", second, "pay_sm_b2", "full"),
+                webhook("payment.captured", "order_sm_batch_missing", "pay_sm_b3", null),
+                "{not json")) {
+            deliveryIds.add(claimed(new WebhookDelivery(payload)));
+        }
+
+        assertThat(paymentOrderService.processWebhookDeliveries(deliveryIds, WORKER)).isEqualTo(7);
+
+        PaymentOrder paid = paymentOrderRepository.findByRazorpayOrderId(first).orElseThrow();
+        assertThat(paid.getStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(paid.getRazorpayPaymentId()).isEqualTo("pay_sm_b1");
+        assertThat(paid.getVersion()).isEqualTo(2L);
+        PaymentOrder refunded = paymentOrderRepository.findByRazorpayOrderId(second).orElseThrow();
+        assertThat(refunded.getStatus()).isEqualTo(PaymentStatus.REFUNDED);
+        assertThat(refunded.getRazorpayPaymentId()).isEqualTo("pay_sm_b2");
+        assertThat(webhookDeliveryRepository.findAllById(deliveryIds))
+                .extracting(WebhookDelivery::getStatus)
+                .containsOnly(WebhookDelivery.DeliveryStatus.PROCESSED, WebhookDelivery.DeliveryStatus.FAILED)
+                .filteredOn(status -> status == WebhookDelivery.DeliveryStatus.FAILED).hasSize(1);
+    }
+
+    @Test
+    void webhookBatchRecordsEventKeysAndSkipsDeliveriesOfAppliedEvents() {
+        String paid = createOrder("order_sm_dedup_1");
+        String untouched = createOrder("order_sm_dedup_2");
+        String captured = webhook("payment.captured", paid, "pay_sm_d1", null);
+        List<Long> firstBatch = List.of(
+                claimed(new WebhookDelivery(captured, "evt_sm_dedup_1")),
+                claimed(new WebhookDelivery(captured, "evt_sm_dedup_1")));
+
+        assertThat(paymentOrderService.processWebhookDeliveries(firstBatch, WORKER)).isEqualTo(2);
+        assertThat(webhookDeduplicator.isDuplicate(webhookDeduplicator.keyOf("evt_sm_dedup_1", new byte[0]))).isTrue();
+
+        // Same event id, so it is taken for a redelivery and not applied
+        Long redelivery = claimed(new WebhookDelivery(
+                webhook("payment.captured", untouched, "pay_sm_d2", null), "evt_sm_dedup_1"));
+        assertThat(paymentOrderService.processWebhookDeliveries(List.of(redelivery), WORKER)).isEqualTo(1);
+
+        assertThat(paymentOrderRepository.findByRazorpayOrderId(paid).orElseThrow().getVersion()).isEqualTo(1L);
+        assertThat(paymentOrderRepository.findByRazorpayOrderId(untouched).orElseThrow().getStatus())
+                .isEqualTo(PaymentStatus.CREATED);
+        assertThat(webhookDeliveryRepository.findById(redelivery).orElseThrow().getStatus())
+                .isEqualTo(WebhookDelivery.DeliveryStatus.PROCESSED);
+    }
+
+    @Test
+    void webhookBatchSkipsDeliveriesWhoseLeaseThisWorkerNoLongerHolds() {
+        String orderId = createOrder("order_sm_lease");
+        String captured = webhook("payment.captured", orderId, "pay_sm_l1", null);
+        WebhookDelivery takenOver = new WebhookDelivery(captured, "evt_sm_lease_1");
+        takenOver.claim("replica-b", LocalDateTime.now().plusMinutes(5));
+        WebhookDelivery lapsed = new WebhookDelivery(captured, "evt_sm_lease_2");
+        lapsed.claim(WORKER, LocalDateTime.now().minusSeconds(1));
+        List<Long> batch = List.of(webhookDeliveryRepository.save(takenOver).getId(),
+                webhookDeliveryRepository.save(lapsed).getId());
+
+        assertThat(paymentOrderService.processWebhookDeliveries(batch, WORKER)).isZero();
+
+        assertThat(paymentOrderRepository.findByRazorpayOrderId(orderId).orElseThrow().getStatus())
+                .isEqualTo(PaymentStatus.CREATED);
+        assertThat(webhookDeliveryRepository.findAllById(batch))
+                .extracting(WebhookDelivery::getStatus)
+                .containsOnly(WebhookDelivery.DeliveryStatus.PENDING);
+    }
+
+    private Long claimed(WebhookDelivery delivery) {
+        delivery.claim(WORKER, LocalDateTime.now().plusMinutes(5));
+        return webhookDeliveryRepository.save(delivery).getId();
+    }
+
+    private String createOrder(String razorpayOrderId) {
+        PaymentOrder order = new PaymentOrder(razorpayOrderId, new BigDecimal("250.00"), "INR", "rcpt_" + razorpayOrderId);
+        order.setStatus(PaymentStatus.CREATED);
+        paymentOrderRepository.save(order);
+        return razorpayOrderId;
+    }
+
+    private static String webhook(String event, String orderId, String paymentId, String refundStatus) {
+        JSONObject payment = new JSONObject().put("id", paymentId).put("order_id", orderId);
+        if (refundStatus != null) {
+            payment.put("refund_status", refundStatus);
+        }
+        return new JSONObject()
+                .put("event", event)
+                .put("payload", new JSONObject().put("payment", new JSONObject().put("entity", payment)))
+                .toString();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
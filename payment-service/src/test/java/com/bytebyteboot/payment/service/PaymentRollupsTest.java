@@ -0,0 +1,103 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.PaymentRollupRow;
+import com.bytebyteboot.payment.model.Money;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "payment.rollups.flush-interval=PT1H")
+@ActiveProfiles("h2")
+class PaymentRollupsTest {
+
+    @Autowired
+    private PaymentRollups paymentRollups;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RazorpayGateway razorpayGateway;
+
+    @BeforeEach
+    void clear() {
+        paymentRollups.flush();
+        jdbcTemplate.update("DELETE FROM payment_rollups");
+        jdbcTemplate.update("DELETE FROM payment_orders");
+    }
+
+    @Test
+    void flushAddsRecordedTransitionsToTheCurrentHour() {
+        PaymentOrder order = new PaymentOrder("order_rollup_1", new BigDecimal("250.50"), "INR", "rcpt_rollup_1");
+        order.setStatus(PaymentStatus.PAID);
+        paymentOrderRepository.save(order);
+
+        paymentRollups.record(PaymentStatus.CREATED, Money.of(new BigDecimal("100.00"), "INR"));
+        paymentRollups.record(PaymentStatus.CREATED, Money.ofMinor(25, "INR"));
+        paymentRollups.record(PaymentStatus.CREATED, Money.ofMinor(1500, "JPY"));
+        paymentRollups.record("order_rollup_1", PaymentStatus.PAID);
+        paymentRollups.record("order_rollup_missing", PaymentStatus.PAID);
+        paymentRollups.flush();
+        paymentRollups.record(PaymentStatus.CREATED, Money.ofMinor(100, "INR"));
+        paymentRollups.flush();
+
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        List<PaymentRollupRow> rows = paymentRollups.find(hour, hour.plusHours(1), false, null, null);
+        assertThat(rows).containsExactlyInAnyOrder(
+                new PaymentRollupRow(hour, PaymentStatus.CREATED, "INR", 3, new BigDecimal("101.25")),
+                new PaymentRollupRow(hour, PaymentStatus.CREATED, "JPY", 1, new BigDecimal("1500")),
+                new PaymentRollupRow(hour, PaymentStatus.PAID, "INR", 1, new BigDecimal("250.50")));
+        assertThat(paymentRollups.find(hour, hour.plusHours(1), false, PaymentStatus.PAID, "USD")).isEmpty();
+    }
+
+    @Test
+    void backfillRebuildsPastHoursFromOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime yesterday = now.truncatedTo(ChronoUnit.DAYS).minusDays(1);
+        pastOrder("order_rollup_paid", PaymentStatus.PAID, yesterday.plusHours(10), yesterday.plusHours(11));
+        pastOrder("order_rollup_open", PaymentStatus.CREATED, yesterday.plusHours(12), yesterday.plusHours(12));
+        pastOrder(null, PaymentStatus.FAILED, yesterday.minusDays(1), yesterday.minusDays(1));
+        // Written before updated_at was maintained, so it is still NULL
+        pastOrder("order_rollup_legacy_open", PaymentStatus.CREATED, yesterday.plusHours(13), null);
+        pastOrder("order_rollup_legacy_paid", PaymentStatus.PAID, yesterday.plusHours(14), null);
+        // Stale incremental totals for a past hour are replaced
+        jdbcTemplate.update("INSERT INTO payment_rollups (bucket_start, status, currency, transition_count, amount_minor, updated_at) "
+                + "VALUES (?, 'PAID', 'INR', 99, 9900, ?)",
+                now.minusDays(3).truncatedTo(ChronoUnit.HOURS), now);
+
+        PaymentRollups.BackfillResult result = paymentRollups.backfill();
+
+        assertThat(result.orders()).isEqualTo(5);
+        List<PaymentRollupRow> daily = paymentRollups.find(now.minusDays(4), now, true, null, "INR");
+        assertThat(daily).containsExactlyInAnyOrder(
+                new PaymentRollupRow(yesterday.minusDays(1), PaymentStatus.FAILED, "INR",
+                        1, new BigDecimal("100.00")),
+                new PaymentRollupRow(yesterday, PaymentStatus.CREATED, "INR", 4, new BigDecimal("400.00")),
+                new PaymentRollupRow(yesterday, PaymentStatus.PAID, "INR", 2, new BigDecimal("200.00")));
+    }
+
+    private void pastOrder(String razorpayOrderId, PaymentStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        PaymentOrder order = new PaymentOrder(razorpayOrderId, new BigDecimal("100.00"), "INR", "rcpt_" + createdAt.toLocalTime());
+        order.setStatus(status);
+        Long id = paymentOrderRepository.save(order).getId();
+        jdbcTemplate.update("UPDATE payment_orders SET created_at = ?, updated_at = ? WHERE id = ?",
+                createdAt, updatedAt, id);
+    }
+}
@@ -0,0 +1,138 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.exception.GatewayUnavailableException;
+import com.bytebyteboot.payment.model.PaymentOrder;
+import com.bytebyteboot.payment.model.PaymentOrder.PaymentStatus;
+import com.bytebyteboot.payment.repository.PaymentOrderRepository;
+import com.bytebyteboot.payment.repository.ReconciliationCheckpointRepository;
+import com.razorpay.Payment;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the reconciliation job against a stubbed Razorpay payments API, with a chunk size small
+ * enough that the orders span several chunks and checkpoints.
+ */
+@SpringBootTest(properties = {
+        "payment.reconciliation.chunk-size=2",
+        "payment.reconciliation.max-concurrency=4",
+        "payment.reconciliation.permits-per-second=1000"
+})
+@ActiveProfiles("h2")
+class ReconciliationServiceTest {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private ReconciliationCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private RazorpayGateway razorpayGateway;
+
+    @Test
+    void correctsStuckOrdersFromRazorpayPayments() throws Exception {
+        Map<String, List<Payment>> payments = new ConcurrentHashMap<>();
+        stuckOrder("order_rec_captured", PaymentStatus.CREATED);
+        payments.put("order_rec_captured", List.of(payment("pay_rec_f", "failed"), payment("pay_rec_c", "captured")));
+        stuckOrder("order_rec_authorized", PaymentStatus.CREATED);
+        payments.put("order_rec_authorized", List.of(payment("pay_rec_a", "authorized")));
+        stuckOrder("order_rec_failed", PaymentStatus.ATTEMPTED);
+        payments.put("order_rec_failed", List.of(payment("pay_rec_x", "failed")));
+        stuckOrder("order_rec_refunded", PaymentStatus.ATTEMPTED);
+        payments.put("order_rec_refunded", List.of(payment("pay_rec_r", "refunded")));
+        stuckOrder("order_rec_untouched", PaymentStatus.CREATED);
+        stuckOrder("order_rec_error", PaymentStatus.CREATED);
+        stuckOrder("order_rec_shed", PaymentStatus.CREATED);
+        when(razorpayGateway.fetchPayments(anyString(), eq(RazorpayGateway.Lane.BATCH))).thenAnswer(invocation -> {
+            String orderId = invocation.getArgument(0);
+            if (orderId.equals("order_rec_error")) {
+                throw new RazorpayException("BAD_REQUEST_ERROR: rate limited");
+            }
+            if (orderId.equals("order_rec_shed")) {
+                throw new GatewayUnavailableException("razorpay-batch is saturated, too many calls in flight");
+            }
+            return payments.getOrDefault(orderId, List.of());
+        });
+        double errors = meterRegistry.counter("payment.reconciliation.errors").count();
+
+        ReconciliationService.ReconciliationResult result = reconciliationService.reconcile();
+
+        assertThat(status("order_rec_captured")).isEqualTo(PaymentStatus.PAID);
+        assertThat(paymentOrderRepository.findByRazorpayOrderId("order_rec_captured").orElseThrow().getRazorpayPaymentId())
+                .isEqualTo("pay_rec_c");
+        assertThat(status("order_rec_authorized")).isEqualTo(PaymentStatus.ATTEMPTED);
+        assertThat(status("order_rec_failed")).isEqualTo(PaymentStatus.FAILED);
+        assertThat(status("order_rec_untouched")).isEqualTo(PaymentStatus.CREATED);
+        assertThat(status("order_rec_refunded")).isEqualTo(PaymentStatus.REFUNDED);
+        assertThat(paymentOrderRepository.findByRazorpayOrderId("order_rec_refunded").orElseThrow().getRazorpayPaymentId())
+                .isEqualTo("pay_rec_r");
+        assertThat(status("order_rec_error")).isEqualTo(PaymentStatus.CREATED);
+        assertThat(status("order_rec_shed")).isEqualTo(PaymentStatus.CREATED);
+        assertThat(result.corrected()).isGreaterThanOrEqualTo(4);
+        assertThat(meterRegistry.counter("payment.reconciliation.errors").count()).isEqualTo(errors + 1);
+        assertThat(meterRegistry.counter("payment.reconciliation.deferred").count()).isGreaterThanOrEqualTo(1);
+
+        // Completed passes leave no position and no lease behind
+        assertThat(checkpointRepository.findAll()).allSatisfy(checkpoint -> {
+            assertThat(checkpoint.getLastId()).isNull();
+            assertThat(checkpoint.getLeaseUntil()).isNull();
+        });
+    }
+
+    @Test
+    void capturedPaymentWinsOverFailedAttempts() {
+        ReconciliationService.Correction correction = ReconciliationService.decide("order_x", PaymentStatus.ATTEMPTED,
+                List.of(payment("pay_1", "failed"), payment("pay_2", "captured")));
+
+        assertThat(correction).isEqualTo(new ReconciliationService.Correction("order_x", PaymentStatus.PAID, "pay_2"));
+        assertThat(ReconciliationService.decide("order_x", PaymentStatus.ATTEMPTED,
+                List.of(payment("pay_1", "failed"), payment("pay_2", "refunded"))))
+                .isEqualTo(new ReconciliationService.Correction("order_x", PaymentStatus.REFUNDED, "pay_2"));
+        assertThat(ReconciliationService.decide("order_x", PaymentStatus.ATTEMPTED,
+                List.of(payment("pay_3", "authorized")))).isNull();
+    }
+
+    private void stuckOrder(String razorpayOrderId, PaymentStatus status) {
+        PaymentOrder order = new PaymentOrder(razorpayOrderId, new BigDecimal("100.00"), "INR", "rcpt_" + razorpayOrderId);
+        order.setStatus(status);
+        paymentOrderRepository.save(order);
+        jdbcTemplate.update("UPDATE payment_orders SET created_at = ? WHERE razorpay_order_id = ?",
+                LocalDateTime.now().minusHours(1), razorpayOrderId);
+    }
+
+    private PaymentStatus status(String razorpayOrderId) {
+        return paymentOrderRepository.findStatusByRazorpayOrderId(razorpayOrderId).orElseThrow();
+    }
+
+    private static Payment payment(String id, String status) {
+        return new Payment(new JSONObject().put("id", id).put("entity", "payment").put("status", status));
+    }
+}
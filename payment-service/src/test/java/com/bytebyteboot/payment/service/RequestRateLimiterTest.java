@@ -0,0 +1,160 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.RateLimitProperties;
+import com.bytebyteboot.payment.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void admitsTheBurstThenRefillsAtTheConfiguredRate() {
+        RequestRateLimiter limiter = limiter(limit(2, 3), null);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.1", null, null);
+        }
+        assertThatThrownBy(() -> limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.1", null, null))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofMillis(500)));
+        limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.2", null, null);
+
+        now.addAndGet(Duration.ofMillis(500).toNanos());
+        limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.1", null, null);
+        assertThatThrownBy(() -> limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.1", null, null))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        assertThat(meterRegistry.get("payment.ratelimit.rejected")
+                .tag("endpoint", RequestRateLimiter.CREATE_ORDER).tag("dimension", "ip").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void limitsEachCustomerByEmailAndPhoneAcrossIps() {
+        RequestRateLimiter limiter = limiter(limit(100, 100), limit(1, 2));
+
+        limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.1", "Card.Tester@example.com", null);
+        limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.2", "card.tester@example.com", null);
+        assertThatThrownBy(() -> limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.3",
+                " card.tester@EXAMPLE.com", null)).isInstanceOf(RateLimitExceededException.class);
+
+        limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.4", null, "9876543210");
+        limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.5", "other@example.com", "9876543210");
+        assertThatThrownBy(() -> limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.6", null, "9876543210"))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        assertThat(limiter.topOffenders(10)).containsExactlyInAnyOrder(
+                new RequestRateLimiter.Offender(RequestRateLimiter.CREATE_ORDER, "email", "c***@example.com", 1),
+                new RequestRateLimiter.Offender(RequestRateLimiter.CREATE_ORDER, "phone", "******3210", 1));
+    }
+
+    @Test
+    void ranksTheMostRejectedKeysAsTheyAreRejected() {
+        RequestRateLimiter limiter = limiter(limit(1, 1), null);
+        int keys = RequestRateLimiter.TRACKED_OFFENDERS + 20;
+        for (int i = 0; i < keys; i++) {
+            String ip = "10.1.0." + i;
+            // Key i is rejected i + 1 times
+            for (int j = 0; j <= i + 1; j++) {
+                try {
+                    limiter.check(RequestRateLimiter.CREATE_ORDER, ip, null, null);
+                } catch (RateLimitExceededException e) {
+                    // counted by the limiter
+                }
+            }
+        }
+        // A key overtaking the others while ranked moves to the top
+        for (int j = 0; j < keys + 5; j++) {
+            assertThatThrownBy(() -> limiter.check(RequestRateLimiter.CREATE_ORDER, "10.1.0.60", null, null))
+                    .isInstanceOf(RateLimitExceededException.class);
+        }
+
+        List<RequestRateLimiter.Offender> top = limiter.topOffenders(1000);
+        assertThat(top).hasSize(RequestRateLimiter.TRACKED_OFFENDERS);
+        assertThat(top.get(0)).isEqualTo(new RequestRateLimiter.Offender(
+                RequestRateLimiter.CREATE_ORDER, "ip", "10.1.0.60", 61 + keys + 5));
+        assertThat(top.get(1).key()).isEqualTo("10.1.0." + (keys - 1));
+        assertThat(top).extracting(RequestRateLimiter.Offender::rejected).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(top.get(top.size() - 1).rejected()).isGreaterThan(keys - RequestRateLimiter.TRACKED_OFFENDERS);
+        assertThat(limiter.topOffenders(3)).hasSize(3);
+
+        assertThat(meterRegistry.get("payment.ratelimit.offenders").gauge().value()).isEqualTo(keys);
+        assertThat(meterRegistry.get("payment.ratelimit.top.rejections").gauge().value()).isEqualTo(61 + keys + 5);
+    }
+
+    @Test
+    void endpointsWithoutLimitsAndDisabledLimiterAdmitEverything() {
+        RateLimitProperties properties = properties(limit(1, 1), null);
+        RequestRateLimiter limiter = new RequestRateLimiter(properties, meterRegistry, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.check(RequestRateLimiter.BULK_CREATE_ORDERS, "10.0.0.1", null, null);
+        }
+        properties.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.1", null, null);
+        }
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        RequestRateLimiter limiter = limiter(limit(1, 50), null);
+        AtomicInteger admitted = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        try {
+                            limiter.check(RequestRateLimiter.CREATE_ORDER, "10.0.0.1", null, null);
+                            admitted.incrementAndGet();
+                        } catch (RateLimitExceededException e) {
+                            // expected once the burst is used up
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(admitted).hasValue(50);
+    }
+
+    private RequestRateLimiter limiter(RateLimitProperties.Limit ip, RateLimitProperties.Limit customer) {
+        return new RequestRateLimiter(properties(ip, customer), meterRegistry, now::get);
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Limit ip, RateLimitProperties.Limit customer) {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setIp(ip);
+        endpoint.setCustomer(customer);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEndpoints().put(RequestRateLimiter.CREATE_ORDER, endpoint);
+        return properties;
+    }
+
+    private static RateLimitProperties.Limit limit(double permitsPerSecond, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPermitsPerSecond(permitsPerSecond);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
@@ -0,0 +1,222 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.GatewayResilienceProperties;
+import com.bytebyteboot.payment.exception.GatewayUnavailableException;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the executor with stub calls that inject latency and errors, standing in for a slow or
+ * failing Razorpay.
+ */
+class ResilientCallExecutorTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void timesOutHungCallsWithinTheConfiguredTimeout() {
+        ResilientCallExecutor calls = executor(Duration.ofMillis(100), properties());
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> calls.execute(() -> {
+            Thread.sleep(5_000);
+            return "late";
+        })).isInstanceOf(GatewayUnavailableException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get("payment.gateway.rejected").tag("reason", "timeout").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void opensOnGatewayErrorsAndShedsCallsWithoutInvokingThem() throws Exception {
+        GatewayResilienceProperties properties = properties();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(5);
+        properties.setOpenDuration(Duration.ofMillis(200));
+        properties.setHalfOpenCalls(2);
+        ResilientCallExecutor calls = executor(Duration.ofSeconds(1), properties);
+        AtomicInteger invocations = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> calls.execute(() -> {
+                invocations.incrementAndGet();
+                throw new RazorpayException("SERVER_ERROR: upstream unavailable");
+            })).isInstanceOf(RazorpayException.class);
+        }
+        assertThat(calls.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> calls.execute(() -> invocations.incrementAndGet()))
+                .isInstanceOf(GatewayUnavailableException.class);
+        assertThat(invocations).hasValue(5);
+
+        Thread.sleep(250);
+        assertThat(calls.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(calls.getCircuitState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(calls.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(calls.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheBreaker() {
+        GatewayResilienceProperties properties = properties();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(5);
+        ResilientCallExecutor calls = executor(Duration.ofSeconds(1), properties);
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> calls.execute(() -> {
+                throw new RazorpayException("BAD_REQUEST_ERROR: amount must be at least INR 1.00");
+            })).isInstanceOf(RazorpayException.class);
+        }
+
+        assertThat(calls.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void slowCallsShrinkTheConcurrencyLimit() throws Exception {
+        GatewayResilienceProperties properties = properties();
+        properties.setSlowCallThreshold(Duration.ofMillis(20));
+        ResilientCallExecutor calls = executor(Duration.ofSeconds(1), properties);
+        int initialLimit = calls.getConcurrencyLimit();
+
+        calls.execute(() -> {
+            Thread.sleep(50);
+            return "slow";
+        });
+
+        assertThat(calls.getConcurrencyLimit()).isLessThan(initialLimit);
+    }
+
+    @Test
+    void bulkheadRejectsCallersBeyondTheCapAfterTheMaxWait() throws Exception {
+        GatewayResilienceProperties properties = properties();
+        properties.setMaxConcurrentCalls(2);
+        properties.setMaxWait(Duration.ofMillis(50));
+        ResilientCallExecutor calls = executor(Duration.ofSeconds(5), properties);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> blocked = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            blocked.add(executor.submit(() -> calls.execute(() -> {
+                started.countDown();
+                release.await();
+                return "done";
+            })));
+        }
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> calls.execute(() -> "shed"))
+                .isInstanceOf(GatewayUnavailableException.class);
+        release.countDown();
+        for (Future<String> future : blocked) {
+            assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo("done");
+        }
+        assertThat(meterRegistry.get("payment.gateway.rejected").tag("reason", "bulkhead").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void callersWithALimitWaitQueueForTheLimitInsteadOfBeingShed() throws Exception {
+        GatewayResilienceProperties properties = properties();
+        properties.setInitialLimit(2);
+        properties.setMaxLimit(2);
+        properties.setLimitWait(Duration.ofSeconds(5));
+        ResilientCallExecutor calls = executor(Duration.ofSeconds(5), properties);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(executor.submit(() -> calls.execute(() -> {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                return "done";
+            })));
+        }
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        }
+        assertThat(peak.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("payment.gateway.rejected").tag("reason", "limit").counter().count()).isZero();
+    }
+
+    @Test
+    void callsTheExecutorRejectsGiveBackTheirSlotAndPermit() throws Exception {
+        GatewayResilienceProperties properties = properties();
+        properties.setInitialLimit(2);
+        properties.setHalfOpenCalls(1);
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        ResilientCallExecutor calls = new ResilientCallExecutor("razorpay", stopped, Duration.ofSeconds(1), properties,
+                RazorpayGateway::isGatewayFailure, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> calls.execute(() -> "never")).isInstanceOf(GatewayUnavailableException.class);
+        }
+
+        assertThat(meterRegistry.get("payment.gateway.concurrency.in_flight").gauge().value()).isZero();
+        assertThat(meterRegistry.get("payment.gateway.bulkhead.available").gauge().value())
+                .isEqualTo(properties.getMaxConcurrentCalls());
+        assertThat(meterRegistry.get("payment.gateway.rejected").tag("reason", "limit").counter().count()).isZero();
+    }
+
+    @Test
+    void breakerHalfOpensOnlyAfterTheOpenDuration() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(30), 1, now::get);
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private ResilientCallExecutor executor(Duration timeout, GatewayResilienceProperties properties) {
+        return new ResilientCallExecutor("razorpay", executor, timeout, properties,
+                RazorpayGateway::isGatewayFailure, meterRegistry);
+    }
+
+    private static GatewayResilienceProperties properties() {
+        GatewayResilienceProperties properties = new GatewayResilienceProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(1);
+        return properties;
+    }
+}
@@ -0,0 +1,59 @@
+package com.bytebyteboot.payment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void firesEachItemOnTheFirstAdvanceAtOrAfterItsDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 4, 3, 0);
+        wheel.schedule("soon", 1_500);
+        wheel.schedule("level-1", 9_000);
+        wheel.schedule("level-2", 40_000);
+        wheel.schedule("overdue", -5_000);
+
+        assertThat(wheel.advance(0)).containsExactly("overdue");
+        assertThat(wheel.advance(1_999)).isEmpty();
+        assertThat(wheel.advance(2_000)).containsExactly("soon");
+        assertThat(wheel.advance(8_999)).isEmpty();
+        assertThat(wheel.advance(9_000)).containsExactly("level-1");
+        assertThat(wheel.advance(39_999)).isEmpty();
+        assertThat(wheel.advance(40_000)).containsExactly("level-2");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void matchesASortedScheduleForRandomDeadlinesBeyondTheTopRing() {
+        // 4 slots x 3 levels reach 64 ticks; deadlines up to 500 ticks out are re-placed as the top ring turns
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 4, 3, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = random.nextLong(5_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 5_000; now += 1 + random.nextInt(70)) {
+            long current = now;
+            List<Long> due = wheel.advance(now);
+            assertThat(due).allSatisfy(deadline -> assertThat(deadline)
+                    .isLessThanOrEqualTo(current)
+                    .isGreaterThan(current - 80));
+            fired.addAll(due);
+            // Deadlines are rounded up to the next whole tick
+            assertThat(wheel.size()).isEqualTo(deadlines.stream()
+                    .filter(deadline -> Math.ceilDiv(deadline, 10) * 10 > current).count());
+        }
+        fired.addAll(wheel.advance(5_000));
+        assertThat(wheel.size()).isZero();
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(deadlines);
+    }
+}
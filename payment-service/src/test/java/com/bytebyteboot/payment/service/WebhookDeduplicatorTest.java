@@ -0,0 +1,70 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.config.WebhookProperties;
+import com.bytebyteboot.payment.repository.WebhookEventKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class WebhookDeduplicatorTest {
+
+    private static final byte[] PAYLOAD = "{\"event\":\"payment.captured\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private WebhookEventKeyRepository webhookEventKeyRepository;
+
+    @Autowired
+    private WebhookProperties webhookProperties;
+
+    @Test
+    void keysOnTheEventIdAndFallsBackToThePayload() {
+        WebhookDeduplicator deduplicator = deduplicator(new SimpleMeterRegistry());
+
+        assertThat(deduplicator.keyOf("evt_dedup_1", PAYLOAD))
+                .isEqualTo(deduplicator.keyOf(" evt_dedup_1 ", "{}".getBytes(StandardCharsets.UTF_8)))
+                .isNotEqualTo(deduplicator.keyOf("evt_dedup_2", PAYLOAD))
+                .isNotEqualTo(deduplicator.keyOf(null, PAYLOAD));
+        assertThat(deduplicator.keyOf(null, PAYLOAD)).isEqualTo(deduplicator.keyOf("", PAYLOAD));
+    }
+
+    @Test
+    void rejectsRedeliveriesFromMemoryAndAfterARestart() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WebhookDeduplicator deduplicator = deduplicator(meterRegistry);
+        WebhookDeduplicator.EventKey key = deduplicator.keyOf("evt_dedup_restart", PAYLOAD);
+
+        assertThat(deduplicator.isDuplicate(key)).isFalse();
+        deduplicator.recordProcessed(key, System.nanoTime());
+        for (int i = 0; i < 3; i++) {
+            assertThat(deduplicator.isDuplicate(key)).isTrue();
+        }
+        assertThat(deduplicator.isDuplicate(deduplicator.keyOf("evt_dedup_other", PAYLOAD))).isFalse();
+
+        assertThat(meterRegistry.get("payment.webhook.dedup.duplicates").tag("tier", "memory").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("payment.webhook.dedup.hit.ratio").gauge().value()).isEqualTo(0.6);
+
+        SimpleMeterRegistry restartedRegistry = new SimpleMeterRegistry();
+        WebhookDeduplicator restarted = deduplicator(restartedRegistry);
+        restarted.seed();
+
+        assertThat(restarted.isDuplicate(key)).isTrue();
+        assertThat(restarted.isDuplicate(key)).isTrue();
+        assertThat(restartedRegistry.get("payment.webhook.dedup.duplicates").tag("tier", "database").counter().count())
+                .isEqualTo(1);
+        assertThat(restartedRegistry.get("payment.webhook.dedup.duplicates").tag("tier", "memory").counter().count())
+                .isEqualTo(1);
+    }
+
+    private WebhookDeduplicator deduplicator(SimpleMeterRegistry meterRegistry) {
+        return new WebhookDeduplicator(webhookEventKeyRepository, webhookProperties, meterRegistry);
+    }
+}
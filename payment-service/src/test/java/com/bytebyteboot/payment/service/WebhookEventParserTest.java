@@ -0,0 +1,73 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.dto.RazorpayWebhookEvent;
+import com.bytebyteboot.payment.exception.PaymentException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookEventParserTest {
+
+    private final WebhookEventParser parser = new WebhookEventParser();
+
+    @Test
+    void readsPaymentEventAndSkipsNestedEntityData() {
+        String body = "{\"entity\":\"event\",\"account_id\":\"acc_1\",\"event\":\"payment.captured\","
+                + "\"contains\":[\"payment\"],\"payload\":{\"payment\":{\"entity\":{\"id\":\"pay_1\","
+                + "\"amount\":100,\"notes\":{\"id\":\"not_this\",\"order_id\":\"nor_this\"},"
+                + "\"acquirer_data\":{\"rrn\":\"123\"},\"order_id\":\"order_1\",\"refund_status\":null}}},"
+                + "\"created_at\":1567674606}";
+
+        RazorpayWebhookEvent event = parser.parse(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(event).isEqualTo(new RazorpayWebhookEvent(
+                "payment.captured", "order_1", "pay_1", null, null, 1567674606L));
+        assertThat(parser.parse(body)).isEqualTo(event);
+    }
+
+    @Test
+    void takesOrderIdFromOrderEntityForOrderEvents() {
+        String body = new JSONObject()
+                .put("event", "order.paid")
+                .put("payload", new JSONObject()
+                        .put("payment", entity(new JSONObject().put("id", "pay_2").put("order_id", "order_2")))
+                        .put("order", entity(new JSONObject().put("id", "order_2").put("status", "paid"))))
+                .toString();
+
+        RazorpayWebhookEvent event = parser.parse(body);
+
+        assertThat(event.orderId()).isEqualTo("order_2");
+        assertThat(event.paymentId()).isEqualTo("pay_2");
+        assertThat(event.createdAt()).isZero();
+    }
+
+    @Test
+    void readsRefundAndPaymentRefundStatus() {
+        String body = new JSONObject()
+                .put("event", "refund.processed")
+                .put("created_at", 1700000000L)
+                .put("payload", new JSONObject()
+                        .put("refund", entity(new JSONObject().put("id", "rfnd_1").put("payment_id", "pay_3")))
+                        .put("payment", entity(new JSONObject().put("id", "pay_3").put("order_id", "order_3")
+                                .put("refund_status", "full"))))
+                .toString();
+
+        assertThat(parser.parse(body)).isEqualTo(new RazorpayWebhookEvent(
+                "refund.processed", "order_3", "pay_3", "rfnd_1", "full", 1700000000L));
+    }
+
+    @Test
+    void rejectsPayloadsWithoutEvent() {
+        assertThatThrownBy(() -> parser.parse("{\"payload\":{}}")).isInstanceOf(PaymentException.class);
+        assertThatThrownBy(() -> parser.parse("[1,2]")).isInstanceOf(PaymentException.class);
+        assertThatThrownBy(() -> parser.parse("{\"event\":")).isInstanceOf(PaymentException.class);
+    }
+
+    private static JSONObject entity(JSONObject entity) {
+        return new JSONObject().put("entity", entity);
+    }
+}
@@ -0,0 +1,106 @@
+package com.bytebyteboot.payment.service;
+
+import com.bytebyteboot.payment.model.WebhookDelivery;
+import com.bytebyteboot.payment.repository.WebhookDeliveryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:webhook_ingestion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "payment.webhook.async-enabled=true",
+        "payment.webhook.queue-capacity=4",
+        "payment.webhook.batch-size=2",
+        "payment.webhook.workers=1",
+        "payment.webhook.poll-timeout-ms=50",
+        "payment.webhook.rescan-interval=PT1H"
+})
+@ActiveProfiles("h2")
+class WebhookIngestionServiceTest {
+
+    private static final String PAYLOAD =
+            "{\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":{\"id\":\"pay_wi\",\"order_id\":\"order_wi_missing\"}}}}";
+
+    @Autowired
+    private WebhookIngestionService webhookIngestionService;
+
+    @Autowired
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        webhookDeliveryRepository.deleteAll();
+    }
+
+    @Test
+    void rescanClaimsOnlyDeliveriesWhoseLeaseIsFreeOrLapsed() throws InterruptedException {
+        Long stranded = save(null, null);
+        Long lapsed = save("replica-b", LocalDateTime.now().minusSeconds(1));
+        Long held = save("replica-b", LocalDateTime.now().plusMinutes(5));
+
+        assertThat(webhookIngestionService.rescan()).isEqualTo(2);
+
+        awaitProcessed(List.of(stranded, lapsed));
+        WebhookDelivery heldDelivery = webhookDeliveryRepository.findById(held).orElseThrow();
+        assertThat(heldDelivery.getStatus()).isEqualTo(WebhookDelivery.DeliveryStatus.PENDING);
+        assertThat(heldDelivery.getClaimedBy()).isEqualTo("replica-b");
+        assertThat(webhookDeliveryRepository.findById(stranded).orElseThrow().getClaimedBy())
+                .startsWith(System.getenv().getOrDefault("HOSTNAME", "local"));
+    }
+
+    @Test
+    void rescanPagesABacklogLargerThanTheQueue() throws InterruptedException {
+        List<Long> backlog = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            backlog.add(save(null, null));
+        }
+
+        assertThat(webhookIngestionService.rescan()).isBetween(1, 4);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pending(backlog) > 0 && System.currentTimeMillis() < deadline) {
+            webhookIngestionService.rescan();
+            Thread.sleep(20);
+        }
+        assertThat(pending(backlog)).isZero();
+    }
+
+    @Test
+    void enqueuedDeliveriesAreClaimedByThisInstance() throws InterruptedException {
+        assertThat(webhookIngestionService.enqueue(PAYLOAD, "evt_wi_enqueued")).isTrue();
+
+        WebhookDelivery delivery = webhookDeliveryRepository.findAll().get(0);
+        assertThat(delivery.getClaimedBy()).isNotBlank();
+        assertThat(delivery.getClaimedUntil()).isAfter(LocalDateTime.now());
+        awaitProcessed(List.of(delivery.getId()));
+        assertThat(webhookIngestionService.rescan()).isZero();
+    }
+
+    private Long save(String claimedBy, LocalDateTime claimedUntil) {
+        WebhookDelivery delivery = new WebhookDelivery(PAYLOAD);
+        delivery.claim(claimedBy, claimedUntil);
+        return webhookDeliveryRepository.save(delivery).getId();
+    }
+
+    private long pending(List<Long> ids) {
+        return webhookDeliveryRepository.findAllById(ids).stream()
+                .filter(delivery -> delivery.getStatus() == WebhookDelivery.DeliveryStatus.PENDING)
+                .count();
+    }
+
+    private void awaitProcessed(List<Long> ids) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pending(ids) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(pending(ids)).isZero();
+    }
+}
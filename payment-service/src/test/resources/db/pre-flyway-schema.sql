@@ -0,0 +1,18 @@
+-- payment_orders as ddl-auto:update created it from the entity before any migration existed
+CREATE TABLE payment_orders (
+    id                  BIGINT         NOT NULL AUTO_INCREMENT,
+    razorpay_order_id   VARCHAR(255)   NOT NULL,
+    razorpay_payment_id VARCHAR(255),
+    razorpay_signature  VARCHAR(255),
+    amount              DECIMAL(19, 2) NOT NULL,
+    currency            VARCHAR(255)   NOT NULL,
+    receipt             VARCHAR(255)   NOT NULL,
+    status              ENUM ('CREATED', 'ATTEMPTED', 'PAID', 'FAILED', 'CANCELLED') NOT NULL,
+    customer_email      VARCHAR(255),
+    customer_phone      VARCHAR(255),
+    created_at          DATETIME(6)    NOT NULL,
+    updated_at          DATETIME(6),
+    notes               TEXT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payment_orders_razorpay_order_id UNIQUE (razorpay_order_id)
+) ENGINE = InnoDB;